@@ -0,0 +1,54 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import com.arm.cmsis.pack.CpPackManager;
+import com.arm.cmsis.pack.parser.ICpXmlParser;
+import com.arm.cmsis.pack.parser.PdscCache;
+
+/**
+ * Pack manager that runs without OSGi framework, pack installer and preferences
+ */
+public class BenchmarkPackManager extends CpPackManager {
+
+	private boolean bUseCache = false;
+
+	/**
+	 * Creates pack manager for given pack root directory
+	 * @param packRoot pack root directory
+	 * @param parser ICpXmlParser to parse pdsc files
+	 */
+	public BenchmarkPackManager(String packRoot, ICpXmlParser parser) {
+		cmsisPackRootDirectory = packRoot;
+		pdscParser = parser;
+	}
+
+	/**
+	 * Enables or disables cache of parsed packs
+	 * @param bUse true to use the cache
+	 */
+	public void setUseCache(boolean bUse) {
+		bUseCache = bUse;
+	}
+
+	public boolean isUseCache() {
+		return bUseCache;
+	}
+
+	@Override
+	protected PdscCache createPdscCache(String rootDirectory) {
+		if(!bUseCache) {
+			return null;
+		}
+		return super.createPdscCache(rootDirectory);
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpItem;
+import com.arm.cmsis.pack.data.ICpComponent;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.enums.EEvaluationResult;
+import com.arm.cmsis.pack.info.CpConfigurationInfo;
+import com.arm.cmsis.pack.info.CpDeviceInfo;
+import com.arm.cmsis.pack.rte.components.IRteComponent;
+import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+
+/**
+ * Measures resolving of component dependencies for a chain of middleware layers:
+ * <ul>
+ * <li>"top" : the top layer is selected, resolving selects all underlying layers and the device startup one by one</li>
+ * <li>"odd" : every second layer is selected, all missing layers can be resolved at once</li>
+ * </ul>
+ * Resolving one dependency after another is compared with resolving in rounds
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DependencyResolverBenchmark {
+
+	@Param({"20"}) //$NON-NLS-1$
+	public int packCount;
+
+	@Param({"10", "50"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int layerCount;
+
+	@Param({"top", "odd"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public String selection;
+
+	private File fRoot;
+	private RteModelBenchmark.BenchmarkModel fModel;
+	private List<IRteComponent> fComponents;
+	private List<IRteComponent> fInitialSelection;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fRoot = Files.createTempDirectory("resolver").toFile(); //$NON-NLS-1$
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(packCount);
+		generator.setMiddlewareCount(layerCount);
+		generator.generate(fRoot);
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PdscParserBenchmark.createParser(PdscParserBenchmark.DOM));
+
+		String deviceName = SyntheticPackGenerator.getDeviceName(0, 0, 1);
+		IRteDeviceItem device = packManager.getDevices().findItem(deviceName, SyntheticPackGenerator.DVENDOR, true);
+		ICpItem toolchainInfo = new CpItem(null, CmsisConstants.TOOLCHAIN_TAG);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TCOMPILER, SyntheticPackGenerator.TCOMPILER);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TOUTPUT, "exe"); //$NON-NLS-1$
+
+		fModel = new RteModelBenchmark.BenchmarkModel(packManager);
+		fModel.setConfigurationInfo(new CpConfigurationInfo(new CpDeviceInfo(null, device), toolchainInfo, true));
+
+		fComponents = new ArrayList<IRteComponent>();
+		RteModelBenchmark.collectComponents(fModel.getComponents(), fComponents);
+		fInitialSelection = new ArrayList<IRteComponent>();
+		for(int m = layerCount - 1; m >= 0; m -= 2) {
+			String group = SyntheticPackGenerator.getMiddlewareGroup(m);
+			for(IRteComponent c : fComponents) {
+				ICpComponent cp = c.getActiveCpComponent();
+				if(cp != null && SyntheticPackGenerator.MIDDLEWARE.equals(cp.getAttribute(CmsisConstants.CCLASS))
+						&& group.equals(cp.getAttribute(CmsisConstants.CGROUP))) {
+					fInitialSelection.add(c);
+					break;
+				}
+			}
+			if("top".equals(selection)) //$NON-NLS-1$
+				break;
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void selectLayers() {
+		for(IRteComponent c : fComponents) {
+			if(c.isSelected()) {
+				fModel.selectComponent(c, 0);
+			}
+		}
+		for(IRteComponent c : fInitialSelection) {
+			fModel.selectComponent(c, 1);
+		}
+		fModel.evaluateComponentDependencies();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	@Benchmark
+	public EEvaluationResult resolveDependencies() {
+		return fModel.getDependencySolver().resolveDependencies();
+	}
+
+	@Benchmark
+	public EEvaluationResult resolveAllDependencies() {
+		return fModel.getDependencySolver().resolveAllDependencies();
+	}
+}
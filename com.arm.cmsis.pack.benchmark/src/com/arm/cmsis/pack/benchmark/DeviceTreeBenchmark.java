@@ -0,0 +1,111 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.data.ICpPackCollection;
+import com.arm.cmsis.pack.enums.EDeviceParameter;
+import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceQuery;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTable;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTreeSnapshot;
+
+/**
+ * Measures construction of the device tree from loaded packs, creation of a filtered view of a shared tree
+ * device lookup, extraction of the device parameter table and parametric device query
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DeviceTreeBenchmark {
+
+	@Param({"20", "100"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int packCount;
+
+	private File fRoot;
+	private ICpPackCollection fPackCollection;
+	private Collection<ICpPack> fPacks;
+	private IRteDeviceItem fDeviceTree;
+	private String fDeviceName;
+	private RteDeviceTable fDeviceTable;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fRoot = Files.createTempDirectory("deviceTree").toFile(); //$NON-NLS-1$
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(packCount);
+		generator.generate(fRoot);
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PdscParserBenchmark.createParser(PdscParserBenchmark.DOM));
+		fPackCollection = packManager.getPacks();
+		fPacks = fPackCollection.getPacks();
+		fDeviceTree = RteDeviceItem.createTree(fPacks);
+		fDeviceTable = new RteDeviceTable(fDeviceTree);
+		fDeviceName = SyntheticPackGenerator.getDeviceName(packCount - 1, generator.getFamilyCount() - 1, generator.getDeviceCount() - 1);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	@Benchmark
+	public IRteDeviceItem createTree() {
+		return RteDeviceItem.createTree(fPacks);
+	}
+
+	@Benchmark
+	public IRteDeviceItem createView() {
+		return RteDeviceTreeSnapshot.getSnapshot(fPackCollection).createView(fPacks);
+	}
+
+	@Benchmark
+	public IRteDeviceItem findItem() {
+		return fDeviceTree.findItem(fDeviceName, SyntheticPackGenerator.DVENDOR, true);
+	}
+
+	@Benchmark
+	public RteDeviceTable createTable() {
+		return new RteDeviceTable(fDeviceTree);
+	}
+
+	@Benchmark
+	public List<IRteDeviceItem> queryDevices() {
+		RteDeviceQuery query = new RteDeviceQuery().setCore("Cortex-M*").setMpu(true).setMinRomSize(256 * 1024) //$NON-NLS-1$
+				.addSortKey(EDeviceParameter.CLOCK, false).addSortKey(EDeviceParameter.NAME, true);
+		return fDeviceTable.query(query);
+	}
+}
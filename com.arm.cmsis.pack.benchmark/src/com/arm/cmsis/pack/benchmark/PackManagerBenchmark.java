@@ -0,0 +1,89 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arm.cmsis.pack.data.ICpPackCollection;
+
+/**
+ * Measures loading of a complete pack root directory with {@link BenchmarkPackManager#loadPacks(String)}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PackManagerBenchmark {
+
+	@Param({PdscParserBenchmark.DOM, PdscParserBenchmark.STAX})
+	public String parserType;
+
+	@Param({"50"}) //$NON-NLS-1$
+	public int packCount;
+
+	@Param({"1", "0"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int threadCount; // 0 : thread per processor
+
+	@Param({"true", "false"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public boolean lazyLoading;
+
+	@Param({"false", "true"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public boolean useCache;
+
+	private File fRoot;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fRoot = Files.createTempDirectory("packManager").toFile(); //$NON-NLS-1$
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(packCount);
+		generator.generate(fRoot);
+		if(useCache) {
+			loadPacks(); // populate the cache, measure warm loads only
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	@Benchmark
+	public ICpPackCollection loadPacks() {
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PdscParserBenchmark.createParser(parserType));
+		if(threadCount > 0) {
+			packManager.setLoadThreadCount(threadCount);
+		}
+		packManager.setLazyLoading(lazyLoading);
+		packManager.setUseCache(useCache);
+		return packManager.getPacks(); // calls loadPacks(root)
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arm.cmsis.pack.parser.ICpXmlParser;
+import com.arm.cmsis.pack.parser.PdscParser;
+import com.arm.cmsis.pack.parser.PdscStaxParser;
+
+/**
+ * Measures parsing of single pdsc files with DOM and StAX parsers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PdscParserBenchmark {
+
+	public static final String DOM = "dom"; //$NON-NLS-1$
+	public static final String STAX = "stax"; //$NON-NLS-1$
+
+	@Param({DOM, STAX})
+	public String parserType;
+
+	@Param({"20", "200"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int devicesPerFamily;
+
+	private File fRoot;
+	private List<String> fFiles;
+	private ICpXmlParser fParser;
+
+	/**
+	 * Creates a parser of given type
+	 * @param type {@link #DOM} or {@link #STAX}
+	 * @return ICpXmlParser without schema validation
+	 */
+	public static ICpXmlParser createParser(String type) {
+		ICpXmlParser parser = STAX.equals(type) ? new PdscStaxParser() : new PdscParser();
+		parser.init();
+		return parser;
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fRoot = Files.createTempDirectory("pdscParser").toFile(); //$NON-NLS-1$
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(4);
+		generator.setDeviceCount(devicesPerFamily);
+		fFiles = generator.generate(fRoot);
+		fParser = createParser(parserType);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		fParser.release();
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	@Benchmark
+	public void parseFile(Blackhole bh) {
+		for(String file : fFiles) {
+			bh.consume(fParser.parseFile(file));
+		}
+	}
+}
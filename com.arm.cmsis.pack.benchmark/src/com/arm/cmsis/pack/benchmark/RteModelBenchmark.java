@@ -0,0 +1,149 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpItem;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.enums.EEvaluationResult;
+import com.arm.cmsis.pack.info.CpConfigurationInfo;
+import com.arm.cmsis.pack.info.CpDeviceInfo;
+import com.arm.cmsis.pack.rte.RteModel;
+import com.arm.cmsis.pack.rte.components.IRteComponent;
+import com.arm.cmsis.pack.rte.components.IRteComponentItem;
+import com.arm.cmsis.pack.rte.dependencies.IRteDependencySolver;
+import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+
+/**
+ * Measures RTE model update and component dependency evaluation for a device with selected components
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RteModelBenchmark {
+
+	@Param({"20", "100"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int packCount;
+
+	@Param({"10", "50"}) //$NON-NLS-1$ //$NON-NLS-2$
+	public int selectedCount;
+
+	private File fRoot;
+	private BenchmarkModel fModel;
+
+	/**
+	 * RTE model that takes packs from a benchmark pack manager instead of the plug-in
+	 */
+	static class BenchmarkModel extends RteModel {
+		private final BenchmarkPackManager fPackManager;
+
+		BenchmarkModel(BenchmarkPackManager packManager) {
+			fPackManager = packManager;
+		}
+
+		@Override
+		protected void collectPacks() {
+			fAllPacks = fPackManager.getInstalledPacks();
+		}
+
+		IRteDependencySolver getDependencySolver() {
+			return fDependencySolver;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		fRoot = Files.createTempDirectory("rteModel").toFile(); //$NON-NLS-1$
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(packCount);
+		generator.generate(fRoot);
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PdscParserBenchmark.createParser(PdscParserBenchmark.DOM));
+
+		String deviceName = SyntheticPackGenerator.getDeviceName(0, 0, 1);
+		IRteDeviceItem device = packManager.getDevices().findItem(deviceName, SyntheticPackGenerator.DVENDOR, true);
+		ICpItem toolchainInfo = new CpItem(null, CmsisConstants.TOOLCHAIN_TAG);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TCOMPILER, SyntheticPackGenerator.TCOMPILER);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TOUTPUT, "exe"); //$NON-NLS-1$
+
+		fModel = new BenchmarkModel(packManager);
+		fModel.setConfigurationInfo(new CpConfigurationInfo(new CpDeviceInfo(null, device), toolchainInfo, true));
+
+		List<IRteComponent> components = new ArrayList<IRteComponent>();
+		collectComponents(fModel.getComponents(), components);
+		int n = 0;
+		for(IRteComponent c : components) {
+			if(n++ >= selectedCount) {
+				break;
+			}
+			fModel.selectComponent(c, 1);
+		}
+		fModel.evaluateComponentDependencies();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	static void collectComponents(IRteComponentItem item, List<IRteComponent> components) {
+		if(item == null) {
+			return;
+		}
+		if(item instanceof IRteComponent) {
+			components.add((IRteComponent)item);
+			return;
+		}
+		Collection<? extends IRteComponentItem> children = item.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(IRteComponentItem child : children) {
+			collectComponents(child, components);
+		}
+	}
+
+	@Benchmark
+	public RteModel update() {
+		fModel.update();
+		return fModel;
+	}
+
+	@Benchmark
+	public EEvaluationResult evaluateDependencies() {
+		return fModel.evaluateComponentDependencies();
+	}
+}
@@ -0,0 +1,379 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates a synthetic pack corpus in the layout of a CMSIS pack root directory:
+ * <code>root/Vendor/Name/Version/Vendor.Name.pdsc</code>
+ * <p/>
+ * Generated packs contain device families, boards, conditions, components and examples,
+ * their number is configurable to scale the corpus. Output is deterministic for the same settings.
+ */
+public class SyntheticPackGenerator {
+
+	public static final String VENDOR = "ARM"; //$NON-NLS-1$
+	public static final String DVENDOR = "ARM:82"; //$NON-NLS-1$
+	public static final String PACK_VERSION = "1.0.0"; //$NON-NLS-1$
+	public static final String TCOMPILER = "ARMCC"; //$NON-NLS-1$
+	public static final String MIDDLEWARE = "Middleware"; //$NON-NLS-1$
+
+	private static final String[] CORES = {"Cortex-M0", "Cortex-M3", "Cortex-M4", "Cortex-M7"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+
+	private int fPackCount = 10;
+	private int fFamilyCount = 4;
+	private int fDeviceCount = 20;
+	private int fBoardCount = 4;
+	private int fComponentCount = 20;
+	private int fConditionCount = 10;
+	private int fExampleCount = 4;
+	private int fMiddlewareCount = 0;
+
+	public int getPackCount() {
+		return fPackCount;
+	}
+
+	/**
+	 * @param count number of packs to generate
+	 */
+	public void setPackCount(int count) {
+		fPackCount = count;
+	}
+
+	public int getFamilyCount() {
+		return fFamilyCount;
+	}
+
+	/**
+	 * @param count number of device families per pack
+	 */
+	public void setFamilyCount(int count) {
+		fFamilyCount = count;
+	}
+
+	public int getDeviceCount() {
+		return fDeviceCount;
+	}
+
+	/**
+	 * @param count number of devices per family
+	 */
+	public void setDeviceCount(int count) {
+		fDeviceCount = count;
+	}
+
+	public int getBoardCount() {
+		return fBoardCount;
+	}
+
+	/**
+	 * @param count number of boards per pack
+	 */
+	public void setBoardCount(int count) {
+		fBoardCount = count;
+	}
+
+	public int getComponentCount() {
+		return fComponentCount;
+	}
+
+	/**
+	 * @param count number of components per pack in addition to CMSIS:CORE and Device:Startup
+	 */
+	public void setComponentCount(int count) {
+		fComponentCount = count;
+	}
+
+	public int getConditionCount() {
+		return fConditionCount;
+	}
+
+	/**
+	 * @param count number of conditions per pack in addition to the ones required by the standard components
+	 */
+	public void setConditionCount(int count) {
+		fConditionCount = count;
+	}
+
+	public int getExampleCount() {
+		return fExampleCount;
+	}
+
+	/**
+	 * @param count number of examples per pack
+	 */
+	public void setExampleCount(int count) {
+		fExampleCount = count;
+	}
+
+	public int getMiddlewareCount() {
+		return fMiddlewareCount;
+	}
+
+	/**
+	 * @param count number of middleware layers in the first pack, each layer requires the previous one
+	 */
+	public void setMiddlewareCount(int count) {
+		fMiddlewareCount = count;
+	}
+
+	/**
+	 * Returns Cgroup of a generated middleware layer
+	 * @param layer layer index
+	 * @return Cgroup attribute value, Cclass is {@link #MIDDLEWARE}
+	 */
+	public static String getMiddlewareGroup(int layer) {
+		return "Layer " + layer; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns name of a generated pack
+	 * @param packIndex pack index
+	 * @return pack name without vendor and version
+	 */
+	public static String getPackName(int packIndex) {
+		return "Synth" + packIndex; //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns name of a generated device
+	 * @param packIndex pack index
+	 * @param familyIndex family index
+	 * @param deviceIndex device index
+	 * @return device name
+	 */
+	public static String getDeviceName(int packIndex, int familyIndex, int deviceIndex) {
+		return "SYN" + packIndex + 'F' + familyIndex + 'D' + deviceIndex; //$NON-NLS-1$
+	}
+
+	/**
+	 * Generates pack corpus
+	 * @param rootDirectory pack root directory to write pdsc files to
+	 * @return list of absolute pdsc file names
+	 * @throws IOException if a file cannot be written
+	 */
+	public List<String> generate(File rootDirectory) throws IOException {
+		List<String> files = new ArrayList<String>(fPackCount);
+		for(int p = 0; p < fPackCount; p++) {
+			String name = getPackName(p);
+			File dir = new File(rootDirectory, VENDOR + File.separator + name + File.separator + PACK_VERSION);
+			Files.createDirectories(dir.toPath());
+			File pdsc = new File(dir, VENDOR + '.' + name + ".pdsc"); //$NON-NLS-1$
+			try (Writer w = Files.newBufferedWriter(pdsc.toPath(), StandardCharsets.UTF_8)) {
+				writePack(w, p);
+			}
+			files.add(pdsc.getAbsolutePath());
+		}
+		return files;
+	}
+
+	/**
+	 * Writes pdsc content of a pack
+	 * @param w Writer to write to
+	 * @param p pack index
+	 * @throws IOException
+	 */
+	protected void writePack(Writer w, int p) throws IOException {
+		w.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"); //$NON-NLS-1$
+		w.write("<package schemaVersion=\"1.4\" xmlns:xs=\"http://www.w3.org/2001/XMLSchema-instance\" xs:noNamespaceSchemaLocation=\"PACK.xsd\">\n"); //$NON-NLS-1$
+		w.write("  <vendor>" + VENDOR + "</vendor>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("  <name>" + getPackName(p) + "</name>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("  <description>Synthetic pack " + p + " for benchmarking</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("  <url>http://www.keil.com/pack/</url>\n"); //$NON-NLS-1$
+		w.write("  <releases>\n"); //$NON-NLS-1$
+		w.write("    <release version=\"" + PACK_VERSION + "\">Initial release</release>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("  </releases>\n"); //$NON-NLS-1$
+		writeDevices(w, p);
+		writeBoards(w, p);
+		writeConditions(w, p);
+		writeComponents(w, p);
+		writeExamples(w, p);
+		w.write("</package>\n"); //$NON-NLS-1$
+	}
+
+	protected void writeDevices(Writer w, int p) throws IOException {
+		w.write("  <devices>\n"); //$NON-NLS-1$
+		for(int f = 0; f < fFamilyCount; f++) {
+			w.write("    <family Dfamily=\"SYN" + p + " Family " + f + "\" Dvendor=\"" + DVENDOR + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			w.write("      <processor Dcore=\"" + CORES[f % CORES.length] + "\" DcoreVersion=\"r0p1\" Dfpu=\"0\" Dmpu=\"1\" Dendian=\"Little-endian\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <description>Synthetic device family " + f + "</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <book name=\"Doc/family" + f + ".pdf\" title=\"Reference Manual\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <debug svd=\"SVD/SYN" + p + "F" + f + ".svd\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			w.write("      <compile header=\"Device/Include/SYN" + p + "F" + f + ".h\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			w.write("      <subFamily DsubFamily=\"SYN" + p + "F" + f + " Series\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			for(int d = 0; d < fDeviceCount; d++) {
+				String name = getDeviceName(p, f, d);
+				int flash = 0x10000 << (d % 4);
+				w.write("        <device Dname=\"" + name + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("          <processor Dclock=\"" + (48000000 + d * 1000000) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("          <memory id=\"IROM1\" start=\"0x00000000\" size=\"0x" + Integer.toHexString(flash) + "\" startup=\"1\" default=\"1\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("          <memory id=\"IRAM1\" start=\"0x20000000\" size=\"0x" + Integer.toHexString(flash / 4) + "\" init=\"0\" default=\"1\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("          <algorithm name=\"Flash/" + name + ".FLM\" start=\"0x00000000\" size=\"0x" + Integer.toHexString(flash) + "\" default=\"1\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				w.write("          <feature type=\"Timer\" n=\"" + (2 + d % 6) + "\" m=\"16\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("          <feature type=\"UART\" n=\"" + (1 + d % 4) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+				w.write("        </device>\n"); //$NON-NLS-1$
+			}
+			w.write("      </subFamily>\n"); //$NON-NLS-1$
+			w.write("    </family>\n"); //$NON-NLS-1$
+		}
+		w.write("  </devices>\n"); //$NON-NLS-1$
+	}
+
+	protected void writeBoards(Writer w, int p) throws IOException {
+		w.write("  <boards>\n"); //$NON-NLS-1$
+		for(int b = 0; b < fBoardCount; b++) {
+			int f = fFamilyCount > 0 ? b % fFamilyCount : 0;
+			w.write("    <board vendor=\"" + VENDOR + "\" name=\"SYN" + p + " Board " + b + "\" revision=\"Rev." + b + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			w.write("      <description>Synthetic evaluation board " + b + "</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <book category=\"manual\" name=\"Doc/board" + b + ".pdf\" title=\"User Manual\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			if(fFamilyCount > 0 && fDeviceCount > 0) {
+				w.write("      <mountedDevice deviceIndex=\"0\" Dvendor=\"" + DVENDOR + "\" Dname=\"" + getDeviceName(p, f, b % fDeviceCount) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				w.write("      <compatibleDevice deviceIndex=\"0\" Dvendor=\"" + DVENDOR + "\" Dfamily=\"SYN" + p + " Family " + f + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			}
+			w.write("      <feature type=\"LED\" n=\"" + (b + 1) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("    </board>\n"); //$NON-NLS-1$
+		}
+		w.write("  </boards>\n"); //$NON-NLS-1$
+	}
+
+	protected void writeConditions(Writer w, int p) throws IOException {
+		w.write("  <conditions>\n"); //$NON-NLS-1$
+		w.write("    <condition id=\"ARM Compiler\">\n"); //$NON-NLS-1$
+		w.write("      <require Tcompiler=\"" + TCOMPILER + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("    </condition>\n"); //$NON-NLS-1$
+		w.write("    <condition id=\"Cortex-M Device\">\n"); //$NON-NLS-1$
+		for(String core : CORES) {
+			w.write("      <accept Dcore=\"" + core + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		w.write("    </condition>\n"); //$NON-NLS-1$
+		w.write("    <condition id=\"SYN" + p + " Startup\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("      <require Dvendor=\"" + DVENDOR + "\" Dname=\"SYN" + p + "F*\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		w.write("      <require Cclass=\"CMSIS\" Cgroup=\"CORE\"/>\n"); //$NON-NLS-1$
+		w.write("      <require condition=\"ARM Compiler\"/>\n"); //$NON-NLS-1$
+		w.write("    </condition>\n"); //$NON-NLS-1$
+		for(int c = 0; c < fConditionCount; c++) {
+			w.write("    <condition id=\"SYN" + p + " Cond " + c + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			w.write("      <require Dvendor=\"" + DVENDOR + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <require condition=\"Cortex-M Device\"/>\n"); //$NON-NLS-1$
+			w.write("      <require Cclass=\"Device\" Cgroup=\"Startup\"/>\n"); //$NON-NLS-1$
+			if(c > 0) {
+				// chain conditions to exercise nested evaluation
+				w.write("      <require condition=\"SYN" + p + " Cond " + (c - 1) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			w.write("      <deny Dname=\"SYN" + p + "F*D" + (c % 10) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			w.write("    </condition>\n"); //$NON-NLS-1$
+		}
+		for(int m = 0; p == 0 && m < fMiddlewareCount; m++) {
+			w.write("    <condition id=\"" + MIDDLEWARE + " " + m + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			w.write("      <require Cclass=\"Device\" Cgroup=\"Startup\"/>\n"); //$NON-NLS-1$
+			if(m > 0) {
+				w.write("      <require Cclass=\"" + MIDDLEWARE + "\" Cgroup=\"" + getMiddlewareGroup(m - 1) + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				// deny rule that finds a selected component but does not match it
+				w.write("      <deny Cclass=\"" + MIDDLEWARE + "\" Cgroup=\"" + getMiddlewareGroup(m - 1) + "\" Cvariant=\"Legacy\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+			w.write("    </condition>\n"); //$NON-NLS-1$
+		}
+		w.write("  </conditions>\n"); //$NON-NLS-1$
+	}
+
+	protected void writeComponents(Writer w, int p) throws IOException {
+		w.write("  <components>\n"); //$NON-NLS-1$
+		w.write("    <component Cclass=\"CMSIS\" Cgroup=\"CORE\" Cversion=\"5.0." + p + "\" condition=\"Cortex-M Device\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("      <description>CMSIS-CORE for Cortex-M</description>\n"); //$NON-NLS-1$
+		w.write("      <files>\n"); //$NON-NLS-1$
+		w.write("        <file category=\"include\" name=\"CMSIS/Include/\"/>\n"); //$NON-NLS-1$
+		w.write("      </files>\n"); //$NON-NLS-1$
+		w.write("    </component>\n"); //$NON-NLS-1$
+		w.write("    <component Cclass=\"Device\" Cgroup=\"Startup\" Cversion=\"1.0.0\" condition=\"SYN" + p + " Startup\">\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("      <description>System and startup files</description>\n"); //$NON-NLS-1$
+		w.write("      <files>\n"); //$NON-NLS-1$
+		w.write("        <file category=\"source\" name=\"Device/Source/system_SYN" + p + ".c\" attr=\"config\" version=\"1.0.0\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("        <file category=\"source\" name=\"Device/Source/ARM/startup_SYN" + p + ".s\" attr=\"config\" version=\"1.0.0\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		w.write("      </files>\n"); //$NON-NLS-1$
+		w.write("    </component>\n"); //$NON-NLS-1$
+		for(int c = 0; c < fComponentCount; c++) {
+			String condition = fConditionCount > 0 ? " condition=\"SYN" + p + " Cond " + (c % fConditionCount) + "\"" : ""; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			w.write("    <component Cclass=\"Synthetic\" Cgroup=\"Group " + (c % 5) + "\" Csub=\"Sub " + c + "\" Cvariant=\"SYN" + p + "\" Cversion=\"1." + c + ".0\"" + condition + ">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+			w.write("      <description>Synthetic component " + c + "</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <RTE_Components_h>#define RTE_SYNTHETIC_" + c + "</RTE_Components_h>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <files>\n"); //$NON-NLS-1$
+			w.write("        <file category=\"header\" name=\"Synthetic/Include/syn" + c + ".h\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("        <file category=\"source\" name=\"Synthetic/Source/syn" + c + ".c\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      </files>\n"); //$NON-NLS-1$
+			w.write("    </component>\n"); //$NON-NLS-1$
+		}
+		for(int m = 0; p == 0 && m < fMiddlewareCount; m++) {
+			w.write("    <component Cclass=\"" + MIDDLEWARE + "\" Cgroup=\"" + getMiddlewareGroup(m) + "\" Cversion=\"1.0.0\" condition=\"" + MIDDLEWARE + " " + m + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+			w.write("      <description>Synthetic middleware layer " + m + "</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <files>\n"); //$NON-NLS-1$
+			w.write("        <file category=\"source\" name=\"Middleware/Source/layer" + m + ".c\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      </files>\n"); //$NON-NLS-1$
+			w.write("    </component>\n"); //$NON-NLS-1$
+		}
+		w.write("  </components>\n"); //$NON-NLS-1$
+	}
+
+	protected void writeExamples(Writer w, int p) throws IOException {
+		w.write("  <examples>\n"); //$NON-NLS-1$
+		for(int e = 0; e < fExampleCount; e++) {
+			int b = fBoardCount > 0 ? e % fBoardCount : 0;
+			w.write("    <example name=\"Blinky " + e + "\" doc=\"Abstract.txt\" folder=\"Boards/SYN" + p + "/Blinky" + e + "\">\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			w.write("      <description>Synthetic example " + e + "</description>\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			w.write("      <board name=\"SYN" + p + " Board " + b + "\" vendor=\"" + VENDOR + "\"/>\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+			w.write("      <project>\n"); //$NON-NLS-1$
+			w.write("        <environment name=\"uv\" load=\"Blinky.uvprojx\"/>\n"); //$NON-NLS-1$
+			w.write("      </project>\n"); //$NON-NLS-1$
+			w.write("      <attributes>\n"); //$NON-NLS-1$
+			w.write("        <component Cclass=\"CMSIS\" Cgroup=\"CORE\"/>\n"); //$NON-NLS-1$
+			w.write("        <component Cclass=\"Device\" Cgroup=\"Startup\"/>\n"); //$NON-NLS-1$
+			w.write("        <keyword tag=\"Blinky\"/>\n"); //$NON-NLS-1$
+			w.write("      </attributes>\n"); //$NON-NLS-1$
+			w.write("    </example>\n"); //$NON-NLS-1$
+		}
+		w.write("  </examples>\n"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Deletes a directory with its content, used to remove generated corpus
+	 * @param dir directory to delete
+	 * @throws IOException
+	 */
+	public static void deleteDirectory(File dir) throws IOException {
+		if(dir == null || !dir.exists()) {
+			return;
+		}
+		Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+				Files.delete(d);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+}
@@ -0,0 +1,73 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arm.cmsis.pack.utils.VersionComparator;
+
+/**
+ * Measures version comparison and version range matching with versions typical for packs and components
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VersionComparatorBenchmark {
+
+	private static final String[] VERSIONS = {
+		"1.0.0", //$NON-NLS-1$
+		"1.2.3", //$NON-NLS-1$
+		"1.2.3-rc1", //$NON-NLS-1$
+		"1.2.3b", //$NON-NLS-1$
+		"2.10.0", //$NON-NLS-1$
+		"5.0.1-dev+build.7", //$NON-NLS-1$
+	};
+
+	private static final String[] RANGES = {
+		"1.0.0", //$NON-NLS-1$
+		"1.2.0:1.9.9", //$NON-NLS-1$
+		"1.2.3:1.2.3", //$NON-NLS-1$
+		":2.0.0", //$NON-NLS-1$
+	};
+
+	@Benchmark
+	public void versionCompare(Blackhole bh) {
+		for(String v1 : VERSIONS) {
+			for(String v2 : VERSIONS) {
+				bh.consume(VersionComparator.versionCompare(v1, v2));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchVersionRange(Blackhole bh) {
+		for(String range : RANGES) {
+			for(String version : VERSIONS) {
+				bh.consume(VersionComparator.matchVersionRange(version, range));
+			}
+		}
+	}
+}
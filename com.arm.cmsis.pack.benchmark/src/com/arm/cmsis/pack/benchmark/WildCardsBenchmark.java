@@ -0,0 +1,79 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+import com.arm.cmsis.pack.utils.WildCards;
+
+/**
+ * Measures wildcard matching with patterns typical for device and component conditions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WildCardsBenchmark {
+
+	private static final String[] PATTERNS = {
+		"STM32F407VG", //$NON-NLS-1$
+		"STM32F4*", //$NON-NLS-1$
+		"STM32F4?7*", //$NON-NLS-1$
+		"*", //$NON-NLS-1$
+		"SYN*F[0-3]D*", //$NON-NLS-1$
+		"Cortex-M*", //$NON-NLS-1$
+		"ARM*", //$NON-NLS-1$
+		"*CC", //$NON-NLS-1$
+	};
+
+	private static final String[] VALUES = {
+		"STM32F407VG", //$NON-NLS-1$
+		"STM32F429ZI", //$NON-NLS-1$
+		"SYN12F3D17", //$NON-NLS-1$
+		"Cortex-M4", //$NON-NLS-1$
+		"ARMCC", //$NON-NLS-1$
+		"GCC", //$NON-NLS-1$
+	};
+
+	@Benchmark
+	public void match(Blackhole bh) {
+		for(String pattern : PATTERNS) {
+			for(String value : VALUES) {
+				bh.consume(WildCards.match(pattern, value));
+			}
+		}
+	}
+
+	@Benchmark
+	public void matchCompiled(Blackhole bh) {
+		for(String pattern : PATTERNS) {
+			CompiledWildcard compiled = CompiledWildcard.compile(pattern);
+			for(String value : VALUES) {
+				bh.consume(compiled.match(value));
+			}
+		}
+	}
+}
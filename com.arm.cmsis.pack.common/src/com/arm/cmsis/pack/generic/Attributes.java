@@ -16,7 +16,7 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 
 import com.arm.cmsis.pack.common.CmsisConstants;
-import com.arm.cmsis.pack.utils.WildCards;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
 
 /**
  * Default implementation of IAttributes interface
@@ -216,8 +216,9 @@ public class Attributes implements IAttributes {
 		if(fAttributes == null) {
 			return false;
 		}
+		CompiledWildcard compiled = CompiledWildcard.compile(pattern);
 		for(String key : fAttributes.keySet()){
-			if(WildCards.match(pattern, key)) {
+			if(compiled.match(key)) {
 				return true;
 			}
 		}
@@ -284,7 +285,7 @@ public class Attributes implements IAttributes {
 
 	@Override
 	public boolean matchAttribute(String key, String value, String pattern) {
-		return WildCards.match(pattern, value);
+		return CompiledWildcard.match(pattern, value, true);
 	}
 
 
@@ -348,20 +349,20 @@ public class Attributes implements IAttributes {
 	 * @return string containing keys and values of all attributes
 	 */
 	synchronized public String getAttributesAsString() {
-		String s = CmsisConstants.EMPTY_STRING;
-		if(hasAttributes()) {
-			for(Entry<String, String> e : fAttributes.entrySet()){
-				if(!s.isEmpty())
-				 {
-					s += ", "; //$NON-NLS-1$
-				}
-				s += e.getKey();
-				s += "=\""; //$NON-NLS-1$
-				s += e.getValue();
-				s += "\""; //$NON-NLS-1$
+		if(!hasAttributes()) {
+			return CmsisConstants.EMPTY_STRING;
+		}
+		StringBuilder sb = new StringBuilder();
+		for(Entry<String, String> e : fAttributes.entrySet()){
+			if(sb.length() > 0) {
+				sb.append(", "); //$NON-NLS-1$
 			}
+			sb.append(e.getKey());
+			sb.append("=\""); //$NON-NLS-1$
+			sb.append(e.getValue());
+			sb.append('"');
 		}
-		return s;
+		return sb.toString();
 	}
 
 	/**
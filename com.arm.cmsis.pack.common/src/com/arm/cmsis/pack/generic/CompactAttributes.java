@@ -0,0 +1,528 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.generic;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * Compact IAttributes implementation for attributes that are rarely modified after creation, e.g. ones read from pdsc files.
+ * <p/>
+ * Keys and values are stored in a single array sorted by key: <code>key0, value0, key1, value1, ...</code>,
+ * keys are interned and short values are deduplicated across all instances.
+ * Modification replaces the array (copy-on-write) under object lock, read access takes no lock and allocates no memory.
+ * Hash code is computed on modification.
+ * <p/>
+ * String representation, equals() and hashCode() are the same as for {@link Attributes}.
+ */
+public class CompactAttributes implements IAttributes {
+
+	private static final String[] EMPTY = new String[0];
+	private static final int MAX_POOLED_VALUE_LENGTH = 64;
+	private static final int MAX_POOLED_VALUES = 65536;
+
+	private static final ConcurrentMap<String, String> fKeyPool = new ConcurrentHashMap<String, String>();
+	private static final ConcurrentMap<String, String> fValuePool = new ConcurrentHashMap<String, String>();
+
+	private volatile String[] fData = EMPTY;
+	private int fHash = 0; // written before fData, read after it
+
+	/**
+	 * Default constructor
+	 */
+	public CompactAttributes() {
+	}
+
+	/**
+	 * Copy constructor
+	 * @param copyFrom attributes to copy
+	 */
+	public CompactAttributes(final IAttributes copyFrom) {
+		setAttributes(copyFrom);
+	}
+
+	/**
+	 * Returns shared instance of an attribute key
+	 * @param key attribute key
+	 * @return interned key
+	 */
+	public static String internKey(String key) {
+		if(key == null) {
+			return null;
+		}
+		String k = fKeyPool.putIfAbsent(key, key);
+		return k != null ? k : key;
+	}
+
+	/**
+	 * Returns shared instance of an attribute value if the value is short enough to be pooled
+	 * @param value attribute value
+	 * @return deduplicated value or the value itself
+	 */
+	public static String internValue(String value) {
+		if(value == null || value.length() > MAX_POOLED_VALUE_LENGTH) {
+			return value;
+		}
+		String v = fValuePool.get(value);
+		if(v != null) {
+			return v;
+		}
+		if(fValuePool.size() >= MAX_POOLED_VALUES) {
+			return value; // pool is full: do not let it grow with unique values
+		}
+		v = fValuePool.putIfAbsent(value, value);
+		return v != null ? v : value;
+	}
+
+	/**
+	 * Returns index of a key in data array
+	 * @param data key-value array
+	 * @param key key to search for
+	 * @return index of the key if found, otherwise <code>-(insertion index) - 1</code>
+	 */
+	private static int indexOf(String[] data, String key) {
+		int lo = 0;
+		int hi = data.length / 2 - 1;
+		while(lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			String k = data[mid * 2];
+			if(k == key) {
+				return mid * 2;
+			}
+			int cmp = k.compareTo(key);
+			if(cmp < 0) {
+				lo = mid + 1;
+			} else if(cmp > 0) {
+				hi = mid - 1;
+			} else {
+				return mid * 2;
+			}
+		}
+		return -(lo * 2) - 1;
+	}
+
+	/**
+	 * Publishes new data array together with its hash code, must be called under object lock
+	 * @param data new key-value array
+	 */
+	private void publish(String[] data) {
+		fHash = hashCode(data);
+		fData = data;
+	}
+
+	@Override
+	public boolean hasAttribute(String key) {
+		if(key == null) {
+			return false;
+		}
+		return indexOf(fData, key) >= 0;
+	}
+
+	@Override
+	public String getAttribute(String key) {
+		if(key == null) {
+			return null;
+		}
+		String[] data = fData;
+		int index = indexOf(data, key);
+		return index >= 0 ? data[index + 1] : null;
+	}
+
+	@Override
+	public String getAttribute(String key, String defaultValue) {
+		String value = getAttribute(key);
+		if(value != null) {
+			return value;
+		}
+		return defaultValue;
+	}
+
+	@Override
+	public int getAttributeAsInt(String key, int nDefault) {
+		String value = getAttribute(key);
+		if(value != null && !value.isEmpty()) {
+			try {
+				return Integer.decode(value);
+			} catch (NumberFormatException e) {
+				// do nothing, return default
+			}
+		}
+		return nDefault;
+	}
+
+	@Override
+	public long getAttributeAsLong(String key, long nDefault) {
+		String value = getAttribute(key);
+		if(value != null && !value.isEmpty()) {
+			try {
+				return Long.decode(value);
+			} catch (NumberFormatException e) {
+				// do nothing, return default
+			}
+		}
+		return nDefault;
+	}
+
+	@Override
+	public boolean getAttributeAsBoolean(String key, boolean bDefault) {
+		String value = getAttribute(key);
+		if(value != null && !value.isEmpty()) {
+			if(value.equals("1") || value.equalsIgnoreCase("true")) { //$NON-NLS-1$ //$NON-NLS-2$
+				return true;
+			}
+			return false;
+		}
+		return bDefault;
+	}
+
+	@Override
+	synchronized public void setAttribute(String key, String value) {
+		if(key == null) {
+			return;
+		}
+		if(value == null) {
+			removeAttribute(key);
+			return;
+		}
+		String[] data = fData;
+		int index = indexOf(data, key);
+		if(index >= 0) {
+			if(value.equals(data[index + 1])) {
+				return;
+			}
+			data = data.clone();
+			data[index + 1] = internValue(value);
+		} else {
+			index = -index - 1;
+			String[] newData = new String[data.length + 2];
+			System.arraycopy(data, 0, newData, 0, index);
+			System.arraycopy(data, index, newData, index + 2, data.length - index);
+			newData[index] = internKey(key);
+			newData[index + 1] = internValue(value);
+			data = newData;
+		}
+		publish(data);
+	}
+
+	@Override
+	public void setAttribute(String key, boolean value) {
+		setAttribute(key, value ? "1" : "0"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Override
+	public void setAttribute(String key, int value) {
+		setAttribute(key, Integer.toString(value));
+	}
+
+	@Override
+	synchronized public void removeAttribute(String key) {
+		if(key == null) {
+			return;
+		}
+		String[] data = fData;
+		int index = indexOf(data, key);
+		if(index < 0) {
+			return;
+		}
+		String[] newData = data.length == 2 ? EMPTY : new String[data.length - 2];
+		System.arraycopy(data, 0, newData, 0, index);
+		System.arraycopy(data, index + 2, newData, index, data.length - index - 2);
+		publish(newData);
+	}
+
+	@Override
+	synchronized public void mergeAttribute(String key, String value) {
+		if(!hasAttribute(key)) {
+			setAttribute(key, value);
+		}
+	}
+
+	@Override
+	public boolean hasAttributes() {
+		return fData.length > 0;
+	}
+
+	/**
+	 * Returns number of attributes
+	 * @return attribute count
+	 */
+	public int getAttributeCount() {
+		return fData.length / 2;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * The returned map is a sorted copy, modifying it does not affect this object.
+	 */
+	@Override
+	public Map<String, String> getAttributesAsMap() {
+		String[] data = fData;
+		if(data.length == 0) {
+			return null;
+		}
+		Map<String, String> m = new TreeMap<String, String>();
+		for(int i = 0; i < data.length; i += 2) {
+			m.put(data[i], data[i + 1]);
+		}
+		return m;
+	}
+
+	@Override
+	synchronized public void setAttributes(Map<String, String> attributes) {
+		if(attributes == null || attributes.isEmpty()) {
+			publish(EMPTY);
+			return;
+		}
+		// TreeMap sorts keys in the same order as the data array
+		Map<String, String> sorted = attributes instanceof TreeMap && ((TreeMap<String, String>)attributes).comparator() == null ?
+				attributes : new TreeMap<String, String>(attributes);
+		String[] data = new String[sorted.size() * 2];
+		int i = 0;
+		for(Entry<String, String> e : sorted.entrySet()) {
+			if(e.getKey() == null || e.getValue() == null) {
+				continue;
+			}
+			data[i++] = internKey(e.getKey());
+			data[i++] = internValue(e.getValue());
+		}
+		if(i < data.length) {
+			data = Arrays.copyOf(data, i);
+		}
+		publish(data);
+	}
+
+	@Override
+	public void setAttributes(String attributesString) {
+		setAttributes(Attributes.splitString(attributesString));
+	}
+
+	@Override
+	synchronized public void setAttributes(IAttributes attributes) {
+		if(attributes == this) {
+			return;
+		}
+		if(attributes instanceof CompactAttributes) {
+			publish(((CompactAttributes)attributes).fData); // arrays are never modified => can be shared
+		} else if(attributes != null && attributes.hasAttributes()) {
+			setAttributes(attributes.getAttributesAsMap());
+		} else {
+			publish(EMPTY);
+		}
+	}
+
+	@Override
+	synchronized public void mergeAttributes(final IAttributes attributes) {
+		mergeAttributes(attributes, null);
+	}
+
+	@Override
+	synchronized public void mergeAttributes(final IAttributes attributes, final String prefix) {
+		if(attributes == null || attributes == this || !attributes.hasAttributes()) {
+			return; // nothing to merge
+		}
+		Map<String, String> attributesMap = attributes.getAttributesAsMap();
+		for(Entry<String, String> e: attributesMap.entrySet()) {
+			String key = e.getKey();
+			if(prefix == null || key.startsWith(prefix)) {
+				mergeAttribute(key, e.getValue());
+			}
+		}
+	}
+
+	@Override
+	public boolean containsAttribute(String pattern) {
+		String[] data = fData;
+		CompiledWildcard compiled = CompiledWildcard.compile(pattern);
+		for(int i = 0; i < data.length; i += 2) {
+			if(compiled.match(data[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean matchAttributes(final IAttributes attributes) {
+		return matchAttributes(attributes, null, false);
+	}
+
+	@Override
+	public boolean matchAttributes(final IAttributes attributes, String prefix) {
+		return matchAttributes(attributes, prefix, false);
+	}
+
+	@Override
+	public boolean matchCommonAttributes(final IAttributes attributes) {
+		return matchAttributes(attributes, null, true);
+	}
+
+	@Override
+	public boolean matchCommonAttributes(final IAttributes attributes, String prefix) {
+		return matchAttributes(attributes, prefix, true);
+	}
+
+	/**
+	 * Checks if attributes found in this element and supplied map match
+	 * using wild card match
+	 * @param attributes to match to
+	 * @param prefix if not null or empty - match only attributes with that prefix
+	 * @param bCommon match mode: true - compare only attributes found in both maps, false - match all
+	 * @return true if matches, false otherwise
+	 */
+	protected boolean matchAttributes(final IAttributes attributes, String prefix, boolean bCommon){
+		String[] data = fData;
+		if(attributes == null) {
+			return data.length == 0;
+		}
+		boolean bPrefix = prefix != null && !prefix.isEmpty();
+		for(int i = 0; i < data.length; i += 2) {
+			String key = data[i];
+			if(bPrefix && !key.startsWith(prefix)) {
+				continue;
+			}
+			String pattern = attributes.getAttribute(key);
+			if(pattern == null) {
+				if(bCommon) {
+					continue;
+				}
+				return false;
+			}
+			if(!matchAttribute(key, data[i + 1], pattern)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean matchAttribute(String key, String value, String pattern) {
+		return CompiledWildcard.match(pattern, value, true);
+	}
+
+	@Override
+	public boolean containsValue(String value) {
+		String[] data = fData;
+		for(int i = 1; i < data.length; i += 2) {
+			if(data[i].equals(value)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean containsValuePattern(String pattern) {
+		if(pattern == null) {
+			return false;
+		}
+		String[] data = fData;
+		for(int i = 0; i < data.length; i += 2) {
+			if(matchAttribute(data[i], data[i + 1], pattern)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public String getUrl() {
+		return getAttribute(CmsisConstants.URL);
+	}
+
+	@Override
+	public String getDoc() {
+		return getAttribute(CmsisConstants.DOC);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(obj == this) {
+			return true;
+		}
+		if(obj instanceof CompactAttributes) {
+			String[] data = fData;
+			CompactAttributes other = (CompactAttributes)obj;
+			String[] otherData = other.fData;
+			return data == otherData || (fHash == other.fHash && Arrays.equals(data, otherData));
+		}
+		if(obj instanceof IAttributes) {
+			return obj.toString().equals(toString());
+		}
+		return false;
+	}
+
+	@Override
+	public int hashCode() {
+		if(fData.length == 0) { // volatile read makes fHash written with the data visible
+			return 0;
+		}
+		return fHash;
+	}
+
+	@Override
+	public String toString() {
+		return getAttributesAsString();
+	}
+
+	/**
+	 * Returns string containing all attributes in the form "key0"="value0", "key1"=value1,...
+	 * @return string containing keys and values of all attributes
+	 */
+	public String getAttributesAsString() {
+		String[] data = fData;
+		if(data.length == 0) {
+			return CmsisConstants.EMPTY_STRING;
+		}
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < data.length; i += 2) {
+			if(i > 0) {
+				sb.append(", "); //$NON-NLS-1$
+			}
+			sb.append(data[i]).append("=\"").append(data[i + 1]).append('"'); //$NON-NLS-1$
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Computes hash code of the string returned by {@link #getAttributesAsString()} without building the string
+	 * @param data key-value array
+	 * @return hash code
+	 */
+	private static int hashCode(String[] data) {
+		int h = 0;
+		for(int i = 0; i < data.length; i += 2) {
+			if(i > 0) {
+				h = 31 * (31 * h + ',') + ' ';
+			}
+			h = hash(h, data[i]);
+			h = 31 * (31 * h + '=') + '"';
+			h = hash(h, data[i + 1]);
+			h = 31 * h + '"';
+		}
+		return h;
+	}
+
+	private static int hash(int h, String s) {
+		for(int i = 0; i < s.length(); i++) {
+			h = 31 * h + s.charAt(i);
+		}
+		return h;
+	}
+}
@@ -17,7 +17,7 @@ import java.util.LinkedList;
 import java.util.List;
 
 import com.arm.cmsis.pack.common.CmsisConstants;
-import com.arm.cmsis.pack.utils.WildCards;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
 
 /**
  *  Generic tree of Cmsis items
@@ -186,6 +186,28 @@ public class CmsisTreeItem<T extends ICmsisTreeItem<T>> extends CmsisItem implem
 		return new LinkedList<T>();
 	}
 
+	/**
+	 * Creates array-backed child collection with key index for items with many children,
+	 * can be returned by createCollection()
+	 * @return created IndexedChildren collection
+	 */
+	protected Collection<T> createIndexedCollection(){
+		return new IndexedChildren<T>(this::getItemKey, null);
+	}
+
+	/**
+	 * Returns children as IndexedChildren if the item uses indexed child storage
+	 * @return IndexedChildren or null if children are not indexed or not created
+	 */
+	@SuppressWarnings("unchecked")
+	protected IndexedChildren<T> getIndexedChildren() {
+		Collection<? extends T> children = getChildren();
+		if(children instanceof IndexedChildren) {
+			return (IndexedChildren<T>)children;
+		}
+		return null;
+	}
+
 
 	@Override
 	public boolean hasChildren() {
@@ -295,6 +317,10 @@ public class CmsisTreeItem<T extends ICmsisTreeItem<T>> extends CmsisItem implem
 		if(key == null) {
 			return null;
 		}
+		IndexedChildren<T> indexedChildren = getIndexedChildren();
+		if(indexedChildren != null) {
+			return indexedChildren.getFirst(key);
+		}
 		Collection<? extends T> children = getChildren();
 		if(children != null) {
 			for(T child : children) {
@@ -338,6 +364,15 @@ public class CmsisTreeItem<T extends ICmsisTreeItem<T>> extends CmsisItem implem
 		if(key == null) {
 			return null;
 		}
+		IndexedChildren<T> indexedChildren = getIndexedChildren();
+		if(indexedChildren != null) {
+			T child = indexedChildren.getFirst(key);
+			if(child != null) {
+				indexedChildren.remove(child);
+				cachedChildArray = null;
+			}
+			return child;
+		}
 		Collection<? extends T> children = getChildren();
 		if(children != null) {
 			for(T child : children) {
@@ -357,6 +392,10 @@ public class CmsisTreeItem<T extends ICmsisTreeItem<T>> extends CmsisItem implem
 		if(key == null) {
 			return null;
 		}
+		IndexedChildren<T> indexedChildren = getIndexedChildren();
+		if(indexedChildren != null && !indexedChildren.containsKey(key)) {
+			return null; // nothing to remove
+		}
 		Collection<? extends T> children = getChildren();
 		if(children == null) {
 			return null;
@@ -390,7 +429,7 @@ public class CmsisTreeItem<T extends ICmsisTreeItem<T>> extends CmsisItem implem
 
 	@Override
 	public T getFirstItem(String pattern) {
-		if(WildCards.matchNoCase(pattern, getName())) {
+		if(CompiledWildcard.match(pattern, getName(), false)) {
 			return getThisItem();
 		}
 
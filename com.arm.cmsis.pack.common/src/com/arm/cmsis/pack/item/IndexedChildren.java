@@ -0,0 +1,204 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.item;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Array-backed child collection with lazily built key index.
+ * <p/>
+ * Lookup by key (for instance item tag) and by ID uses a hash index that is built on first lookup
+ * once the list exceeds {@link #INDEX_THRESHOLD} elements and is rebuilt after any modification of the list.
+ * The list can be freely modified, also via its iterators.
+ * Keys and IDs of contained items must not change while items are in the list.
+ *
+ * @param <T> child item type
+ */
+public class IndexedChildren<T> extends ArrayList<T> {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Smaller lists are scanned sequentially
+	 */
+	public static final int INDEX_THRESHOLD = 8;
+
+	private final transient Function<? super T, String> fKeyFunction;
+	private final transient Function<? super T, String> fIdFunction;
+	private int fSetCount = 0; // set() does not change modCount
+	private transient volatile Index<T> fKeyIndex = null;
+	private transient volatile Index<T> fIdIndex = null;
+
+	/**
+	 * Immutable key index valid for a given list modification state
+	 */
+	private static class Index<T> {
+		final int version;
+		final Map<String, Object> map; // value is T or List<T> if several items have the same key
+
+		Index(int version, Map<String, Object> map) {
+			this.version = version;
+			this.map = map;
+		}
+	}
+
+	/**
+	 * Creates indexed list
+	 * @param keyFunction function returning item key, for instance <code>ICmsisTreeItem.getItemKey()</code> of the parent
+	 * @param idFunction function returning item ID, null if lookup by ID is not needed
+	 */
+	public IndexedChildren(Function<? super T, String> keyFunction, Function<? super T, String> idFunction) {
+		fKeyFunction = keyFunction;
+		fIdFunction = idFunction;
+	}
+
+	@Override
+	public T set(int index, T element) {
+		fSetCount++;
+		return super.set(index, element);
+	}
+
+	private int getVersion() {
+		return modCount + fSetCount;
+	}
+
+	/**
+	 * Returns first item with given key
+	 * @param key item key
+	 * @return first item with the key or null if not found
+	 */
+	public T getFirst(String key) {
+		return getFirst(key, fKeyFunction, false);
+	}
+
+	/**
+	 * Returns all items with given key
+	 * @param key item key
+	 * @return unmodifiable list of items with the key in list order, empty if not found
+	 */
+	public List<T> getAll(String key) {
+		if(key == null) {
+			return Collections.emptyList();
+		}
+		if(size() <= INDEX_THRESHOLD) {
+			List<T> items = new ArrayList<T>();
+			for(T item : this) {
+				if(key.equals(fKeyFunction.apply(item))) {
+					items.add(item);
+				}
+			}
+			return Collections.unmodifiableList(items);
+		}
+		Object o = getIndex(false).map.get(key);
+		if(o == null) {
+			return Collections.emptyList();
+		}
+		if(o instanceof KeyGroup) {
+			@SuppressWarnings("unchecked")
+			KeyGroup<T> items = (KeyGroup<T>)o;
+			return Collections.unmodifiableList(items);
+		}
+		@SuppressWarnings("unchecked")
+		T item = (T)o;
+		return Collections.singletonList(item);
+	}
+
+	/**
+	 * Checks if the list contains an item with given key
+	 * @param key item key
+	 * @return true if an item with the key exists
+	 */
+	public boolean containsKey(String key) {
+		return getFirst(key) != null;
+	}
+
+	/**
+	 * Returns first item with given ID
+	 * @param id item ID
+	 * @return first item with the ID or null if not found or ID function is not set
+	 */
+	public T getFirstById(String id) {
+		if(fIdFunction == null) {
+			return null;
+		}
+		return getFirst(id, fIdFunction, true);
+	}
+
+	private T getFirst(String key, Function<? super T, String> keyFunction, boolean bId) {
+		if(key == null) {
+			return null;
+		}
+		if(size() <= INDEX_THRESHOLD) {
+			for(T item : this) {
+				if(key.equals(keyFunction.apply(item))) {
+					return item;
+				}
+			}
+			return null;
+		}
+		Object o = getIndex(bId).map.get(key);
+		if(o instanceof KeyGroup) {
+			o = ((KeyGroup<?>)o).get(0);
+		}
+		@SuppressWarnings("unchecked")
+		T item = (T)o;
+		return item;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Index<T> getIndex(boolean bId) {
+		int version = getVersion();
+		Index<T> index = bId ? fIdIndex : fKeyIndex;
+		if(index != null && index.version == version) {
+			return index;
+		}
+		Function<? super T, String> keyFunction = bId ? fIdFunction : fKeyFunction;
+		Map<String, Object> map = new HashMap<String, Object>(size() * 2);
+		for(T item : this) {
+			String key = keyFunction.apply(item);
+			Object o = map.get(key);
+			if(o == null) {
+				map.put(key, item);
+			} else if(o instanceof KeyGroup) {
+				((KeyGroup<T>)o).add(item);
+			} else {
+				KeyGroup<T> items = new KeyGroup<T>((T)o);
+				items.add(item);
+				map.put(key, items);
+			}
+		}
+		index = new Index<T>(version, map);
+		if(bId) {
+			fIdIndex = index;
+		} else {
+			fKeyIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * List of items sharing the same key, distinct type to tell it from an item that is a list itself
+	 */
+	private static class KeyGroup<T> extends ArrayList<T> {
+		private static final long serialVersionUID = 1L;
+
+		KeyGroup(T first) {
+			super(2);
+			add(first);
+		}
+	}
+}
@@ -199,6 +199,44 @@ public class AlnumComparator implements Comparator<String> {
 		return (l1 - i1) - (l2 - i2);
 	}
 
+	/**
+	 * Returns a key to look up strings that are equal according to {@link #alnumCompare(String, String, boolean)} in a hash map: 
+	 * characters are converted to upper case (if not case sensitive), groups of digits are replaced by their numeric values
+	 * @param str string to get the key for
+	 * @param cs case sensitive flag
+	 * @return key string or null if the string contains wild cards and cannot be compared by key
+	 */
+	public static String alnumKey(final String str, boolean cs) {
+		if (str == null || str.isEmpty()) {
+			return ""; //$NON-NLS-1$
+		}
+		if (str.indexOf('*') >= 0) {
+			return null;
+		}
+		int l = str.length();
+		StringBuilder key = new StringBuilder(l);
+		int i = 0;
+		while (i < l) {
+			char c = str.charAt(i);
+			if (Character.isDigit(c)) {
+				int digitBegin = i;
+				while (i < l && Character.isDigit(str.charAt(i))) {
+					i++;
+				}
+				try {
+					key.append(Integer.decode(str.substring(digitBegin, i)).intValue());
+				} catch (NumberFormatException e) {
+					// alnumCompare() falls back to plain comparison => equal only to the same string 
+					return '\u0000' + str;
+				}
+			} else {
+				key.append(cs ? c : Character.toUpperCase(c));
+				i++;
+			}
+		}
+		return key.toString();
+	}
+
 	/**
 	 * Compares two strings alpha-numerically respecting case  
 	 * @param str1 - first string to compare
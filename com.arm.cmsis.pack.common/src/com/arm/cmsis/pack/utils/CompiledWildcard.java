@@ -0,0 +1,413 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled wild card pattern with the semantics of {@link WildCards#match(String, String)}.
+ * <p/>
+ * A pattern is split once into tokens: a character or a <code>[...]</code> character set,
+ * optionally preceded by <code>*</code>. Matching walks token arrays and does not allocate.
+ * Strings without wild cards are matched directly without compiling them.
+ * <p/>
+ * Compiled patterns are kept in a bounded concurrent cache, use {@link #compile(String)} to obtain them.
+ * The cache is cleared when it exceeds its size limit: lookups take no lock and do not modify the cache.
+ */
+public final class CompiledWildcard {
+
+	private static final int MAX_CACHE_SIZE = 1024;
+	private static final int MAX_CACHED_LENGTH = 128; // longer patterns are compiled on each call
+
+	// pattern -> compiled pattern
+	private static final Map<String, CompiledWildcard> fCache = new ConcurrentHashMap<String, CompiledWildcard>();
+
+	private final String fPattern;
+	private final char[] fChars;
+	private final boolean fLiteral;	  // no wild cards
+	private final int fEnd;		  	  // index of the last token, the only one at the end of the string
+	private final int fFirstAsterisk; // index of the first token preceded by '*'
+	private final boolean[] fAsterisk;
+	private final boolean[] fQuestion;
+	private final int[] fFrom;		  // character range of the token, -1 if none
+	private final int[] fTo;
+
+	private CompiledWildcard(String pattern) {
+		fPattern = pattern;
+		fChars = pattern.toCharArray();
+		fLiteral = isLiteral(pattern);
+		int len = fChars.length;
+		boolean[] asterisk = new boolean[len + 1];
+		boolean[] question = new boolean[len + 1];
+		int[] from = new int[len + 1];
+		int[] to = new int[len + 1];
+		int firstAsterisk = Integer.MAX_VALUE;
+		int n = 0;
+		int index = 0;
+		while(true) {
+			// same as WildcardState.createRange() of the original implementation
+			int rangeFrom = -1;
+			int rangeTo = -1;
+			boolean bAsterisk = false;
+			if(index < len) {
+				char ch = fChars[index];
+				if(ch == '*') {
+					bAsterisk = true;
+					// skip all asterisks and questions
+					index++;
+					while(index < len) {
+						ch = fChars[index];
+						if(ch != '*' && ch != '?')
+							break;
+						index++;
+					}
+				}
+				if(index < len) {
+					if(ch == '[') {
+						index++;
+						if(index < len) {
+							rangeTo = rangeFrom = index;
+							while(index < len) {
+								ch = fChars[index];
+								if(ch == ']')
+									break;
+								index++;
+								rangeTo = index;
+							}
+						}
+					} else {
+						rangeFrom = index;
+						rangeTo = index + 1;
+					}
+				}
+			}
+			asterisk[n] = bAsterisk;
+			question[n] = rangeFrom >= 0 && fChars[rangeFrom] == '?';
+			from[n] = rangeFrom;
+			to[n] = rangeTo;
+			if(bAsterisk && firstAsterisk == Integer.MAX_VALUE) {
+				firstAsterisk = n;
+			}
+			if(index >= len) {
+				break;
+			}
+			n++;
+			index++; // next
+		}
+		fEnd = n;
+		fFirstAsterisk = firstAsterisk;
+		fAsterisk = asterisk;
+		fQuestion = question;
+		fFrom = from;
+		fTo = to;
+	}
+
+	/**
+	 * Returns compiled pattern, takes it from the cache if available
+	 * @param pattern wild card pattern, null is treated as empty string
+	 * @return CompiledWildcard
+	 */
+	public static CompiledWildcard compile(String pattern) {
+		if(pattern == null) {
+			pattern = ""; //$NON-NLS-1$
+		}
+		if(pattern.length() > MAX_CACHED_LENGTH) {
+			return new CompiledWildcard(pattern);
+		}
+		CompiledWildcard compiled = fCache.get(pattern);
+		if(compiled == null) {
+			compiled = new CompiledWildcard(pattern); // immutable : concurrent compilation of the same pattern is harmless
+			if(fCache.size() >= MAX_CACHE_SIZE) {
+				fCache.clear();
+			}
+			fCache.put(pattern, compiled);
+		}
+		return compiled;
+	}
+
+	/**
+	 * Clears cache of compiled patterns
+	 */
+	public static void clearCache() {
+		fCache.clear();
+	}
+
+	/**
+	 * Returns number of cached patterns
+	 * @return cache size
+	 */
+	public static int getCacheSize() {
+		return fCache.size();
+	}
+
+	/**
+	 * Checks if string contains no wild cards
+	 * @param s string to check
+	 * @return true if the string contains no '*', '?' and '[' characters
+	 */
+	public static boolean isLiteral(String s) {
+		for(int i = 0; i < s.length(); i++) {
+			char ch = s.charAt(i);
+			if(ch == '*' || ch == '?' || ch == '[')
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns source pattern string
+	 * @return pattern
+	 */
+	public String getPattern() {
+		return fPattern;
+	}
+
+	/**
+	 * Checks if the pattern contains no wild cards
+	 * @return true if the pattern is a plain string
+	 */
+	public boolean isLiteral() {
+		return fLiteral;
+	}
+
+	/**
+	 * Matches the pattern with a string that can also contain wild cards (case sensitive)
+	 * @param str string to match
+	 * @return <b>true</b> if strings match, <b>false</b> otherwise
+	 */
+	public boolean match(String str) {
+		return match(str, true);
+	}
+
+	/**
+	 * Matches the pattern with a string that can also contain wild cards ignoring case
+	 * @param str string to match
+	 * @return <b>true</b> if strings match, <b>false</b> otherwise
+	 */
+	public boolean matchNoCase(String str) {
+		return match(str, false);
+	}
+
+	/**
+	 * Matches the pattern with a string that can also contain wild cards
+	 * @param str string to match
+	 * @param cs case sensitive flag (true: respect case, false: ignore case)
+	 * @return <b>true</b> if strings match, <b>false</b> otherwise
+	 */
+	public boolean match(String str, boolean cs) {
+		if(fChars.length == 0) {
+			return str == null || str.isEmpty();
+		} else if(str == null || str.isEmpty()) {
+			return false;
+		}
+		if(isLiteral(str)) {
+			if(fLiteral) {
+				return equals(fPattern, str, cs);
+			}
+			return matchLiteral(str, cs);
+		}
+		return match(compile(str), cs);
+	}
+
+	/**
+	 * Matches two compiled patterns, equivalent to <code>WildCards.match(getPattern(), other.getPattern(), cs)</code>
+	 * @param other CompiledWildcard to match
+	 * @param cs case sensitive flag (true: respect case, false: ignore case)
+	 * @return <b>true</b> if patterns match, <b>false</b> otherwise
+	 */
+	public boolean match(CompiledWildcard other, boolean cs) {
+		if(fChars.length == 0) {
+			return other.fChars.length == 0;
+		} else if(other.fChars.length == 0) {
+			return false;
+		}
+		if(fLiteral && other.fLiteral) {
+			return equals(fPattern, other.fPattern, cs);
+		}
+		if(isAny() || other.isAny()) {
+			return true;
+		}
+		int res = wildCardMatch(this, other, cs);
+		if((res & MATCH) != 0) {
+			return true;
+		}
+		// we need a symmetric comparison in case both strings contain '*' :
+		// a*d and a*cd should be treated as equal
+		if((res & ASTERISK_1) != 0 && (res & ASTERISK_2) != 0) {
+			return (wildCardMatch(other, this, cs) & MATCH) != 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Matches two strings containing wild cards, equivalent to {@link WildCards#match(String, String, boolean)}
+	 * @param str1 first string argument
+	 * @param str2 second string argument
+	 * @param cs case sensitive flag (true: respect case, false: ignore case)
+	 * @return <b>true</b> if strings match, <b>false</b> otherwise
+	 */
+	public static boolean match(final String str1, final String str2, boolean cs) {
+		if (str1 == null || str1.isEmpty()) {
+			return str2 == null || str2.isEmpty();
+		} else if (str2 == null || str2.isEmpty()) {
+			return false;
+		}
+		if(isLiteral(str1)) {
+			if(isLiteral(str2)) {
+				return equals(str1, str2, cs);
+			}
+			// a string without wild cards contains no '*' => match is symmetric
+			return compile(str2).matchLiteral(str1, cs);
+		}
+		return compile(str1).match(str2, cs);
+	}
+
+	private boolean isAny() {
+		return fAsterisk[0] && fEnd == 0;
+	}
+
+	private static boolean equals(String s1, String s2, boolean cs) {
+		if(cs) {
+			return s1.equals(s2);
+		}
+		int len = s1.length();
+		if(len != s2.length()) {
+			return false;
+		}
+		for(int i = 0; i < len; i++) {
+			if(Character.toUpperCase(s1.charAt(i)) != Character.toUpperCase(s2.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	private boolean compare(int k, char ch, boolean cs) {
+		if(fQuestion[k])
+			return true;
+		if(!cs)
+			ch = Character.toUpperCase(ch);
+		for(int i = fFrom[k]; i < fTo[k]; i++) {
+			char c = fChars[i];
+			if(!cs)
+				c = Character.toUpperCase(c);
+			if(c == ch)
+				return true;
+		}
+		return false;
+	}
+
+	private static boolean compare(CompiledWildcard w1, int k1, CompiledWildcard w2, int k2, boolean cs) {
+		if(w1.fQuestion[k1] || w2.fQuestion[k2])
+			return true;
+		if(w1.fFrom[k1] < 0 && w2.fFrom[k2] < 0)
+			return true;
+		for(int i = w1.fFrom[k1]; i < w1.fTo[k1]; i++) {
+			char ch = w1.fChars[i];
+			if(!cs)
+				ch = Character.toUpperCase(ch);
+			for(int j = w2.fFrom[k2]; j < w2.fTo[k2]; j++) {
+				char otherCh = w2.fChars[j];
+				if(!cs)
+					otherCh = Character.toUpperCase(otherCh);
+				if(ch == otherCh)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Matches the pattern with a string without wild cards
+	 */
+	private boolean matchLiteral(String s, boolean cs) {
+		int len = s.length();
+		int k = 0;
+		int i = 0;
+		while (true) {
+			if (fAsterisk[k]) {
+				if (k == fEnd)
+					return true; // end of s is irrelevant
+				while (i < len && !compare(k, s.charAt(i), cs)) {
+					i++;
+				}
+				if (i >= len) {
+					return false;
+				}
+			}
+			if (k == fEnd || i >= len)
+				break;
+			if (!compare(k, s.charAt(i), cs)) {
+				return false;
+			}
+			k++;
+			i++;
+		}
+		return k == fEnd && i >= len;
+	}
+
+	private static final int MATCH 		= 1;
+	private static final int ASTERISK_1 = 2; // '*' is found in the first pattern while matching
+	private static final int ASTERISK_2 = 4; // '*' is found in the second pattern while matching
+
+	private static int result(boolean match, CompiledWildcard w1, int k1, CompiledWildcard w2, int k2) {
+		int res = match ? MATCH : 0;
+		if(k1 >= w1.fFirstAsterisk)
+			res |= ASTERISK_1;
+		if(k2 >= w2.fFirstAsterisk)
+			res |= ASTERISK_2;
+		return res;
+	}
+
+	private static int wildCardMatch(CompiledWildcard w1, CompiledWildcard w2, boolean cs) {
+		int k1 = 0;
+		int k2 = 0;
+		while (true) {
+			if (w1.fAsterisk[k1]) {
+				if (k1 == w1.fEnd)
+					return result(true, w1, k1, w2, k2); // end of str2 is irrelevant
+				while (k2 != w2.fEnd && !compare(w2, k2, w1, k1, cs)) {
+					k2++;
+				}
+				if (k2 == w2.fEnd) {
+					return result(w2.fAsterisk[k2] || w2.fQuestion[k2], w1, k1, w2, k2);
+				}
+			}
+
+			if (w2.fAsterisk[k2]) {
+				if (k2 == w2.fEnd)
+					return result(true, w1, k1, w2, k2); // end of str1 is irrelevant
+				while (k1 != w1.fEnd && !compare(w1, k1, w2, k2, cs)) {
+					k1++;
+				}
+				if (k1 == w1.fEnd) {
+					return result(w1.fAsterisk[k1] || w1.fQuestion[k1], w1, k1, w2, k2);
+				}
+			}
+
+			if (k1 == w1.fEnd || k2 == w2.fEnd)
+				break;
+
+			if (!compare(w1, k1, w2, k2, cs)) {
+				return result(false, w1, k1, w2, k2);
+			}
+			k1++;
+			k2++;
+		}
+		return result(k1 == w1.fEnd && k2 == w2.fEnd, w1, k1, w2, k2);
+	}
+
+	@Override
+	public String toString() {
+		return fPattern;
+	}
+}
@@ -0,0 +1,231 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.DosFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds pdsc files in a directory tree.
+ * <p/>
+ * Directory entries are read with {@link DirectoryStream}, file attributes are read once per entry
+ * (file systems like Windows NTFS deliver them together with directory listing).
+ * Sub-directories are scanned in parallel.
+ * The search does not descend into sub-directories of a directory that contains pdsc files,
+ * hidden files and directories and the ones starting with '.' are skipped.
+ */
+public class PdscFileFinder {
+
+	private static final String PDSC_EXT = ".pdsc"; //$NON-NLS-1$
+	private static final boolean DOS_ATTRIBUTES = FileSystems.getDefault().supportedFileAttributeViews().contains("dos"); //$NON-NLS-1$
+
+	private int fThreadCount;
+
+	/**
+	 * Found pdsc file with its size and modification time
+	 */
+	public static class PdscFile {
+		private final String path;
+		private final long size;
+		private final long lastModified;
+
+		public PdscFile(String path, long size, long lastModified) {
+			this.path = path;
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+
+		/**
+		 * @return absolute file path
+		 */
+		public String getPath() {
+			return path;
+		}
+
+		/**
+		 * @return file size in bytes
+		 */
+		public long getSize() {
+			return size;
+		}
+
+		/**
+		 * @return file modification time in milliseconds since the epoch
+		 */
+		public long getLastModified() {
+			return lastModified;
+		}
+
+		@Override
+		public String toString() {
+			return path;
+		}
+	}
+
+	/**
+	 * Creates finder that uses a thread per available processor
+	 */
+	public PdscFileFinder() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Creates finder that uses given number of threads
+	 * @param nThreads number of threads to scan sub-directories, 1 for sequential scan
+	 */
+	public PdscFileFinder(int nThreads) {
+		fThreadCount = nThreads;
+	}
+
+	/**
+	 * Finds pdsc files in given directory and its sub-directories
+	 * @param dir directory to start search
+	 * @param depth number of sub-directory levels to search for: 0 - search current directory only
+	 * @return list of found pdsc files with their attributes
+	 */
+	public List<PdscFile> findPdscFiles(File dir, int depth) {
+		if(dir == null) {
+			return new LinkedList<PdscFile>();
+		}
+		Path path = dir.toPath().toAbsolutePath();
+		if(depth <= 0 || fThreadCount <= 1) {
+			return scanDirectory(path, depth, false);
+		}
+		ForkJoinPool pool = new ForkJoinPool(fThreadCount);
+		try {
+			return pool.invoke(new ScanTask(path, depth));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Finds pdsc files in given directory and its sub-directories
+	 * @param dir directory to start search
+	 * @param depth number of sub-directory levels to search for: 0 - search current directory only
+	 * @return list of absolute paths to found pdsc files
+	 */
+	public List<String> findPdscFileNames(File dir, int depth) {
+		List<PdscFile> pdscFiles = findPdscFiles(dir, depth);
+		List<String> fileNames = new ArrayList<String>(pdscFiles.size());
+		for(PdscFile f : pdscFiles) {
+			fileNames.add(f.getPath());
+		}
+		return fileNames;
+	}
+
+	/**
+	 * Scans a directory for pdsc files
+	 * @param dir directory to scan
+	 * @param depth number of sub-directory levels to search for
+	 * @param bFork true to scan sub-directories in parallel (called from a ForkJoinPool), false to scan them sequentially
+	 * @return list of found pdsc files
+	 */
+	protected List<PdscFile> scanDirectory(Path dir, int depth, boolean bFork) {
+		List<PdscFile> files = new LinkedList<PdscFile>();
+		List<Path> subDirs = new LinkedList<Path>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+			for(Path entry : stream) {
+				Path fileName = entry.getFileName();
+				if(fileName == null) {
+					continue;
+				}
+				String name = fileName.toString();
+				if(name.startsWith(".")) { //$NON-NLS-1$
+					continue;
+				}
+				boolean bPdsc = name.endsWith(PDSC_EXT);
+				if(!bPdsc && (depth <= 0 || !files.isEmpty())) {
+					continue; // neither a pdsc file nor a directory to descend to
+				}
+				BasicFileAttributes attrs = readAttributes(entry);
+				if(attrs == null || isHidden(attrs)) {
+					continue;
+				}
+				if(bPdsc && attrs.isRegularFile()) {
+					files.add(new PdscFile(entry.toString(), attrs.size(), attrs.lastModifiedTime().toMillis()));
+				} else if(attrs.isDirectory()) {
+					subDirs.add(entry);
+				}
+			}
+		} catch (IOException e) {
+			return files; // directory cannot be read: same as empty
+		}
+
+		if(!files.isEmpty() || depth <= 0 || subDirs.isEmpty()) {
+			return files;
+		}
+
+		if(bFork) {
+			List<ScanTask> tasks = new ArrayList<ScanTask>(subDirs.size());
+			for(Path subDir : subDirs) {
+				tasks.add(new ScanTask(subDir, depth - 1));
+			}
+			RecursiveTask.invokeAll(tasks);
+			for(ScanTask task : tasks) {
+				files.addAll(task.join());
+			}
+		} else {
+			for(Path subDir : subDirs) {
+				files.addAll(scanDirectory(subDir, depth - 1, false));
+			}
+		}
+		return files;
+	}
+
+	private static BasicFileAttributes readAttributes(Path path) {
+		try {
+			if(DOS_ATTRIBUTES) {
+				return Files.readAttributes(path, DosFileAttributes.class);
+			}
+			return Files.readAttributes(path, BasicFileAttributes.class);
+		} catch (IOException | UnsupportedOperationException e) {
+			return null;
+		}
+	}
+
+	private static boolean isHidden(BasicFileAttributes attrs) {
+		// on other systems hidden files are the ones starting with '.', they are already skipped
+		return attrs instanceof DosFileAttributes && ((DosFileAttributes)attrs).isHidden();
+	}
+
+	/**
+	 * Task to scan a directory in a ForkJoinPool
+	 */
+	private class ScanTask extends RecursiveTask<List<PdscFile>> {
+		private static final long serialVersionUID = 1L;
+		private final Path fDir;
+		private final int fDepth;
+
+		ScanTask(Path dir, int depth) {
+			fDir = dir;
+			fDepth = depth;
+		}
+
+		@Override
+		protected List<PdscFile> compute() {
+			return scanDirectory(fDir, fDepth, true);
+		}
+	}
+}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable parsed version string, compared according to Semantic Versioning 2.0 like {@link VersionComparator}.
+ * <p/>
+ * A version string is split once into MAJOR.MINOR.PATCH segments and a release part,
+ * numeric segments are converted to integers. Comparison does not allocate.
+ * <p/>
+ * Parsed versions are kept in a bounded concurrent cache, use {@link #valueOf(String)} to obtain them.
+ * The cache is cleared when it exceeds its size limit: lookups take no lock and do not modify the cache.
+ */
+public final class SemanticVersion implements Comparable<SemanticVersion> {
+
+	private static final int MAX_CACHE_SIZE = 4096;
+	private static final String ZERO_STRING = "0"; //$NON-NLS-1$
+	private static final SemanticVersion ZERO = new SemanticVersion(ZERO_STRING, 1);
+
+	// version string -> parsed version
+	private static final Map<String, SemanticVersion> fCache = new ConcurrentHashMap<String, SemanticVersion>();
+
+	private final String fVersion;
+	private final String[] fSegments;	// version segments : MAJOR.MINOR.PATCH
+	private final int[] fNumbers;		// numeric values of the segments
+	private final boolean[] fNumeric;	// true if segment is a valid number
+	private final SemanticVersion fRelease; // remainder (after '-'), null if none
+
+	private SemanticVersion(String version, int level) {
+		fVersion = version;
+		String ver = version;
+		String release = null;
+		// 1. drop build metadata
+		int pos = ver.indexOf('+');
+		if(pos >= 0)
+			ver = ver.substring(0,  pos);
+
+		// 2. extract release
+		pos = ver.indexOf('-');
+		if(pos >=0 ) {
+			release = ver.substring(pos + 1);
+			ver = ver.substring(0, pos);
+		} else if( level == 0 && !ver.isEmpty()) {
+			// check for special ST case without dash like 1.2.3b < 1.2.3
+			int lastIndex = ver.length() - 1;
+			for(pos = lastIndex ; pos >=0 ; pos--) {
+				char ch = ver.charAt(pos);
+				if(ch == '.')
+					break;
+				if(!Character.isDigit(ch))
+					continue;
+				if(pos < lastIndex) {
+					release = ver.substring(pos);
+					ver = ver.substring(0, pos);
+				}
+				break;
+			}
+		}
+		// 3. split segments
+		fSegments = ver.split("\\."); //$NON-NLS-1$
+		fNumbers = new int[fSegments.length];
+		fNumeric = new boolean[fSegments.length];
+		for(int i = 0; i < fSegments.length; i++) {
+			String s = fSegments[i];
+			if(isDigits(s)) {
+				try {
+					// same conversion as AlnumComparator.alnumCompare()
+					fNumbers[i] = Integer.decode(s);
+					fNumeric[i] = true;
+				} catch (NumberFormatException e) {
+					// compared as a string
+				}
+			}
+		}
+		fRelease = release != null ? new SemanticVersion(release, level + 1) : null;
+	}
+
+	private static boolean isDigits(String s) {
+		if(s.isEmpty())
+			return false;
+		for(int i = 0; i < s.length(); i++) {
+			if(!Character.isDigit(s.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns parsed version, takes it from the cache if available
+	 * @param version version string
+	 * @return SemanticVersion or null if version is null
+	 */
+	public static SemanticVersion valueOf(String version) {
+		if(version == null) {
+			return null;
+		}
+		SemanticVersion v = fCache.get(version);
+		if(v == null) {
+			v = new SemanticVersion(version, 0); // immutable : concurrent parsing of the same string is harmless
+			if(fCache.size() >= MAX_CACHE_SIZE) {
+				fCache.clear();
+			}
+			fCache.put(version, v);
+		}
+		return v;
+	}
+
+	/**
+	 * Clears cache of parsed versions
+	 */
+	public static void clearCache() {
+		fCache.clear();
+	}
+
+	/**
+	 * Returns source version string
+	 * @return version string
+	 */
+	public String getVersion() {
+		return fVersion;
+	}
+
+	/**
+	 * Returns release part of the version (after '-')
+	 * @return release version or null if the version has no release part
+	 */
+	public SemanticVersion getRelease() {
+		return fRelease;
+	}
+
+	/**
+	 * Returns number of MAJOR.MINOR.PATCH segments
+	 * @return segment count
+	 */
+	public int getSegmentCount() {
+		return fSegments.length;
+	}
+
+	@Override
+	public int compareTo(SemanticVersion that) {
+		return compareTo(that, true);
+	}
+
+	/**
+	 * Semantically compares this version with another one
+	 * @param that version to compare with
+	 * @param cs case sensitive flag for non-numeric values
+	 * @return comparison result, see {@link VersionComparator#versionCompare(String, String, boolean)}
+	 */
+	public int compareTo(SemanticVersion that, boolean cs) {
+		int result = 4;
+		if(that == null)
+			return result;
+		SemanticVersion zero = ZERO;
+		int length = Math.max(this.fSegments.length, that.fSegments.length);
+		for(int i = 0 ; i < length; i++) {
+			SemanticVersion v1 = i < this.fSegments.length ? this : zero;
+			SemanticVersion v2 = i < that.fSegments.length ? that : zero;
+			int i1 = v1 == zero ? 0 : i;
+			int i2 = v2 == zero ? 0 : i;
+			int res;
+			if(v1.fNumeric[i1] && v2.fNumeric[i2]) {
+				res = Integer.compare(v1.fNumbers[i1], v2.fNumbers[i2]);
+			} else {
+				res = AlnumComparator.alnumCompare(v1.fSegments[i1], v2.fSegments[i2], cs);
+			}
+			if(res != 0)
+				return res > 0 ? result : -result;
+			if(result > 1)
+				result--;
+		}
+
+		if(this.fRelease == null && that.fRelease == null)
+			return 0;
+		else if(this.fRelease == null)
+			return 1;
+		else if(that.fRelease == null)
+			return -1;
+
+		// compare releases
+		result = this.fRelease.compareTo(that.fRelease, false); // case insensitive compare for release revision
+		if(result < 0){
+			return -1;
+		} else if(result > 0) {
+			return 1;
+		}
+		return 0;
+	}
+
+	/**
+	 * Semantically compares two versions, null is less than any version
+	 * @param v1 first version to compare
+	 * @param v2 second version to compare
+	 * @param cs case sensitive flag for non-numeric values
+	 * @return comparison result, see {@link VersionComparator#versionCompare(String, String, boolean)}
+	 */
+	public static int compare(SemanticVersion v1, SemanticVersion v2, boolean cs) {
+		if (v1 == null) {
+			if (v2 == null)
+				return 0;
+			return -4;
+		} else if (v2 == null) {
+			return 4;
+		}
+		return v1.compareTo(v2, cs);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof SemanticVersion))
+			return false;
+		return fVersion.equals(((SemanticVersion)obj).fVersion);
+	}
+
+	@Override
+	public int hashCode() {
+		return fVersion.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return fVersion;
+	}
+}
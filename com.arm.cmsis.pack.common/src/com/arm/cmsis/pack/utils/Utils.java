@@ -41,37 +41,8 @@ public class Utils {
 		if( files == null) {
 			files = new LinkedList<String>();
 		}
-
-		File[] list = dir.listFiles();
-        if (list == null) {
-			return  files;
-		}
-        boolean found = false;
-        // search dir for pdsc files
-        for ( File f : list ) {
-            if( f.isFile() && !f.isHidden()) {
-            	String name = f.getName();
-            	if(!name.startsWith(".") && name.endsWith(".pdsc")){   //$NON-NLS-1$ //$NON-NLS-2$
-            		files.add(f.getAbsolutePath());
-            		found = true;
-            	}
-            }
-        }
-        if(found) {
-			return files;
-		}
-
-        if(depth <= 0) {
-			return files;
-		}
-        // search sub-directories
-        // search dir for pdsc files
-        for ( File f : list ) {
-            if( f.isDirectory() && !f.isHidden() && !f.getName().startsWith(".")) { //$NON-NLS-1$
-            	findPdscFiles(f,  files, depth-1);
-            }
-        }
-       	return  files;
+		files.addAll(new PdscFileFinder().findPdscFileNames(dir, depth));
+		return files;
 	}
 
 	/**
@@ -19,6 +19,7 @@ package com.arm.cmsis.pack.utils;
  * <li> as comparator to sort collections (in descending order by default) 
  * <li> to compare version strings directly using  <code>versionCompare()</code> static functions
  * </ul>
+ *  Version strings are parsed once into cached {@link SemanticVersion} objects.
  *  @see <a href="http://semver.org">http://semver.org</a>  
  */
 public class VersionComparator extends AlnumComparator{
@@ -79,10 +80,7 @@ public class VersionComparator extends AlnumComparator{
 			return 4;
 		}
 
-		Version v1 = new Version(ver1);
-		Version v2 = new Version(ver2);
-		
-		return v1.compareTo(v2, cs);
+		return SemanticVersion.valueOf(ver1).compareTo(SemanticVersion.valueOf(ver2), cs);
 	}
 
 	/**
@@ -117,139 +115,7 @@ public class VersionComparator extends AlnumComparator{
 		if(version == null || versionRange == null)
 			return true;
 
-		if(version.isEmpty() || versionRange.isEmpty())
-			return true;
-		
-		String verMin = null;
-		String verMax = null;
-		int i = versionRange.indexOf(':');
-		if (i >= 0) {
-			verMin = versionRange.substring(0, i);
-			verMax = versionRange.substring(i + 1);
-		} else{
-			verMin = versionRange;
-		}
-		
-		if(verMin != null && !verMin.isEmpty()){
-			int res = versionCompare(version, verMin);
-			if( res < 0) 
-				return false;
-			if(verMin.equals(verMax))
-				return res == 0;
-		}
-		if(verMax != null && !verMax.isEmpty()){
-			if(versionCompare(version, verMax) > 0)
-				return false;
-		}
-		return true;  
+		return VersionRange.valueOf(versionRange).match(version);
 	}
-	
-	
-    /**
-     * Internal helper class
-     */
-	static private class Version implements Comparable<Version> {
-    	private static final String ZERO_STRING = "0"; //$NON-NLS-1$
-    	private String[] segments = null; // first three version segments : MAJOR.MINOR.PATCH
-    	private String   release = null;  // remainder (after '-'); 
-    	private int fLevel;
-		Version(String ver){
-			this(ver, 0);
-		}    	
-    	
-		Version(String ver, int level){
-			fLevel = level;
-    		if(ver == null)
-    			throw new IllegalArgumentException("Version can not be null"); //$NON-NLS-1$
-    		
-    		// 1. drop build metadata 
-    		int pos = ver.indexOf('+');
-    		if(pos >= 0)
-    			ver = ver.substring(0,  pos);
-    		
-    		// 2. extract release
-    		pos = ver.indexOf('-');
-    		if(pos >=0 ) {
-    			release = ver.substring(pos + 1);
-    			ver = ver.substring(0, pos);
-    		} else if( fLevel == 0 && !ver.isEmpty()) {
-    			// check for special ST case without dash like 1.2.3b < 1.2.3
-    			int lastIndex = ver.length() - 1;
-    			for(pos = lastIndex ; pos >=0 ; pos--) {
-    				char ch = ver.charAt(pos);
-    				if(ch == '.')
-    					break;
-    				if(!Character.isDigit(ch)) 
-    					continue;
-    				if(pos < lastIndex) {
-    					release = ver.substring(pos);
-    					ver = ver.substring(0, pos);
-    				}
-    				break;
-    			}
-    		}
-    		// 3. split segments 
-    		if(ver != null) {
-    			segments = ver.split("\\."); //$NON-NLS-1$
-    		}
-    	}
-    	
-    	public String getRelease() {
-    	  return release;
-    	}
-    	
-    	public int getSegmentCount() {
-    		return  segments != null ?  segments.length : 0;
-    	}
-
-    	public String getSegment(int index) {
-    		if(index >= 0 && index < getSegmentCount()) 
-    			return segments[index];
-    		return ZERO_STRING;
-    	}
-    	
-		@Override
-		public int compareTo(Version that) {
-			return compareTo(that, true);
-		}
-		
-		public int compareTo(Version that, boolean cs) {
-			int result = 4;
-			if(that == null)
-				return result;
-			int length = Math.max(this.getSegmentCount(), that.getSegmentCount());
-			for(int i = 0 ; i < length; i++) {
-				String thisSegment = this.getSegment(i);
-				String thatSegment = that.getSegment(i);
-				int res = alnumCompare(thisSegment, thatSegment, cs);
-				if(res != 0)
-					return res > 0 ? result : -result;
-				if(result > 1)
-					result--;
-			}
-			
-			String thisRelease = this.getRelease();
-			String thatRelease = that.getRelease();
-			
-			if(thisRelease == null && thatRelease == null)
-				return 0;
-			else if(thisRelease == null)
-				return 1;
-			else if(thatRelease == null)
-				return -1;
-			
-			// compare releases
-			Version v1 = new Version(thisRelease, fLevel + 1);
-			Version v2 = new Version(thatRelease, fLevel + 1);
-			result = v1.compareTo(v2, false); // case insensitive compare for release revision   
-
-			if(result < 0){
-				return -1;
-			} else if(result > 0) {
-				return 1;
-			}
-			return 0;
-		}
-    }
 
 }
@@ -0,0 +1,140 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable parsed version range in the form <code>"min[:max]"</code>,
+ * matches versions like {@link VersionComparator#matchVersionRange(String, String)}.
+ * <p/>
+ * Parsed ranges are kept in a bounded concurrent cache, use {@link #valueOf(String)} to obtain them.
+ * The cache is cleared when it exceeds its size limit: lookups take no lock and do not modify the cache.
+ */
+public final class VersionRange {
+
+	private static final int MAX_CACHE_SIZE = 1024;
+
+	// range string -> parsed range
+	private static final Map<String, VersionRange> fCache = new ConcurrentHashMap<String, VersionRange>();
+
+	private final String fRange;
+	private final SemanticVersion fMin; // null if not specified
+	private final SemanticVersion fMax; // null if not specified
+	private final boolean fExact;		// min and max are equal
+
+	private VersionRange(String range) {
+		fRange = range;
+		String verMin = null;
+		String verMax = null;
+		int i = range.indexOf(':');
+		if (i >= 0) {
+			verMin = range.substring(0, i);
+			verMax = range.substring(i + 1);
+		} else{
+			verMin = range;
+		}
+		fMin = verMin.isEmpty() ? null : SemanticVersion.valueOf(verMin);
+		fMax = verMax == null || verMax.isEmpty() ? null : SemanticVersion.valueOf(verMax);
+		fExact = verMin.equals(verMax);
+	}
+
+	/**
+	 * Returns parsed version range, takes it from the cache if available
+	 * @param range string with version range in the form <code>"min[:max]"</code>
+	 * @return VersionRange or null if range is null
+	 */
+	public static VersionRange valueOf(String range) {
+		if(range == null) {
+			return null;
+		}
+		VersionRange r = fCache.get(range);
+		if(r == null) {
+			r = new VersionRange(range); // immutable : concurrent parsing of the same string is harmless
+			if(fCache.size() >= MAX_CACHE_SIZE) {
+				fCache.clear();
+			}
+			fCache.put(range, r);
+		}
+		return r;
+	}
+
+	/**
+	 * Clears cache of parsed ranges
+	 */
+	public static void clearCache() {
+		fCache.clear();
+	}
+
+	/**
+	 * Returns source range string
+	 * @return range string
+	 */
+	public String getRange() {
+		return fRange;
+	}
+
+	/**
+	 * Returns minimum version
+	 * @return minimum version or null if not specified
+	 */
+	public SemanticVersion getMin() {
+		return fMin;
+	}
+
+	/**
+	 * Returns maximum version
+	 * @return maximum version or null if not specified
+	 */
+	public SemanticVersion getMax() {
+		return fMax;
+	}
+
+	/**
+	 * Check if supplied version matches the range
+	 * @param version version to check
+	 * @return true if version is larger or equal to minimum and smaller or equal optional maximum
+	 */
+	public boolean match(String version) {
+		if(version == null || version.isEmpty() || fRange.isEmpty())
+			return true;
+		return match(SemanticVersion.valueOf(version));
+	}
+
+	/**
+	 * Check if supplied version matches the range
+	 * @param version version to check
+	 * @return true if version is larger or equal to minimum and smaller or equal optional maximum
+	 */
+	public boolean match(SemanticVersion version) {
+		if(version == null || version.getVersion().isEmpty() || fRange.isEmpty())
+			return true;
+		if(fMin != null){
+			int res = version.compareTo(fMin);
+			if( res < 0)
+				return false;
+			if(fExact)
+				return res == 0;
+		}
+		if(fMax != null){
+			if(version.compareTo(fMax) > 0)
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return fRange;
+	}
+}
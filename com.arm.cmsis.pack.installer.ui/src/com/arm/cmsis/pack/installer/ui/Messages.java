@@ -52,6 +52,7 @@ public class Messages extends NLS {
 	public static String ExpandSelectedNode;
 	public static String Help;
 	public static String ImportPacksHandler_DialogText;
+	public static String IndexedPatternFilter_Indexing;
 	public static String PackPropertyView_CopyAction;
 	public static String PackPropertyView_CopyTooltip;
 	public static String PackPropertyView_HelpForPackPropertiesView;
@@ -76,6 +77,8 @@ public class Messages extends NLS {
 	public static String PacksView_Location;
 	public static String PacksView_Packs;
 	public static String PacksView_PreviousPackVersions;
+	public static String PacksView_PrintLoadStatistics;
+	public static String PacksView_PrintLoadStatisticsTooltip;
 	public static String PacksView_ReplacedBy;
 	public static String PacksView_SearchPack;
 	public static String PacksView_Selected;
@@ -12,6 +12,7 @@
 package com.arm.cmsis.pack.installer.ui.views;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -46,14 +47,15 @@ import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.IWorkbenchActionConstants;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredTree;
-import org.eclipse.ui.dialogs.PatternFilter;
 import org.eclipse.ui.part.ViewPart;
 
 import com.arm.cmsis.pack.CpPlugIn;
 import com.arm.cmsis.pack.ICpPackManager;
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.data.ICpBoard;
+import com.arm.cmsis.pack.data.ICpItem;
 import com.arm.cmsis.pack.data.ICpPack.PackState;
+import com.arm.cmsis.pack.enums.ESearchCategory;
 import com.arm.cmsis.pack.events.IRteEventListener;
 import com.arm.cmsis.pack.events.RteEvent;
 import com.arm.cmsis.pack.installer.ui.CpInstallerPlugInUI;
@@ -77,6 +79,7 @@ public class BoardsView extends ViewPart implements IRteEventListener {
 	private static final int COLURL = 1;
 
 	FilteredTree fTree;
+	IndexedPatternFilter fPatternFilter;
 	TreeViewer fViewer;
 	private Action fExpandAction;
 	private Action fExpandItemAction;
@@ -363,19 +366,20 @@ public class BoardsView extends ViewPart implements IRteEventListener {
 	@Override
 	public void createPartControl(Composite parent) {
 
-		PatternFilter filter = new PatternFilter() {
+		fPatternFilter = new IndexedPatternFilter(ESearchCategory.BOARD, ESearchCategory.DEVICE) {
 			@Override
-			protected boolean isLeafMatch(final Viewer viewer, final Object element) {
-				TreeViewer treeViewer = (TreeViewer) viewer;
-				boolean isMatch = false;
-				ColumnLabelProvider labelProvider = (ColumnLabelProvider) treeViewer.getLabelProvider(0);
-				String labelText = labelProvider.getText(element);
-				isMatch |= wordMatches(labelText);
-				return isMatch;
+			protected Collection<? extends ICpItem> getIndexedItems(Object element) {
+				if (element instanceof IRteBoardDeviceItem) {
+					ICpBoard board = ((IRteBoardDeviceItem) element).getBoard();
+					return board != null ? Collections.singletonList(board) : null;
+				} else if (element instanceof IRteDeviceItem) {
+					// mounted and compatible devices
+					return ((IRteDeviceItem) element).getDevices();
+				}
+				return null;
 			}
 		};
-		filter.setIncludeLeadingWildcard(true);
-		fTree = new FilteredTree(parent, SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, filter, true);
+		fTree = new IndexedFilteredTree(parent, SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, fPatternFilter);
 		fTree.setInitialText(Messages.BoardsView_SearchBoard);
 		fViewer = fTree.getViewer();
 		fViewer.getTree().setLinesVisible(true);
@@ -421,6 +425,7 @@ public class BoardsView extends ViewPart implements IRteEventListener {
 		if (CpPlugIn.getDefault() == null) {
 			return;
 		}
+		fPatternFilter.reset();
 		ICpPackManager packManager = CpPlugIn.getPackManager();
 		if (packManager != null && packManager.getBoards() != null) {
 			ICmsisMapItem<IRteBoardDeviceItem> root = new CmsisMapItem<>();
@@ -637,9 +642,11 @@ public class BoardsView extends ViewPart implements IRteEventListener {
 		case RteEvent.PACK_UNPACK_JOB_FINISHED:
 		case RteEvent.PACK_REMOVE_JOB_FINISHED:
 		case RteEvent.PACK_DELETE_JOB_FINISHED:
+		case RteEvent.PACKS_UPDATED:
 			Display.getDefault().asyncExec(new Runnable() {
 				@Override
 				public void run() {
+					fPatternFilter.reset();
 					fViewer.refresh();
 				}
 			});
@@ -11,6 +11,8 @@
 
 package com.arm.cmsis.pack.installer.ui.views;
 
+import java.util.Collection;
+
 import org.eclipse.jface.action.Action;
 import org.eclipse.jface.action.IAction;
 import org.eclipse.jface.action.IMenuListener;
@@ -41,7 +43,6 @@ import org.eclipse.ui.IActionBars;
 import org.eclipse.ui.IWorkbenchActionConstants;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredTree;
-import org.eclipse.ui.dialogs.PatternFilter;
 import org.eclipse.ui.part.ViewPart;
 
 import com.arm.cmsis.pack.CpPlugIn;
@@ -74,6 +75,7 @@ public class DevicesView extends ViewPart implements IRteEventListener {
 
 	FilteredTree fTree;
 	TreeViewer fViewer;
+	IndexedPatternFilter fPatternFilter;
 	//private DrillDownAdapter fDrillDownAdapter;
 	private Action fExpandAction;
 	private Action fExpandItemAction;
@@ -315,20 +317,17 @@ public class DevicesView extends ViewPart implements IRteEventListener {
 	@Override
 	public void createPartControl(Composite parent) {
 
-		PatternFilter filter = new PatternFilter() {
+		fPatternFilter = new IndexedPatternFilter(ESearchCategory.DEVICE) {
 			@Override
-			protected boolean isLeafMatch(final Viewer viewer, final Object element) {
-				TreeViewer treeViewer = (TreeViewer)viewer;
-				boolean isMatch = false;
-				ColumnLabelProvider labelProvider = (ColumnLabelProvider)treeViewer.getLabelProvider(0);
-				String labelText = labelProvider.getText(element);
-				isMatch |= wordMatches(labelText);
-				return isMatch;
+			protected Collection<? extends ICpItem> getIndexedItems(Object element) {
+				if (element instanceof IRteDeviceItem) {
+					return ((IRteDeviceItem) element).getDevices();
+				}
+				return null;
 			}
 		};
-		filter.setIncludeLeadingWildcard(true);
-		fTree = new FilteredTree(parent,
-				SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, filter, true);
+		fTree = new IndexedFilteredTree(parent,
+				SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, fPatternFilter);
 		fTree.setInitialText(Messages.DevicesView_SearchDevice);
 		fViewer = fTree.getViewer();
 		fViewer.getTree().setLinesVisible(true);
@@ -371,6 +370,7 @@ public class DevicesView extends ViewPart implements IRteEventListener {
 		if(CpPlugIn.getDefault() == null) {
 			return;
 		}
+		fPatternFilter.reset();
 		ICpPackManager packManager = CpPlugIn.getPackManager();
 		if(packManager != null) {
 			ICmsisMapItem<IRteDeviceItem> root = new CmsisMapItem<>();
@@ -571,9 +571,11 @@ public class DevicesView extends ViewPart implements IRteEventListener {
 		case RteEvent.PACK_UNPACK_JOB_FINISHED:
 		case RteEvent.PACK_REMOVE_JOB_FINISHED:
 		case RteEvent.PACK_DELETE_JOB_FINISHED:
+		case RteEvent.PACKS_UPDATED:
 			Display.getDefault().asyncExec(new Runnable() {
 				@Override
 				public void run() {
+					fPatternFilter.reset();
 					fViewer.refresh();
 				}
 			});
@@ -11,6 +11,9 @@
 
 package com.arm.cmsis.pack.installer.ui.views;
 
+import java.util.Collection;
+import java.util.Collections;
+
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.ResourcesPlugin;
@@ -50,7 +53,6 @@ import org.eclipse.ui.IWorkbenchWindow;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredTree;
-import org.eclipse.ui.dialogs.PatternFilter;
 import org.eclipse.ui.ide.IDE;
 import org.eclipse.ui.part.ViewPart;
 
@@ -64,6 +66,7 @@ import com.arm.cmsis.pack.data.ICpBoard;
 import com.arm.cmsis.pack.data.ICpExample;
 import com.arm.cmsis.pack.data.ICpItem;
 import com.arm.cmsis.pack.data.ICpPack.PackState;
+import com.arm.cmsis.pack.enums.ESearchCategory;
 import com.arm.cmsis.pack.events.IRteEventListener;
 import com.arm.cmsis.pack.events.RteEvent;
 import com.arm.cmsis.pack.installer.ui.CpInstallerPlugInUI;
@@ -86,6 +89,7 @@ public class ExamplesView extends ViewPart implements IRteEventListener {
 
 	FilteredTree fTree;
 	TreeViewer fViewer;
+	IndexedPatternFilter fPatternFilter;
 
 	Action fShowInstOnlyAction;
 	private Action fHelpAction;
@@ -336,26 +340,22 @@ public class ExamplesView extends ViewPart implements IRteEventListener {
 	@Override
 	public void createPartControl(Composite parent) {
 		fPacksExamplesViewFilter = PacksExamplesViewFilter.getInstance();
-		PatternFilter patternFilter = new PatternFilter() {
+		fPatternFilter = new IndexedPatternFilter(ESearchCategory.EXAMPLE) {
 			@Override
-			protected boolean isLeafMatch(final Viewer viewer,
-					final Object element) {
-				TreeViewer treeViewer = (TreeViewer) viewer;
-				boolean isMatch = false;
-				ColumnLabelProvider labelProvider = (ColumnLabelProvider) treeViewer
-						.getLabelProvider(0);
-				String labelText = labelProvider.getText(element);
-				isMatch |= wordMatches(labelText);
-				return isMatch;
+			protected Collection<? extends ICpItem> getIndexedItems(Object element) {
+				IRteExampleItem example = getRteExampleItem(element);
+				if (example == null || example.getExample() == null) {
+					return null;
+				}
+				return Collections.singletonList(example.getExample());
 			}
 		};
-		patternFilter.setIncludeLeadingWildcard(true);
-		fExamplesViewFilters = new ViewerFilter[]{patternFilter,
+		fExamplesViewFilters = new ViewerFilter[]{fPatternFilter,
 				fPacksExamplesViewFilter};
 
-		fTree = new FilteredTree(parent,
+		fTree = new IndexedFilteredTree(parent,
 				SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL,
-				patternFilter, true);
+				fPatternFilter);
 		fTree.setInitialText(Messages.ExamplesView_SearchExample);
 		fViewer = fTree.getViewer();
 		Tree tree = fViewer.getTree();
@@ -439,6 +439,7 @@ public class ExamplesView extends ViewPart implements IRteEventListener {
 		if (CpPlugIn.getDefault() == null) {
 			return;
 		}
+		fPatternFilter.reset();
 		ICpPackManager packManager = CpPlugIn.getPackManager();
 		if (packManager != null) {
 			fViewer.setInput(packManager.getExamples());
@@ -552,8 +553,15 @@ public class ExamplesView extends ViewPart implements IRteEventListener {
 
 	@Override
 	public void handle(RteEvent event) {
-		if (RteEvent.PACKS_RELOADED.equals(event.getTopic())) {
+		switch (event.getTopic()) {
+		case RteEvent.PACKS_RELOADED:
 			fPackInstaller.reset();
+			break;
+		case RteEvent.PACKS_UPDATED:
+			// incremental reload: rebuild the example tree, running pack jobs continue
+			break;
+		default:
+			break;
 		}
 		Display.getDefault().asyncExec(new Runnable() {
 			@Override
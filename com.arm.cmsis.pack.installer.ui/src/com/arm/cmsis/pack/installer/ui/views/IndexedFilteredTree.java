@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ARM Ltd. and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * ARM Ltd and ARM Germany GmbH - Initial API and implementation
+ *******************************************************************************/
+
+package com.arm.cmsis.pack.installer.ui.views;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jface.viewers.TreeViewer;
+import org.eclipse.swt.widgets.Composite;
+import org.eclipse.ui.dialogs.FilteredTree;
+import org.eclipse.ui.progress.WorkbenchJob;
+
+/**
+ * Filtered tree that uses {@link IndexedPatternFilter} and expands only the paths to matching elements.
+ * The tree is filtered again when the filter has indexed a search category in background.
+ */
+public class IndexedFilteredTree extends FilteredTree {
+
+	private WorkbenchJob fRefreshJob = null;
+
+	public IndexedFilteredTree(Composite parent, int treeStyle, IndexedPatternFilter filter) {
+		super(parent, treeStyle, filter, true);
+		filter.setIndexListener(new Runnable() {
+			@Override
+			public void run() {
+				if(fRefreshJob != null) {
+					fRefreshJob.schedule();
+				}
+			}
+		});
+	}
+
+	@Override
+	protected WorkbenchJob doCreateRefreshJob() {
+		final WorkbenchJob refreshJob = super.doCreateRefreshJob();
+		fRefreshJob = new WorkbenchJob(refreshJob.getName()) {
+			@Override
+			public IStatus runInUIThread(IProgressMonitor monitor) {
+				IStatus status = refreshJob.runInUIThread(monitor);
+				IndexedPatternFilter filter = (IndexedPatternFilter)getPatternFilter();
+				TreeViewer viewer = getViewer();
+				if(filter.isActive() && !viewer.getControl().isDisposed()) {
+					viewer.getControl().setRedraw(false);
+					viewer.setExpandedElements(filter.getExpandedElements(viewer));
+					viewer.getControl().setRedraw(true);
+				}
+				return status;
+			}
+		};
+		return fRefreshJob;
+	}
+}
@@ -0,0 +1,283 @@
+/*******************************************************************************
+ * Copyright (c) 2016 ARM Ltd. and others
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * ARM Ltd and ARM Germany GmbH - Initial API and implementation
+ *******************************************************************************/
+
+package com.arm.cmsis.pack.installer.ui.views;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
+import org.eclipse.jface.viewers.IContentProvider;
+import org.eclipse.jface.viewers.ITreeContentProvider;
+import org.eclipse.jface.viewers.StructuredViewer;
+import org.eclipse.jface.viewers.Viewer;
+import org.eclipse.ui.dialogs.PatternFilter;
+
+import com.arm.cmsis.pack.CpPlugIn;
+import com.arm.cmsis.pack.ICpPackManager;
+import com.arm.cmsis.pack.data.CpSearchIndex;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpSearchIndex;
+import com.arm.cmsis.pack.enums.ESearchCategory;
+import com.arm.cmsis.pack.installer.ui.Messages;
+
+/**
+ * Pattern filter that matches tree elements against the search index of the pack manager instead of their labels.
+ * <p/>
+ * Tree elements are indexed once per viewer input by the items they show, see {@link #getIndexedItems(Object)}.
+ * For each pattern the visible elements are the elements showing index hits and their ancestors,
+ * the ancestors form the paths to the matches, see {@link #getExpandedElements(Viewer)}.
+ * {@link #reset()} must be called when the viewer content changes.
+ * <p/>
+ * Categories that are not indexed yet are indexed by a background job, the listener set by
+ * {@link #setIndexListener(Runnable)} is notified when the job is done.
+ */
+public abstract class IndexedPatternFilter extends PatternFilter {
+
+	private final ESearchCategory[] fCategories;
+	private String fPattern = ""; //$NON-NLS-1$
+	private boolean fbActive = false;
+	private Object fInput = null;
+	private Map<ICpItem, List<Object>> fElements = null; // tree elements by items they show
+	private Map<Object, Object> fParents = null;  // tree element -> parent element
+	private Set<Object> fVisible = null;  // visible elements for current pattern
+	private Set<Object> fExpanded = null; // visible elements with visible children
+	private final Map<ESearchCategory, Set<ICpItem>> fMatches = new EnumMap<ESearchCategory, Set<ICpItem>>(ESearchCategory.class);
+	private final Set<ESearchCategory> fIndexingCategories = EnumSet.noneOf(ESearchCategory.class);
+	private Runnable fIndexListener = null;
+
+	/**
+	 * Constructor
+	 * @param categories search categories of items shown by tree elements
+	 */
+	public IndexedPatternFilter(ESearchCategory... categories) {
+		fCategories = categories;
+	}
+
+	/**
+	 * Returns indexed items shown by a tree element
+	 * @param element tree element
+	 * @return collection of ICpItem the element shows or null if none
+	 */
+	protected abstract Collection<? extends ICpItem> getIndexedItems(Object element);
+
+	/**
+	 * Sets listener to notify when a search category is indexed in background, the listener is called from the job thread
+	 * @param listener Runnable to run
+	 */
+	public void setIndexListener(Runnable listener) {
+		fIndexListener = listener;
+	}
+
+	@Override
+	public void setPattern(String patternString) {
+		super.setPattern(patternString);
+		fPattern = patternString != null ? patternString : ""; //$NON-NLS-1$
+		fbActive = !CpSearchIndex.tokenize(fPattern).isEmpty();
+		fVisible = null;
+		fExpanded = null;
+		fMatches.clear();
+	}
+
+	/**
+	 * Discards collected matches and the element index, to be called when the viewer content changes
+	 */
+	public void reset() {
+		fInput = null;
+		fElements = null;
+		fParents = null;
+		setPattern(fPattern);
+	}
+
+	/**
+	 * Checks if pattern contains any search terms
+	 * @return true if filter hides not matching elements
+	 */
+	public boolean isActive() {
+		return fbActive;
+	}
+
+	/**
+	 * Returns indexed items of given category matching the pattern
+	 * @param category ESearchCategory of items
+	 * @return set of matching items, empty while the category is being indexed
+	 */
+	protected Set<ICpItem> getMatches(ESearchCategory category) {
+		Set<ICpItem> matches = fMatches.get(category);
+		if(matches == null) {
+			ICpPackManager packManager = CpPlugIn.getPackManager();
+			ICpSearchIndex index = packManager != null ? packManager.getSearchIndex() : null;
+			if(index == null) {
+				matches = Collections.emptySet();
+			} else if(index.isIndexed(category)) {
+				matches = index.search(category, fPattern);
+			} else {
+				scheduleIndexing(index, category);
+				return Collections.emptySet();
+			}
+			fMatches.put(category, matches);
+		}
+		return matches;
+	}
+
+	/**
+	 * Indexes search category in a background job
+	 * @param index ICpSearchIndex to update
+	 * @param category ESearchCategory to index
+	 */
+	protected void scheduleIndexing(final ICpSearchIndex index, final ESearchCategory category) {
+		synchronized (fIndexingCategories) {
+			if(!fIndexingCategories.add(category)) {
+				return;
+			}
+		}
+		Job indexJob = new Job(Messages.IndexedPatternFilter_Indexing) {
+			@Override
+			protected IStatus run(IProgressMonitor monitor) {
+				index.indexCategory(category);
+				return Status.OK_STATUS;
+			}
+		};
+		indexJob.setSystem(true);
+		indexJob.setPriority(Job.SHORT);
+		indexJob.addJobChangeListener(new JobChangeAdapter() {
+			@Override
+			public void done(IJobChangeEvent event) {
+				synchronized (fIndexingCategories) {
+					fIndexingCategories.remove(category);
+				}
+				Runnable listener = fIndexListener;
+				if(listener != null) {
+					listener.run();
+				}
+			}
+		});
+		indexJob.schedule();
+	}
+
+	@Override
+	protected boolean isLeafMatch(Viewer viewer, Object element) {
+		return isElementVisible(viewer, element);
+	}
+
+	@Override
+	public boolean isElementVisible(Viewer viewer, Object element) {
+		if(!fbActive) {
+			return true;
+		}
+		collectVisibleElements(viewer);
+		return fVisible.contains(element);
+	}
+
+	/**
+	 * Returns elements to expand to show all matches
+	 * @param viewer filtered viewer
+	 * @return array of visible elements that have visible children, empty array if filter is not active
+	 */
+	public Object[] getExpandedElements(Viewer viewer) {
+		if(!fbActive) {
+			return new Object[0];
+		}
+		collectVisibleElements(viewer);
+		return fExpanded.toArray();
+	}
+
+	protected void collectVisibleElements(Viewer viewer) {
+		Object input = viewer.getInput();
+		if(input != fInput) {
+			fInput = input;
+			fElements = null;
+			fParents = null;
+			fVisible = null;
+		}
+		if(fVisible != null) {
+			return;
+		}
+		fVisible = new HashSet<Object>();
+		fExpanded = new HashSet<Object>();
+		if(input == null || !(viewer instanceof StructuredViewer)) {
+			return;
+		}
+		if(fElements == null) {
+			indexElements(((StructuredViewer)viewer).getContentProvider(), input);
+		}
+		for(ESearchCategory category : fCategories) {
+			for(ICpItem hit : getMatches(category)) {
+				List<Object> elements = fElements.get(hit);
+				if(elements == null) {
+					continue;
+				}
+				for(Object element : elements) {
+					fVisible.add(element);
+					// walk up the parent chain until an already expanded element
+					Object parent = fParents.get(element);
+					while(parent != null && fExpanded.add(parent)) {
+						fVisible.add(parent);
+						parent = fParents.get(parent);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Indexes tree elements by the items they show and remembers their parents
+	 * @param contentProvider viewer content provider
+	 * @param input viewer input
+	 */
+	protected void indexElements(IContentProvider contentProvider, Object input) {
+		fElements = new HashMap<ICpItem, List<Object>>();
+		fParents = new IdentityHashMap<Object, Object>();
+		if(contentProvider instanceof ITreeContentProvider) {
+			ITreeContentProvider treeContentProvider = (ITreeContentProvider)contentProvider;
+			indexElements(treeContentProvider, null, treeContentProvider.getElements(input));
+		}
+	}
+
+	private void indexElements(ITreeContentProvider contentProvider, Object parent, Object[] elements) {
+		if(elements == null) {
+			return;
+		}
+		for(Object element : elements) {
+			if(parent != null) {
+				fParents.put(element, parent);
+			}
+			Collection<? extends ICpItem> items = getIndexedItems(element);
+			if(items != null) {
+				for(ICpItem item : items) {
+					List<Object> itemElements = fElements.get(item);
+					if(itemElements == null) {
+						itemElements = new ArrayList<Object>(1);
+						fElements.put(item, itemElements);
+					}
+					itemElements.add(element);
+				}
+			}
+			if(contentProvider.hasChildren(element)) {
+				indexElements(contentProvider, element, contentProvider.getChildren(element));
+			}
+		}
+	}
+}
@@ -713,7 +713,7 @@ public class PackPropertyView extends ViewPart implements IRteEventListener {
 
 	@Override
 	public void handle(RteEvent event) {
-		if (RteEvent.PACKS_RELOADED.equals(event.getTopic())) {
+		if (RteEvent.PACKS_RELOADED.equals(event.getTopic()) || RteEvent.PACKS_UPDATED.equals(event.getTopic())) {
 			Display.getDefault().asyncExec(new Runnable() {
 				@Override
 				public void run() {
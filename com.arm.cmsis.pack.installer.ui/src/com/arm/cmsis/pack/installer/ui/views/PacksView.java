@@ -12,6 +12,7 @@
 package com.arm.cmsis.pack.installer.ui.views;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 
 import org.eclipse.jface.action.Action;
@@ -52,7 +53,6 @@ import org.eclipse.ui.IWorkbenchPart;
 import org.eclipse.ui.PartInitException;
 import org.eclipse.ui.PlatformUI;
 import org.eclipse.ui.dialogs.FilteredTree;
-import org.eclipse.ui.dialogs.PatternFilter;
 import org.eclipse.ui.part.ViewPart;
 
 import com.arm.cmsis.pack.CpPlugIn;
@@ -65,6 +65,7 @@ import com.arm.cmsis.pack.data.ICpPack;
 import com.arm.cmsis.pack.data.ICpPack.PackState;
 import com.arm.cmsis.pack.data.ICpPackCollection;
 import com.arm.cmsis.pack.data.ICpPackFamily;
+import com.arm.cmsis.pack.enums.ESearchCategory;
 import com.arm.cmsis.pack.events.IRteEventListener;
 import com.arm.cmsis.pack.events.RteEvent;
 import com.arm.cmsis.pack.installer.ui.CpInstallerPlugInUI;
@@ -96,12 +97,14 @@ public class PacksView extends ViewPart implements IRteEventListener {
 
 	FilteredTree fTree;
 	TreeViewer fViewer;
+	IndexedPatternFilter fPatternFilter;
 
 	private Action fExpandAction;
 	private Action fExpandItemAction;
 	private Action fCollapseAction;
 	private Action fCollapseItemAction;
 	private Action fHelpAction;
+	private Action fPrintLoadStatistics;
 	Action fDoubleClickAction;
 	private Action fShowPackProperties;
 	private Action fDeletePack;
@@ -589,22 +592,23 @@ public class PacksView extends ViewPart implements IRteEventListener {
 	@Override
 	public void createPartControl(Composite parent) {
 		fPacksExamplesViewFilter = PacksExamplesViewFilter.getInstance();
-		PatternFilter patternFilter = new PatternFilter() {
+		fPatternFilter = new IndexedPatternFilter(ESearchCategory.PACK) {
 			@Override
-			protected boolean isLeafMatch(final Viewer viewer, final Object element) {
-				TreeViewer treeViewer = (TreeViewer)viewer;
-				boolean isMatch = false;
-				ColumnLabelProvider labelProvider = (ColumnLabelProvider)treeViewer.getLabelProvider(0);
-				String labelText = labelProvider.getText(element);
-				isMatch |= wordMatches(labelText);
-				return isMatch;
+			protected Collection<? extends ICpItem> getIndexedItems(Object element) {
+				if (element instanceof ICpPack) {
+					return Collections.singletonList((ICpPack) element);
+				} else if (element instanceof ICpPackFamily && !(element instanceof ICpPackCollection)) {
+					// family matches if its latest pack does
+					ICpPack pack = ((ICpPackFamily) element).getPack();
+					return pack != null ? Collections.singletonList(pack) : null;
+				}
+				return null;
 			}
 		};
-		patternFilter.setIncludeLeadingWildcard(true);
-		fPacksViewFilters = new ViewerFilter[] { patternFilter, fPacksExamplesViewFilter };
+		fPacksViewFilters = new ViewerFilter[] { fPatternFilter, fPacksExamplesViewFilter };
 
-		fTree = new FilteredTree(parent,
-				SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, patternFilter, true);
+		fTree = new IndexedFilteredTree(parent,
+				SWT.FULL_SELECTION | SWT.BORDER | SWT.H_SCROLL | SWT.V_SCROLL, fPatternFilter);
 		fTree.setInitialText(Messages.PacksView_SearchPack);
 		fViewer = fTree.getViewer();
 		Tree tree = fViewer.getTree();
@@ -714,6 +718,7 @@ public class PacksView extends ViewPart implements IRteEventListener {
 		if(CpPlugIn.getDefault() == null) {
 			return;
 		}
+		fPatternFilter.reset();
 		ICpPackManager packManager = CpPlugIn.getPackManager();
 		if(packManager != null) {
 			ICpItem root = new CpItem(null, ROOT);
@@ -873,6 +878,18 @@ public class PacksView extends ViewPart implements IRteEventListener {
 		fHelpAction.setToolTipText(Messages.PacksView_HelpForPacksView);
 		fHelpAction.setImageDescriptor(CpPlugInUI.getImageDescriptor(CpPlugInUI.ICON_HELP));
 
+		fPrintLoadStatistics = new Action() {
+			@Override
+			public void run() {
+				ICpPackManager packManager = CpPlugIn.getPackManager();
+				if (packManager != null) {
+					packManager.printLoadStatistics();
+				}
+			}
+		};
+		fPrintLoadStatistics.setText(Messages.PacksView_PrintLoadStatistics);
+		fPrintLoadStatistics.setToolTipText(Messages.PacksView_PrintLoadStatisticsTooltip);
+
 		fDoubleClickAction = new Action() {
 			@Override
 			public void run() {
@@ -920,6 +937,7 @@ public class PacksView extends ViewPart implements IRteEventListener {
 		manager.add(fExpandAction);
 		manager.add(fCollapseAction);
 		manager.add(fHelpAction);
+		manager.add(fPrintLoadStatistics);
 		manager.add(new Separator());
 		PackInstallerViewUtils.addManagementCommandsToLocalToolBar(this, manager);
 	}
@@ -992,8 +1010,18 @@ public class PacksView extends ViewPart implements IRteEventListener {
 		if (RteEvent.PACKS_RELOADED.equals(event.getTopic())) {
 			fPackInstaller.reset();
 			Display.getDefault().asyncExec(() -> refresh());
+		} else if (RteEvent.PACKS_UPDATED.equals(event.getTopic())) {
+			// rebuild input: error pack family can appear or disappear, keep running pack jobs and expanded families
+			Display.getDefault().asyncExec(() -> {
+				Object[] expanded = fViewer.getExpandedElements();
+				refresh();
+				fViewer.setExpandedElements(expanded);
+			});
 		} else {
-			Display.getDefault().asyncExec(() -> fViewer.refresh());
+			Display.getDefault().asyncExec(() -> {
+				fPatternFilter.reset();
+				fViewer.refresh();
+			});
 		}
 	}
 
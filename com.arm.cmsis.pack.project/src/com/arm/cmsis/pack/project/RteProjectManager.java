@@ -202,6 +202,7 @@ public class RteProjectManager extends RteEventProxy implements IResourceChangeL
 	public void handle(RteEvent event) {
 		switch (event.getTopic()) {
 		case RteEvent.PACKS_RELOADED:
+		case RteEvent.PACKS_UPDATED:
 		case RteEvent.PACK_INSTALL_JOB_FINISHED:
 		case RteEvent.PACK_REMOVE_JOB_FINISHED:
 		case RteEvent.PACK_UNPACK_JOB_FINISHED:
@@ -349,7 +349,7 @@ public class PackView extends ViewPart implements IRteEventListener {
 
 	@Override
 	public void handle(RteEvent event) {
-		if(event.getTopic().equals(RteEvent.PACKS_RELOADED)) 
+		if(event.getTopic().equals(RteEvent.PACKS_RELOADED) || event.getTopic().equals(RteEvent.PACKS_UPDATED)) 
 			refresh();
 	}
 
@@ -0,0 +1,149 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+import com.arm.cmsis.pack.utils.WildCards;
+
+/**
+ * Checks that {@link CompiledWildcard} and {@link WildCards} match the same strings as the original implementation
+ */
+public class CompiledWildcardTest {
+
+	private static final String[] TOKENS = {
+		"A", "B", "a", "b", "1", "2", "-", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+		"?", "*", "[AB]", "[12]", "[a2]", "[]", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+	};
+
+	private static final String[] DEVICE_PATTERNS = {
+		"STM32F407VG", "STM32F4*", "STM32F4?7*", "*", "SYN*F[0-3]D*", "Cortex-M*", "ARM*", "*CC", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+		"a*d", "a*cd", "a.d.d", "STM32F4[23]9??", "[", "STM32F4[23", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$
+		"STM32F407VG", "stm32f407vg", "STM32F429ZI", "SYN12F3D17", "Cortex-M4", "ARMCC", "GCC", "", null, //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+	};
+
+	/**
+	 * Generates random pattern the original implementation can process: '*' is never followed by '*' or '?'
+	 */
+	static String randomPattern(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int n = random.nextInt(7);
+		boolean bAsterisk = false;
+		for(int i = 0; i < n; i++) {
+			String token = TOKENS[random.nextInt(TOKENS.length)];
+			if(bAsterisk && (token.equals("*") || token.equals("?"))) { //$NON-NLS-1$ //$NON-NLS-2$
+				continue;
+			}
+			bAsterisk = token.equals("*"); //$NON-NLS-1$
+			sb.append(token);
+		}
+		return sb.toString();
+	}
+
+	static void assertMatch(String s1, String s2) {
+		for(boolean cs : new boolean[] {true, false}) {
+			boolean expected = LegacyWildCards.match(s1, s2, cs);
+			String msg = "'" + s1 + "' '" + s2 + "' cs=" + cs; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals(msg, expected, WildCards.match(s1, s2, cs));
+			assertEquals(msg, expected, CompiledWildcard.match(s1, s2, cs));
+			if(s1 != null) {
+				CompiledWildcard w1 = CompiledWildcard.compile(s1);
+				assertEquals(msg, expected, w1.match(s2, cs));
+				if(s2 != null) {
+					assertEquals(msg, expected, w1.match(CompiledWildcard.compile(s2), cs));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDevicePatterns() {
+		for(String s1 : DEVICE_PATTERNS) {
+			for(String s2 : DEVICE_PATTERNS) {
+				assertMatch(s1, s2);
+			}
+		}
+		// a set is a list of characters, '-' does not specify a range
+		assertTrue(WildCards.match("SYN*F[0-3]D*", "SYN12F3D17")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(WildCards.match("SYN*F[0-3]D*", "SYN12F2D17")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testRandomPatterns() {
+		Random random = new Random(1);
+		for(int i = 0; i < 200000; i++) {
+			assertMatch(randomPattern(random), randomPattern(random));
+		}
+	}
+
+	@Test
+	public void testCache() {
+		CompiledWildcard.clearCache();
+		CompiledWildcard w = CompiledWildcard.compile("STM32F4*"); //$NON-NLS-1$
+		assertSame(w, CompiledWildcard.compile("STM32F4*")); //$NON-NLS-1$
+		assertEquals(1, CompiledWildcard.getCacheSize());
+		for(int i = 0; i < 5000; i++) {
+			CompiledWildcard c = CompiledWildcard.compile("SYN" + i + "*"); //$NON-NLS-1$ //$NON-NLS-2$
+			assertTrue(c.match("SYN" + i + "F0D0")); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		assertTrue(CompiledWildcard.getCacheSize() <= 1024);
+		CompiledWildcard.clearCache();
+		assertEquals(0, CompiledWildcard.getCacheSize());
+	}
+
+	@Test
+	public void testConcurrentMatching() throws Exception {
+		final List<String> patterns = new ArrayList<String>();
+		Random random = new Random(2);
+		for(int i = 0; i < 3000; i++) {
+			patterns.add(randomPattern(random));
+		}
+		final List<Boolean> expected = new ArrayList<Boolean>();
+		for(int i = 0; i < patterns.size(); i++) {
+			expected.add(LegacyWildCards.match(patterns.get(i), patterns.get(patterns.size() - 1 - i), true));
+		}
+		CompiledWildcard.clearCache();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+			for(int t = 0; t < 8; t++) {
+				futures.add(executor.submit(() -> {
+					int errors = 0;
+					for(int i = 0; i < patterns.size(); i++) {
+						if(WildCards.match(patterns.get(i), patterns.get(patterns.size() - 1 - i)) != expected.get(i)) {
+							errors++;
+						}
+					}
+					return errors;
+				}));
+			}
+			for(Future<Integer> f : futures) {
+				assertEquals(0, f.get().intValue());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
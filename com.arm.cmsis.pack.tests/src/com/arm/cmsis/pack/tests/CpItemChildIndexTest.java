@@ -0,0 +1,144 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpItem;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.item.IndexedChildren;
+
+/**
+ * Checks that lookups of {@link CpItem} children through the tag and ID index return the same items as sequential scans
+ */
+public class CpItemChildIndexTest {
+
+	private static final String[] TAGS = {"a", "b", "c", "d"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	private static final String[] KEYS = {"a", "b", "c", "d", "e"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+
+	private int fIdCount = 0;
+
+	private ICpItem createChild(ICpItem parent, Random random) {
+		ICpItem child = new CpItem(parent, TAGS[random.nextInt(TAGS.length)]);
+		if(random.nextBoolean()) {
+			child.attributes().setAttribute(CmsisConstants.ID, "id" + random.nextInt(10)); //$NON-NLS-1$
+		} else {
+			child.attributes().setAttribute(CmsisConstants.NAME, "n" + fIdCount++); //$NON-NLS-1$
+		}
+		return child;
+	}
+
+	private ICpItem createParent(int childCount, Random random) {
+		ICpItem parent = new CpItem(null, "parent"); //$NON-NLS-1$
+		for(int i = 0; i < childCount; i++) {
+			parent.addChild(createChild(parent, random));
+		}
+		return parent;
+	}
+
+	private static List<ICpItem> scanChildren(ICpItem parent, String tag) {
+		List<ICpItem> result = new ArrayList<ICpItem>();
+		Collection<? extends ICpItem> children = parent.getChildren();
+		if(children != null) {
+			for(ICpItem child : children) {
+				if(child.getTag().equals(tag)) {
+					result.add(child);
+				}
+			}
+		}
+		return result;
+	}
+
+	private static ICpItem scanProperty(ICpItem parent, String id) {
+		Collection<? extends ICpItem> children = parent.getChildren();
+		if(children != null) {
+			for(ICpItem child : children) {
+				if(child.getId().equals(id)) {
+					return child;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static void assertLookups(ICpItem parent) {
+		for(String key : KEYS) {
+			List<ICpItem> expected = scanChildren(parent, key);
+			assertEquals(key, expected, new ArrayList<ICpItem>(parent.getChildren(key)));
+			assertSame(key, expected.isEmpty() ? null : expected.get(0), parent.getFirstChild(key));
+		}
+		for(int i = 0; i < 10; i++) {
+			String id = "id" + i; //$NON-NLS-1$
+			assertSame(id, scanProperty(parent, id), parent.getProperty(id));
+		}
+		Collection<? extends ICpItem> children = parent.getChildren();
+		if(children != null) {
+			for(ICpItem child : children) {
+				assertSame(scanProperty(parent, child.getId()), parent.getProperty(child.getId()));
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void testLookupsAfterModifications() {
+		Random random = new Random(1);
+		for(int size : new int[] {0, 3, IndexedChildren.INDEX_THRESHOLD, IndexedChildren.INDEX_THRESHOLD + 1, 50}) {
+			ICpItem parent = createParent(size, random);
+			if(size > 0) {
+				assertTrue(parent.getChildren() instanceof IndexedChildren);
+			}
+			assertLookups(parent);
+
+			// remove first and all items with given key
+			String key = TAGS[random.nextInt(TAGS.length)];
+			List<ICpItem> tagged = scanChildren(parent, key);
+			assertSame(tagged.isEmpty() ? null : tagged.get(0), parent.removeFirstChild(key));
+			assertLookups(parent);
+			key = TAGS[random.nextInt(TAGS.length)];
+			parent.removeAllChildren(key);
+			assertEquals(0, scanChildren(parent, key).size());
+			assertLookups(parent);
+
+			// add items after the index is built
+			for(int i = 0; i < 10; i++) {
+				parent.addChild(createChild(parent, random));
+			}
+			assertLookups(parent);
+
+			// modify via iterator and set()
+			List<ICpItem> list = (List<ICpItem>)parent.getChildren();
+			for(Iterator<ICpItem> it = list.iterator(); it.hasNext();) {
+				it.next();
+				if(random.nextInt(3) == 0) {
+					it.remove();
+				}
+			}
+			assertLookups(parent);
+			for(int i = 0; i < list.size(); i += 2) {
+				list.set(i, createChild(parent, random));
+			}
+			assertLookups(parent);
+		}
+	}
+}
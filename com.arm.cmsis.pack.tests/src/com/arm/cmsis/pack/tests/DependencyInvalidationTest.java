@@ -0,0 +1,225 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arm.cmsis.pack.benchmark.BenchmarkPackManager;
+import com.arm.cmsis.pack.benchmark.SyntheticPackGenerator;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpItem;
+import com.arm.cmsis.pack.data.ICpComponent;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.enums.EEvaluationResult;
+import com.arm.cmsis.pack.info.CpConfigurationInfo;
+import com.arm.cmsis.pack.info.CpDeviceInfo;
+import com.arm.cmsis.pack.rte.IRteModel;
+import com.arm.cmsis.pack.rte.RteModel;
+import com.arm.cmsis.pack.rte.components.IRteComponent;
+import com.arm.cmsis.pack.rte.components.IRteComponentItem;
+import com.arm.cmsis.pack.rte.dependencies.IRteDependency;
+import com.arm.cmsis.pack.rte.dependencies.IRteDependencyItem;
+import com.arm.cmsis.pack.rte.dependencies.RteDependencySolver;
+import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+
+/**
+ * Checks that dependencies resolved with incremental re-evaluation result in the same selection and evaluation
+ * results as a complete evaluation and as the original resolver re-evaluating everything after each selection
+ */
+public class DependencyInvalidationTest {
+
+	private static final int LAYER_COUNT = 8;
+
+	private File fRoot;
+	private BenchmarkPackManager fPackManager;
+
+	/**
+	 * RTE model that takes packs from a benchmark pack manager instead of the plug-in
+	 */
+	static class TestModel extends RteModel {
+		private final BenchmarkPackManager fPackManager;
+
+		TestModel(BenchmarkPackManager packManager, boolean bBaseline) {
+			fPackManager = packManager;
+			if(bBaseline) {
+				fDependencySolver = new BaselineSolver(this);
+			}
+		}
+
+		@Override
+		protected void collectPacks() {
+			fAllPacks = fPackManager.getInstalledPacks();
+		}
+
+		EEvaluationResult resolveDependencies() {
+			return fDependencySolver.resolveDependencies();
+		}
+	}
+
+	/**
+	 * Solver that re-evaluates all dependencies after each selected component as the original implementation
+	 */
+	static class BaselineSolver extends RteDependencySolver {
+
+		BaselineSolver(IRteModel model) {
+			super(model);
+		}
+
+		@Override
+		protected boolean resolveDependency(IRteDependency dependency) {
+			if(dependency.getEvaluationResult() != EEvaluationResult.SELECTABLE)
+				return false;
+			IRteComponent c = dependency.getBestMatch();
+			if(c == null)
+				return false;
+			rteModel.selectComponent(c, 1);
+			rteModel.evaluateComponentDependencies(); // no changed groups => complete evaluation
+			return true;
+		}
+	}
+
+	@Before
+	public void setUp() throws IOException {
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(3);
+		generator.setMiddlewareCount(LAYER_COUNT);
+		fRoot = PackTestUtils.generatePacks(generator);
+		fPackManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(false));
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	private TestModel createModel(boolean bBaseline, boolean bOdd) {
+		String deviceName = SyntheticPackGenerator.getDeviceName(0, 0, 1);
+		IRteDeviceItem device = fPackManager.getDevices().findItem(deviceName, SyntheticPackGenerator.DVENDOR, true);
+		assertNotNull(device);
+		ICpItem toolchainInfo = new CpItem(null, CmsisConstants.TOOLCHAIN_TAG);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TCOMPILER, SyntheticPackGenerator.TCOMPILER);
+		toolchainInfo.attributes().setAttribute(CmsisConstants.TOUTPUT, "exe"); //$NON-NLS-1$
+
+		TestModel model = new TestModel(fPackManager, bBaseline);
+		model.setConfigurationInfo(new CpConfigurationInfo(new CpDeviceInfo(null, device), toolchainInfo, true));
+
+		List<IRteComponent> components = new ArrayList<IRteComponent>();
+		collectComponents(model.getComponents(), components);
+		for(int m = LAYER_COUNT - 1; m >= 0; m -= 2) {
+			String group = SyntheticPackGenerator.getMiddlewareGroup(m);
+			for(IRteComponent c : components) {
+				ICpComponent cp = c.getActiveCpComponent();
+				if(cp != null && SyntheticPackGenerator.MIDDLEWARE.equals(cp.getAttribute(CmsisConstants.CCLASS))
+						&& group.equals(cp.getAttribute(CmsisConstants.CGROUP))) {
+					model.selectComponent(c, 1);
+					break;
+				}
+			}
+			if(!bOdd)
+				break;
+		}
+		assertTrue(model.evaluateComponentDependencies().ordinal() < EEvaluationResult.FULFILLED.ordinal());
+		return model;
+	}
+
+	private static void collectComponents(IRteComponentItem item, List<IRteComponent> components) {
+		if(item == null) {
+			return;
+		}
+		if(item instanceof IRteComponent) {
+			components.add((IRteComponent)item);
+			return;
+		}
+		Collection<? extends IRteComponentItem> children = item.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(IRteComponentItem child : children) {
+			collectComponents(child, components);
+		}
+	}
+
+	private static void describeComponents(IRteModel model, IRteComponentItem item, String prefix, StringBuilder sb) {
+		String path = prefix + '/' + item.getName();
+		sb.append(path).append(' ').append(model.getEvaluationResult(item));
+		if(item instanceof IRteComponent) {
+			sb.append(((IRteComponent)item).isSelected() ? " selected" : ""); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		sb.append('\n');
+		Collection<? extends IRteComponentItem> children = item.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(IRteComponentItem child : children) {
+			describeComponents(model, child, path, sb);
+		}
+	}
+
+	private static void describeDependencies(Collection<? extends IRteDependencyItem> items, String indent, StringBuilder sb) {
+		if(items == null) {
+			return;
+		}
+		for(IRteDependencyItem item : items) {
+			sb.append(indent).append(item.getName()).append(' ').append(item.getEvaluationResult()).append('\n');
+			describeDependencies(item.getChildren(), indent + ' ', sb);
+		}
+	}
+
+	private static String describe(IRteModel model) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(model.getEvaluationResult()).append('\n');
+		describeComponents(model, model.getComponents(), "", sb); //$NON-NLS-1$
+		describeDependencies(model.getDependencyItems(), "", sb); //$NON-NLS-1$
+		return sb.toString();
+	}
+
+	private void checkResolve(boolean bOdd) {
+		TestModel baseline = createModel(true, bOdd);
+		EEvaluationResult expectedResult = baseline.resolveDependencies();
+		assertEquals(EEvaluationResult.FULFILLED, expectedResult);
+		String expected = describe(baseline);
+
+		for(boolean bBatch : new boolean[] {false, true}) {
+			TestModel model = createModel(false, bOdd);
+			EEvaluationResult result = bBatch ? model.resolveComponentDependencies() : model.resolveDependencies();
+			String msg = bOdd + " " + bBatch; //$NON-NLS-1$
+			assertEquals(msg, expectedResult, result);
+			String resolved = describe(model);
+			assertEquals(msg, expected, resolved);
+			// complete evaluation of the same selection must give the same results
+			model.evaluateComponentDependencies();
+			assertEquals(msg, resolved, describe(model));
+		}
+	}
+
+	@Test
+	public void testResolveTopLayer() {
+		checkResolve(false);
+	}
+
+	@Test
+	public void testResolveOddLayers() {
+		checkResolve(true);
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arm.cmsis.pack.benchmark.BenchmarkPackManager;
+import com.arm.cmsis.pack.benchmark.SyntheticPackGenerator;
+import com.arm.cmsis.pack.data.CpPack;
+import com.arm.cmsis.pack.data.ICpDeviceItem;
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.data.ICpPackCollection;
+import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTreeSnapshot;
+
+/**
+ * Checks that device tree views of a shared {@link RteDeviceTreeSnapshot} are equal to device trees
+ * created from the same packs with {@link RteDeviceItem#createTree(Collection)}
+ */
+public class DeviceTreeSnapshotTest {
+
+	private static final String[] VENDORS = {null, SyntheticPackGenerator.DVENDOR, "Foo"}; //$NON-NLS-1$
+
+	private File fRoot;
+	private ICpPackCollection fPackCollection;
+	private List<ICpPack> fPacks;
+
+	@Before
+	public void setUp() throws IOException {
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(8);
+		generator.setMiddlewareCount(2);
+		fRoot = PackTestUtils.generatePacks(generator);
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(false));
+		fPackCollection = packManager.getPacks();
+		fPacks = new ArrayList<ICpPack>(PackTestUtils.getPacksById(fPackCollection).values());
+		RteDeviceTreeSnapshot.clearCache();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		RteDeviceTreeSnapshot.clearCache();
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	private static List<ICpDeviceItem> getDevices(IRteDeviceItem item) {
+		Collection<ICpDeviceItem> devices = item.getDevices();
+		return devices != null ? new ArrayList<ICpDeviceItem>(devices) : Collections.<ICpDeviceItem>emptyList();
+	}
+
+	private static void assertSameTree(IRteDeviceItem expected, IRteDeviceItem actual) {
+		String msg = expected.getName();
+		assertEquals(msg, expected.getName(), actual.getName());
+		assertEquals(msg, expected.getLevel(), actual.getLevel());
+		assertEquals(msg, expected.isDevice(), actual.isDevice());
+		assertEquals(msg, expected.getVendorName(), actual.getVendorName());
+		assertSame(msg, expected.getDevice(), actual.getDevice());
+		assertEquals(msg, getDevices(expected), getDevices(actual));
+		assertEquals(msg, expected.getAllDeviceNames(), actual.getAllDeviceNames());
+		assertEquals(msg, expected.getAllPackIds(), actual.getAllPackIds());
+		Collection<? extends IRteDeviceItem> expectedChildren = expected.getChildren();
+		Collection<? extends IRteDeviceItem> actualChildren = actual.getChildren();
+		int count = expectedChildren != null ? expectedChildren.size() : 0;
+		assertEquals(msg, count, actualChildren != null ? actualChildren.size() : 0);
+		if(count == 0) {
+			return;
+		}
+		assertEquals(msg, expected.getChildMap().keySet(), actual.getChildMap().keySet());
+		Iterator<? extends IRteDeviceItem> it = actualChildren.iterator();
+		for(IRteDeviceItem child : expectedChildren) {
+			IRteDeviceItem actualChild = it.next();
+			assertSameTree(child, actualChild);
+			assertSame(actual, actualChild.getParent());
+		}
+	}
+
+	private static void assertSameLookups(IRteDeviceItem expected, IRteDeviceItem actual, Collection<String> names) {
+		for(String name : names) {
+			for(String vendor : VENDORS) {
+				for(boolean onlyDevice : new boolean[] {true, false}) {
+					IRteDeviceItem e = expected.findItem(name, vendor, onlyDevice);
+					IRteDeviceItem a = actual.findItem(name, vendor, onlyDevice);
+					String msg = name + ' ' + vendor + ' ' + onlyDevice;
+					if(e == null) {
+						assertNull(msg, a);
+					} else {
+						assertNotNull(msg, a);
+						assertEquals(msg, e.getName(), a.getName());
+						assertEquals(msg, e.getLevel(), a.getLevel());
+						assertEquals(msg, getDevices(e), getDevices(a));
+					}
+				}
+			}
+		}
+	}
+
+	private void checkSubset(RteDeviceTreeSnapshot snapshot, List<ICpPack> packs, Collection<String> names) {
+		IRteDeviceItem expected = RteDeviceItem.createTree(packs);
+		IRteDeviceItem view = snapshot.createView(packs);
+		assertNotNull(view);
+		assertSameTree(expected, view);
+		assertSameLookups(expected, view, names);
+	}
+
+	@Test
+	public void testViews() {
+		RteDeviceTreeSnapshot snapshot = RteDeviceTreeSnapshot.getSnapshot(fPackCollection);
+		assertNotNull(snapshot);
+		assertSame(snapshot, RteDeviceTreeSnapshot.getSnapshot(fPackCollection));
+
+		// names of all devices, families and sub-families and some unknown ones
+		List<String> names = new ArrayList<String>(RteDeviceItem.createTree(fPacks).getAllDeviceNames());
+		names.add(SyntheticPackGenerator.getDeviceName(0, 0, 0).substring(0, 4));
+		names.add("Unknown"); //$NON-NLS-1$
+		names.add(""); //$NON-NLS-1$
+
+		checkSubset(snapshot, fPacks, names);
+		checkSubset(snapshot, Collections.<ICpPack>emptyList(), names);
+		Random random = new Random(1);
+		for(int i = 0; i < 20; i++) {
+			List<ICpPack> subset = new ArrayList<ICpPack>();
+			for(ICpPack pack : fPacks) {
+				if(random.nextBoolean()) {
+					subset.add(pack);
+				}
+			}
+			checkSubset(snapshot, subset, names);
+		}
+		// packs that are not part of the snapshot
+		ICpPack unknown = new CpPack(null);
+		assertNull(snapshot.createView(Collections.singletonList(unknown)));
+	}
+}
@@ -0,0 +1,176 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arm.cmsis.pack.ICpPackManager;
+import com.arm.cmsis.pack.benchmark.BenchmarkPackManager;
+import com.arm.cmsis.pack.benchmark.SyntheticPackGenerator;
+import com.arm.cmsis.pack.data.ICpExample;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.enums.ESearchCategory;
+import com.arm.cmsis.pack.rte.examples.IRteExampleItem;
+
+/**
+ * Checks that an incremental reload after adding, modifying and deleting pdsc files
+ * results in the same packs, devices, boards and examples as a complete load
+ */
+public class IncrementalReloadTest {
+
+	private static final int PACK_COUNT = 6;
+
+	private File fRoot;
+	private File fOther;
+
+	@Before
+	public void setUp() throws IOException {
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(PACK_COUNT);
+		fRoot = PackTestUtils.generatePacks(generator);
+		// the same packs with other content and one more pack
+		generator = new SyntheticPackGenerator();
+		generator.setPackCount(PACK_COUNT + 1);
+		generator.setDeviceCount(generator.getDeviceCount() + 3);
+		generator.setExampleCount(generator.getExampleCount() + 2);
+		fOther = PackTestUtils.generatePacks(generator);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+		SyntheticPackGenerator.deleteDirectory(fOther);
+	}
+
+	private static File getPdscFile(File root, int packIndex) {
+		String name = SyntheticPackGenerator.getPackName(packIndex);
+		return new File(root, SyntheticPackGenerator.VENDOR + File.separator + name + File.separator
+				+ SyntheticPackGenerator.PACK_VERSION + File.separator + SyntheticPackGenerator.VENDOR + '.' + name + ".pdsc"); //$NON-NLS-1$
+	}
+
+	private void copyPdscFile(int packIndex) throws IOException {
+		File target = getPdscFile(fRoot, packIndex);
+		long modified = target.exists() ? target.lastModified() : 0;
+		Files.createDirectories(target.getParentFile().toPath());
+		Files.copy(getPdscFile(fOther, packIndex).toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		if(modified != 0) {
+			assertTrue(target.setLastModified(modified + 5000)); // file system time resolution can be coarse
+		}
+	}
+
+	private static Set<String> getIds(Collection<? extends ICpItem> items) {
+		Set<String> ids = new TreeSet<String>();
+		if(items != null) {
+			for(ICpItem item : items) {
+				ids.add(item.getId());
+			}
+		}
+		return ids;
+	}
+
+	private static List<String> getExampleIds(ICpPackManager packManager) {
+		List<String> ids = new ArrayList<String>();
+		IRteExampleItem examples = packManager.getExamples();
+		if(examples != null && examples.getChildren() != null) {
+			for(IRteExampleItem item : examples.getChildren()) {
+				ICpExample example = item.getExample();
+				ids.add(item.getName() + ':' + (example != null ? example.getPackId() : null));
+			}
+		}
+		return ids;
+	}
+
+	private static void assertSameContent(ICpPackManager expected, ICpPackManager actual) {
+		Map<String, ICpPack> expectedPacks = PackTestUtils.getPacksById(expected.getPacks());
+		Map<String, ICpPack> actualPacks = PackTestUtils.getPacksById(actual.getPacks());
+		assertEquals(expectedPacks.keySet(), actualPacks.keySet());
+		for(Map.Entry<String, ICpPack> e : expectedPacks.entrySet()) {
+			assertEquals(e.getKey(), PackTestUtils.dump(e.getValue()), PackTestUtils.dump(actualPacks.get(e.getKey())));
+		}
+		assertEquals(PackTestUtils.getPacksById(expected.getInstalledPacks()).keySet(), PackTestUtils.getPacksById(actual.getInstalledPacks()).keySet());
+		assertEquals(PackTestUtils.getPacksById(expected.getDevicePacks()).keySet(), PackTestUtils.getPacksById(actual.getDevicePacks()).keySet());
+		assertEquals(PackTestUtils.getPacksById(expected.getGenericPacks()).keySet(), PackTestUtils.getPacksById(actual.getGenericPacks()).keySet());
+		assertEquals(expected.getDevices().getAllDeviceNames(), actual.getDevices().getAllDeviceNames());
+		assertEquals(expected.getInstalledDevices().getAllDeviceNames(), actual.getInstalledDevices().getAllDeviceNames());
+		assertEquals(new TreeSet<String>(expected.getBoards().keySet()), new TreeSet<String>(actual.getBoards().keySet()));
+		assertEquals(getExampleIds(expected), getExampleIds(actual));
+		for(ESearchCategory category : ESearchCategory.values()) {
+			for(String text : new String[] {"syn", "synth1", "blinky", "ARM"}) { //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				assertEquals(category + " " + text, getIds(expected.getSearchIndex().search(category, text)), //$NON-NLS-1$
+						getIds(actual.getSearchIndex().search(category, text)));
+			}
+		}
+	}
+
+	@Test
+	public void testReloadChangedPacks() throws IOException {
+		BenchmarkPackManager packManager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(true));
+		// create all derived trees, they are updated incrementally
+		packManager.getPacks();
+		packManager.getDevices();
+		packManager.getInstalledDevices();
+		packManager.getBoards();
+		packManager.getExamples();
+		packManager.getSearchIndex().search(ESearchCategory.DEVICE, "syn"); //$NON-NLS-1$
+		Map<String, ICpPack> before = PackTestUtils.getPacksById(packManager.getPacks());
+		assertEquals(PACK_COUNT, before.size());
+
+		copyPdscFile(2);			 // modified
+		copyPdscFile(PACK_COUNT);	 // added
+		SyntheticPackGenerator.deleteDirectory(getPdscFile(fRoot, 4).getParentFile().getParentFile()); // deleted
+
+		packManager.reload();
+
+		BenchmarkPackManager reference = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(true));
+		assertSameContent(reference, packManager);
+
+		// unchanged packs are kept, modified ones are re-parsed
+		Map<String, ICpPack> after = PackTestUtils.getPacksById(packManager.getPacks());
+		for(int p = 0; p <= PACK_COUNT; p++) {
+			String id = SyntheticPackGenerator.VENDOR + '.' + SyntheticPackGenerator.getPackName(p) + '.' + SyntheticPackGenerator.PACK_VERSION;
+			if(p == 4) {
+				assertFalse(id, after.containsKey(id));
+			} else if(p == 2) {
+				assertNotSame(id, before.get(id), after.get(id));
+			} else if(p < PACK_COUNT) {
+				assertSame(id, before.get(id), after.get(id));
+			} else {
+				assertTrue(id, after.containsKey(id));
+			}
+		}
+
+		// nothing changed
+		packManager.reload();
+		assertEquals(after, PackTestUtils.getPacksById(packManager.getPacks()));
+		assertSameContent(reference, packManager);
+	}
+}
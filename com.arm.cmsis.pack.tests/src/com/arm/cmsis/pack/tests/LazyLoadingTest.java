@@ -0,0 +1,109 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.arm.cmsis.pack.benchmark.BenchmarkPackManager;
+import com.arm.cmsis.pack.benchmark.SyntheticPackGenerator;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.ICpPack;
+
+/**
+ * Checks that packs loaded with deferred sections are equal to completely loaded ones once the sections are accessed
+ */
+public class LazyLoadingTest {
+
+	private File fRoot;
+
+	@Before
+	public void setUp() throws IOException {
+		SyntheticPackGenerator generator = new SyntheticPackGenerator();
+		generator.setPackCount(6);
+		generator.setMiddlewareCount(3);
+		fRoot = PackTestUtils.generatePacks(generator);
+		// move examples before devices in every second file: deferred sections must be inserted at their file positions
+		int n = 0;
+		try (Stream<Path> paths = Files.walk(fRoot.toPath())) {
+			for(Path p : (Iterable<Path>)paths::iterator) {
+				if(!p.toString().endsWith(".pdsc") || n++ % 2 == 0) { //$NON-NLS-1$
+					continue;
+				}
+				String s = new String(Files.readAllBytes(p), StandardCharsets.UTF_8);
+				int examplesStart = s.indexOf("  <examples>"); //$NON-NLS-1$
+				int examplesEnd = s.indexOf("</examples>\n") + 12; //$NON-NLS-1$
+				int devicesStart = s.indexOf("  <devices>"); //$NON-NLS-1$
+				assertTrue(devicesStart > 0 && examplesStart > devicesStart);
+				String examples = s.substring(examplesStart, examplesEnd);
+				s = s.substring(0, examplesStart) + s.substring(examplesEnd);
+				s = s.substring(0, devicesStart) + examples + s.substring(devicesStart);
+				Files.write(p, s.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		SyntheticPackGenerator.deleteDirectory(fRoot);
+	}
+
+	private void checkLazyLoading(boolean bStax) {
+		BenchmarkPackManager lazy = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(bStax));
+		lazy.setLazyLoading(true);
+		BenchmarkPackManager eager = new BenchmarkPackManager(fRoot.getAbsolutePath(), PackTestUtils.createParser(bStax));
+		eager.setLazyLoading(false);
+
+		Map<String, ICpPack> lazyPacks = PackTestUtils.getPacksById(lazy.getPacks());
+		Map<String, ICpPack> eagerPacks = PackTestUtils.getPacksById(eager.getPacks());
+		assertEquals(6, lazyPacks.size());
+		assertEquals(eagerPacks.keySet(), lazyPacks.keySet());
+
+		for(Map.Entry<String, ICpPack> e : lazyPacks.entrySet()) {
+			ICpPack pack = e.getValue();
+			ICpPack eagerPack = eagerPacks.get(e.getKey());
+			assertFalse(eagerPack.hasDeferredSections());
+			assertTrue(pack.hasDeferredSections());
+			// header sections do not trigger loading
+			assertNotNull(pack.getFirstChild(CmsisConstants.DEVICES_TAG));
+			assertTrue(pack.hasDeferredSections());
+			// deferred section triggers loading of all of them
+			assertNotNull(pack.getFirstChild(CmsisConstants.COMPONENTS_TAG));
+			assertFalse(pack.hasDeferredSections());
+			assertEquals(e.getKey(), PackTestUtils.dump(eagerPack), PackTestUtils.dump(pack));
+		}
+	}
+
+	@Test
+	public void testDomParser() {
+		checkLazyLoading(false);
+	}
+
+	@Test
+	public void testStaxParser() {
+		checkLazyLoading(true);
+	}
+}
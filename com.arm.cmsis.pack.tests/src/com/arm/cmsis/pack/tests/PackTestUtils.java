@@ -0,0 +1,113 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.arm.cmsis.pack.benchmark.SyntheticPackGenerator;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.data.ICpPackCollection;
+import com.arm.cmsis.pack.parser.ICpXmlParser;
+import com.arm.cmsis.pack.parser.PdscParser;
+import com.arm.cmsis.pack.parser.PdscStaxParser;
+
+/**
+ * Helpers shared by tests working with a generated pack corpus
+ */
+public final class PackTestUtils {
+
+	private PackTestUtils() {
+	}
+
+	/**
+	 * Generates packs into a new temporary directory
+	 * @param generator configured SyntheticPackGenerator
+	 * @return pack root directory, to be deleted with {@link SyntheticPackGenerator#deleteDirectory(File)}
+	 * @throws IOException
+	 */
+	public static File generatePacks(SyntheticPackGenerator generator) throws IOException {
+		File root = Files.createTempDirectory("packTests").toFile(); //$NON-NLS-1$
+		generator.generate(root);
+		return root;
+	}
+
+	/**
+	 * Creates initialized pdsc parser
+	 * @param bStax true to create StAX parser, false for DOM one
+	 * @return ICpXmlParser
+	 */
+	public static ICpXmlParser createParser(boolean bStax) {
+		ICpXmlParser parser = bStax ? new PdscStaxParser() : new PdscParser();
+		parser.init();
+		return parser;
+	}
+
+	/**
+	 * Returns packs of a collection sorted by ID
+	 * @param packs ICpPackCollection, can be null
+	 * @return map ID to pack
+	 */
+	public static Map<String, ICpPack> getPacksById(ICpPackCollection packs) {
+		Map<String, ICpPack> result = new TreeMap<String, ICpPack>();
+		if(packs == null || packs.getChildren() == null) {
+			return result; // empty collection has no pack families
+		}
+		Collection<? extends ICpPack> collection = packs.getPacks();
+		if(collection != null) {
+			for(ICpPack pack : collection) {
+				result.put(pack.getId(), pack);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns string representation of an item tree: tags, attributes and text of all items in child order
+	 * @param item ICpItem to dump
+	 * @return item tree as string
+	 */
+	public static String dump(ICpItem item) {
+		StringBuilder sb = new StringBuilder();
+		dump(item, 0, sb);
+		return sb.toString();
+	}
+
+	private static void dump(ICpItem item, int level, StringBuilder sb) {
+		for(int i = 0; i < level; i++) {
+			sb.append(' ');
+		}
+		sb.append('<').append(item.getTag()).append(' ');
+		Map<String, String> attributes = item.attributes().getAttributesAsMap();
+		if(attributes != null) {
+			sb.append(new TreeMap<String, String>(attributes));
+		}
+		sb.append('>');
+		String text = item.getText();
+		if(text != null) {
+			sb.append(text);
+		}
+		sb.append('\n');
+		Collection<? extends ICpItem> children = item.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(ICpItem child : children) {
+			dump(child, level + 1, sb);
+		}
+	}
+}
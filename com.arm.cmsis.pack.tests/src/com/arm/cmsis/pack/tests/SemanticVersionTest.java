@@ -0,0 +1,141 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.arm.cmsis.pack.utils.SemanticVersion;
+import com.arm.cmsis.pack.utils.VersionComparator;
+import com.arm.cmsis.pack.utils.VersionRange;
+
+/**
+ * Checks that {@link SemanticVersion} and {@link VersionRange} compare and match versions as the original
+ * string-based {@link VersionComparator} implementation
+ */
+public class SemanticVersionTest {
+
+	private static final String[] SEGMENTS = {
+		"0", "1", "2", "10", "01", "9", "a", "B", "rc1", "RC2", "beta", "1b", "2a", "", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$ //$NON-NLS-10$ //$NON-NLS-11$ //$NON-NLS-12$ //$NON-NLS-13$ //$NON-NLS-14$
+	};
+
+	private static final String[] SEPARATORS = {
+		".", ".", ".", "-", "+", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+	};
+
+	private static final String[] VERSIONS = {
+		"1.0.0", "1.0", "1", "1.0.0-rc1", "1.0.0-RC1", "1.0.0-rc2", "1.0.0+build5", "1.0.0-rc1+build5", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$
+		"1.2.3b", "1.2.3", "1.2.3a", "2.10.0", "2.9.0", "5.0.1-dev0", "5.0.1-dev10", "0.0.0", "", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$ //$NON-NLS-8$ //$NON-NLS-9$
+	};
+
+	static String randomVersion(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int n = 1 + random.nextInt(5);
+		for(int i = 0; i < n; i++) {
+			if(i > 0) {
+				sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+			}
+			sb.append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+		}
+		return sb.toString();
+	}
+
+	static void assertCompare(String v1, String v2) {
+		for(boolean cs : new boolean[] {true, false}) {
+			int expected = LegacyVersionComparator.versionCompare(v1, v2, cs);
+			String msg = "'" + v1 + "' '" + v2 + "' cs=" + cs; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			assertEquals(msg, expected, VersionComparator.versionCompare(v1, v2, cs));
+			if(v1 != null && v2 != null) {
+				assertEquals(msg, expected, SemanticVersion.valueOf(v1).compareTo(SemanticVersion.valueOf(v2), cs));
+			}
+		}
+	}
+
+	static void assertRange(String version, String range) {
+		boolean expected = LegacyVersionComparator.matchVersionRange(version, range);
+		String msg = "'" + version + "' in '" + range + "'"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals(msg, expected, VersionComparator.matchVersionRange(version, range));
+	}
+
+	@Test
+	public void testKnownVersions() {
+		for(String v1 : VERSIONS) {
+			for(String v2 : VERSIONS) {
+				assertCompare(v1, v2);
+				for(String v3 : VERSIONS) {
+					assertRange(v1, v2 + ':' + v3);
+				}
+				assertRange(v1, v2);
+				assertRange(v1, v2 + ':');
+				assertRange(v1, ':' + v2);
+			}
+			assertCompare(v1, null);
+			assertCompare(null, v1);
+			assertRange(v1, null);
+			assertRange(null, v1);
+		}
+	}
+
+	@Test
+	public void testRandomVersions() {
+		Random random = new Random(1);
+		for(int i = 0; i < 100000; i++) {
+			String v1 = randomVersion(random);
+			String v2 = randomVersion(random);
+			assertCompare(v1, v2);
+			assertRange(v1, v2);
+			assertRange(v1, v2 + ':' + randomVersion(random));
+			assertRange(v1, v2 + ':' + v2);
+		}
+	}
+
+	@Test
+	public void testSortOrder() {
+		Random random = new Random(2);
+		List<String> versions = new ArrayList<String>();
+		for(int i = 0; i < 2000; i++) {
+			versions.add(randomVersion(random));
+		}
+		List<String> expected = new ArrayList<String>(versions);
+		Collections.sort(expected, (v1, v2) -> LegacyVersionComparator.versionCompare(v2, v1, false)); // descending
+		Collections.sort(versions, new VersionComparator());
+		for(int i = 0; i < versions.size(); i++) {
+			assertEquals(0, LegacyVersionComparator.versionCompare(expected.get(i), versions.get(i), false));
+		}
+	}
+
+	@Test
+	public void testCache() {
+		assertNull(SemanticVersion.valueOf(null));
+		assertNull(VersionRange.valueOf(null));
+		assertSame(SemanticVersion.valueOf("1.2.3"), SemanticVersion.valueOf("1.2.3")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertSame(VersionRange.valueOf("1.2.3:2.0.0"), VersionRange.valueOf("1.2.3:2.0.0")); //$NON-NLS-1$ //$NON-NLS-2$
+		// overflowing caches are cleared, parsed objects stay valid
+		SemanticVersion v = SemanticVersion.valueOf("1.2.3"); //$NON-NLS-1$
+		for(int i = 0; i < 10000; i++) {
+			String version = "1." + i + ".0"; //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(version, SemanticVersion.valueOf(version).getVersion());
+			assertEquals(version, VersionRange.valueOf(version).getRange());
+		}
+		assertEquals(0, v.compareTo(SemanticVersion.valueOf("1.2.3"))); //$NON-NLS-1$
+		SemanticVersion.clearCache();
+		VersionRange.clearCache();
+	}
+}
@@ -234,6 +234,7 @@ public class RteEditor extends MultiPageEditorPart implements IResourceChangeLis
 				firePropertyChange(IEditorPart.PROP_DIRTY);
 				return;
 			case RteEvent.PACKS_RELOADED:
+			case RteEvent.PACKS_UPDATED:
 				if (fModelController != null) {
 					fModelController.reloadPacks();
 				}
@@ -15,45 +15,83 @@ package com.arm.cmsis.pack;
 
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.Assert;
 import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Path;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
 
 import com.arm.cmsis.pack.ICpPackInstaller.ConsoleColor;
+import com.arm.cmsis.pack.PackLoadStatistics.FileStatistics;
+import com.arm.cmsis.pack.PackLoadStatistics.Phase;
 import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpConditionResultCache;
+import com.arm.cmsis.pack.data.CpDeviceItem;
 import com.arm.cmsis.pack.data.CpPack;
 import com.arm.cmsis.pack.data.CpPackCollection;
 import com.arm.cmsis.pack.data.CpPackFamily;
+import com.arm.cmsis.pack.data.CpSearchIndex;
 import com.arm.cmsis.pack.data.ICpBoard;
 import com.arm.cmsis.pack.data.ICpItem;
 import com.arm.cmsis.pack.data.ICpPack;
 import com.arm.cmsis.pack.data.ICpPack.PackState;
 import com.arm.cmsis.pack.data.ICpPackCollection;
 import com.arm.cmsis.pack.data.ICpPackFamily;
+import com.arm.cmsis.pack.data.ICpSearchIndex;
 import com.arm.cmsis.pack.events.IRteEventListener;
 import com.arm.cmsis.pack.events.IRteEventProxy;
 import com.arm.cmsis.pack.events.RteEvent;
 import com.arm.cmsis.pack.events.RtePackJobResult;
+import com.arm.cmsis.pack.events.RtePacksDelta;
 import com.arm.cmsis.pack.generic.IAttributes;
+import com.arm.cmsis.pack.parser.CpXmlParser;
 import com.arm.cmsis.pack.parser.ICpXmlParser;
+import com.arm.cmsis.pack.parser.PdscCache;
 import com.arm.cmsis.pack.parser.PdscParser;
+import com.arm.cmsis.pack.parser.PdscStaxParser;
 import com.arm.cmsis.pack.preferences.CpPreferenceInitializer;
 import com.arm.cmsis.pack.repository.CpRepositoryList;
 import com.arm.cmsis.pack.rte.boards.IRteBoardDeviceItem;
 import com.arm.cmsis.pack.rte.boards.RteBoardDeviceItem;
 import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
 import com.arm.cmsis.pack.rte.devices.RteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTreeSnapshot;
+import com.arm.cmsis.pack.rte.devices.RteDeviceQuery;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTable;
 import com.arm.cmsis.pack.rte.examples.IRteExampleItem;
 import com.arm.cmsis.pack.rte.examples.RteExampleItem;
+import com.arm.cmsis.pack.utils.PdscFileFinder;
+import com.arm.cmsis.pack.utils.PdscFileFinder.PdscFile;
+import com.arm.cmsis.pack.utils.SemanticVersion;
 import com.arm.cmsis.pack.utils.Utils;
-import com.arm.cmsis.pack.utils.VersionComparator;
 
 /**
  * Default simple CMSIS-Pack manager
@@ -68,18 +106,99 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	protected ICpXmlParser pdscParser = null;
 	protected IRteDeviceItem allDevices = null;
 	protected IRteDeviceItem allInstalledDevices = null;
+	protected RteDeviceTable allDevicesTable = null; // parameters of allDevices, rebuilt when the tree changes
 	protected Map<String, ICpBoard> allBoards = null;
 	protected IRteBoardDeviceItem allRteBoardDevices = null;
 	protected IRteExampleItem allExamples = null;
+	protected ICpSearchIndex searchIndex = null; // index of allPacks content, updated together with device, board and example trees
 	protected String cmsisPackRootDirectory = null;
 	protected URI cmsisPackRootURI = null;
 	protected boolean bPacksLoaded = false;
 	protected IRteEventProxy fRteEventProxy = null;
 	protected ICpPackInstaller fPackInstaller = null;
 	protected CpRepositoryList fRepoList = null;
+	protected int fLoadThreadCount = Runtime.getRuntime().availableProcessors(); // number of threads to parse pdsc files
+	protected PdscCache fPdscCache = null; // cache of parsed packs, valid during loadPacks(rootDirectory) only
+	protected Map<String, PackFileInfo> fPackFiles = null; // pdsc files loaded from pack root directory, used for incremental reload
+	protected String fPackFilesRoot = null; // pack root directory fPackFiles belong to
+
+	protected boolean bLazyLoading = true; // load pack sections listed in DEFERRED_SECTIONS on first access
+	protected boolean bValidateLater = false; // validate pdsc files in background job instead of while parsing
+	protected boolean bCompactAttributes = true; // store attributes of loaded items in compact form
+	protected Job fValidationJob = null; // running background validation job
+	protected PackLoadStatistics fLoadStatistics = new PackLoadStatistics();
+
+	/**
+	 * Version of parsed pack content stored in the pdsc cache, part of the cache key.
+	 * <p/>
+	 * Increment it on every change that makes a parser produce a different item tree from the same pdsc file:
+	 * attribute value adjustment (<code>adjustAttributeValue()</code>), ignored tags, item construction
+	 * by the parser factory, or the layout of compact attributes. Otherwise stale snapshots are taken from the cache.
+	 */
+	public static final int PDSC_CACHE_PARSER_VERSION = 1;
+
+	/**
+	 * Pack sections that are not needed to list packs, devices and boards: loaded on demand if lazy loading is enabled
+	 */
+	public static final Set<String> DEFERRED_SECTIONS = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(
+			CmsisConstants.COMPONENTS_TAG,
+			CmsisConstants.CONDITIONS_TAG,
+			CmsisConstants.EXAMPLES_TAG,
+			CmsisConstants.TAXONOMY_TAG,
+			CmsisConstants.APIS_TAG)));
+
+	/**
+	 * Large pack sections loaded by the first pass, skipped when deferred sections are parsed
+	 */
+	protected static final Set<String> EAGER_SECTIONS = Collections.unmodifiableSet(new TreeSet<>(Arrays.asList(
+			CmsisConstants.DEVICES_TAG,
+			CmsisConstants.BOARDS_TAG)));
 
 	private ICpPack.PackState packState = PackState.UNKNOWN;
 
+	/**
+	 * Result of parsing a single pdsc file: parsed pack and errors collected for that file only
+	 */
+	protected static class PackParseResult {
+		protected final String fileName;
+		protected ICpPack pack = null;
+		protected List<String> errorStrings = null;
+		protected long fileSize = 0;
+		protected long fileModified = 0;
+
+		public PackParseResult(String fileName) {
+			this.fileName = fileName;
+		}
+	}
+
+	/**
+	 * Information about a loaded pdsc file: pack state, file size and modification time at load time and resulting pack
+	 */
+	protected static class PackFileInfo {
+		protected final PackState state;
+		protected final long size;
+		protected final long modified;
+		protected final ICpPack pack; // loaded pack or error pack
+
+		public PackFileInfo(PackState state, long size, long modified, ICpPack pack) {
+			this.state = state;
+			this.size = size;
+			this.modified = modified;
+			this.pack = pack;
+		}
+
+		/**
+		 * Checks if the file has been modified since it was loaded
+		 * @param fileState pack state derived from file location
+		 * @param fileSize current file size
+		 * @param fileModified current file modification time
+		 * @return true if the file is still the same
+		 */
+		public boolean isUpToDate(PackState fileState, long fileSize, long fileModified) {
+			return state == fileState && size == fileSize && modified == fileModified;
+		}
+	}
+
 	/**
 	 *  Default pack manager implementation
 	 */
@@ -114,6 +233,7 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	public boolean initParser(String xsdFile){
 		if(pdscParser == null) {
 			pdscParser = new PdscParser(xsdFile);
+			pdscParser.setCompactAttributes(isCompactAttributes());
 		} else {
 			pdscParser.setXsdFile(xsdFile);
 		}
@@ -129,10 +249,18 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 		allDevicePacks = null;
 		allDevices = null;
 		allInstalledDevices = null;
+		allDevicesTable = null;
+		RteDeviceTreeSnapshot.clearCache();
 		allBoards = null;
 		allRteBoardDevices = null;
 		allExamples = null;
+		searchIndex = null;
+		fPackFiles = null;
+		fPackFilesRoot = null;
 		bPacksLoaded = false;
+		CpConditionResultCache.getInstance().clear();
+		CpDeviceItem.clearCaches();
+		cancelValidation();
 		if(pdscParser != null) {
 			pdscParser.clear();
 		}
@@ -141,6 +269,13 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 
 	@Override
 	synchronized public void reload() {
+		if(isIncrementalReloadPossible()) {
+			RtePacksDelta delta = reloadChangedPacks();
+			if(fRteEventProxy != null && !delta.isEmpty()) {
+				fRteEventProxy.notifyListeners(new RteEvent(RteEvent.PACKS_UPDATED, delta));
+			}
+			return;
+		}
 		clear();
 		getPacks(); // triggers load
 		if(fRteEventProxy != null) {
@@ -195,7 +330,9 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	synchronized public IRteDeviceItem getDevices() {
 		getPacks(); // ensure allPacks are loaded
 		if(allDevices == null && bPacksLoaded && allPacks != null)  {
-			allDevices = RteDeviceItem.createTree(allPacks.getPacks());
+			long startTime = System.nanoTime();
+			allDevices = createDeviceView(allPacks.getPacks());
+			fLoadStatistics.addPhaseTime(Phase.DEVICE_TREE, System.nanoTime() - startTime);
 		}
 		return allDevices;
 	}
@@ -204,11 +341,60 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	synchronized public IRteDeviceItem getInstalledDevices() {
 		getPacks(); // ensure allPacks are loaded
 		if(allInstalledDevices == null && bPacksLoaded && allInstalledPacks != null)  {
-			allInstalledDevices = RteDeviceItem.createTree(allInstalledPacks.getLatestPacks());
+			long startTime = System.nanoTime();
+			allInstalledDevices = createDeviceView(allInstalledPacks.getLatestPacks());
+			fLoadStatistics.addPhaseTime(Phase.DEVICE_TREE, System.nanoTime() - startTime);
 		}
 		return allInstalledDevices;
 	}
 
+	/**
+	 * Creates a view of the device tree snapshot of all packs, all device trees of the manager share the snapshot
+	 * @param packs collection of packs to show devices of
+	 * @return root IRteDeviceItem of the view
+	 */
+	protected IRteDeviceItem createDeviceView(Collection<ICpPack> packs) {
+		IRteDeviceItem devices = null;
+		RteDeviceTreeSnapshot snapshot = RteDeviceTreeSnapshot.getSnapshot(allPacks);
+		if(snapshot != null) {
+			devices = snapshot.createView(packs);
+		}
+		if(devices == null) {
+			devices = RteDeviceItem.createTree(packs);
+		}
+		return devices;
+	}
+
+	/**
+	 * Drops device trees and the snapshot they are views of, they are recreated on demand
+	 */
+	protected void clearDevices() {
+		allDevices = null;
+		allInstalledDevices = null;
+		allDevicesTable = null;
+		RteDeviceTreeSnapshot.clearCache();
+	}
+
+	@Override
+	synchronized public RteDeviceTable getDeviceTable() {
+		IRteDeviceItem devices = getDevices();
+		if(allDevicesTable == null && devices != null) {
+			long startTime = System.nanoTime();
+			allDevicesTable = new RteDeviceTable(devices);
+			fLoadStatistics.addPhaseTime(Phase.DEVICE_TABLE, System.nanoTime() - startTime);
+		}
+		return allDevicesTable;
+	}
+
+	@Override
+	public List<IRteDeviceItem> queryDevices(RteDeviceQuery query) {
+		RteDeviceTable table = getDeviceTable();
+		if(table == null || query == null) {
+			return Collections.emptyList();
+		}
+		return table.query(query);
+	}
+
 	@Override
 	synchronized public Map<String, ICpBoard> getBoards() {
 		getPacks(); // ensure allPacks are loaded
@@ -219,18 +405,22 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	}
 
 	protected void collectBoards() {
+		long startTime = System.nanoTime();
 		allBoards = new HashMap<String, ICpBoard>();
 		Collection<ICpPack> packs = allPacks.getPacks();
 		for(ICpPack pack: packs) {
 			addBoards(pack);
 		}
+		fLoadStatistics.addPhaseTime(Phase.BOARD_TREE, System.nanoTime() - startTime);
 	}
 
 	@Override
 	synchronized public IRteBoardDeviceItem getRteBoardDevices() {
 		getPacks(); // ensure allPacks are loaded
 		if(allRteBoardDevices == null && bPacksLoaded && allPacks != null)  {
+			long startTime = System.nanoTime();
 			allRteBoardDevices = RteBoardDeviceItem.createTree(allPacks.getPacks());
+			fLoadStatistics.addPhaseTime(Phase.BOARD_TREE, System.nanoTime() - startTime);
 		}
 		return allRteBoardDevices;
 	}
@@ -254,11 +444,22 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 	synchronized public IRteExampleItem getExamples() {
 		getPacks(); // ensure allPacks are loaded
 		if(allExamples == null && bPacksLoaded && allPacks != null)  {
+			long startTime = System.nanoTime();
 			allExamples = RteExampleItem.createTree(allPacks.getPacks());
+			fLoadStatistics.addPhaseTime(Phase.EXAMPLE_TREE, System.nanoTime() - startTime);
 		}
 		return allExamples;
 	}
 
+	@Override
+	synchronized public ICpSearchIndex getSearchIndex() {
+		getPacks(); // ensure allPacks are loaded
+		if(searchIndex == null && bPacksLoaded && allPacks != null)  {
+			searchIndex = new CpSearchIndex(allPacks.getPacks());
+		}
+		return searchIndex;
+	}
+
 	@Override
 	synchronized public boolean loadPacks(final String rootDirectory){
 		if(rootDirectory == null || rootDirectory.isEmpty()) {
@@ -270,29 +471,75 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 			return false;
 		}
 
-		packState = PackState.AVAILABLE;
+		fPdscCache = createPdscCache(rootDirectory);
+		fPackFiles = new HashMap<String, PackFileInfo>();
+		fPackFilesRoot = rootDirectory;
+		fLoadStatistics.clear();
+
+		for(Map.Entry<PackState, Collection<PdscFile>> e : findPdscFiles(rootDirectory).entrySet()) {
+			packState = e.getKey();
+			loadPdscFiles(e.getValue());
+		}
+		packState = PackState.UNKNOWN;
+
+		if(fPdscCache != null) {
+			if(!fPdscCache.save() && fPackInstaller != null) {
+				for(String err : fPdscCache.getErrorStrings()) {
+					fPackInstaller.printInConsole(err, ConsoleColor.ERROR);
+				}
+			}
+			fPdscCache.close();
+			fPdscCache = null;
+		}
+		scheduleValidation(fPackFiles.values());
+		return true;
+	}
+
+	/**
+	 * Finds pdsc files in the pack root directory
+	 * @param rootDirectory pack root directory
+	 * @return map of pack state to pdsc files in the order the packs must be loaded: available, downloaded, installed
+	 */
+	protected Map<PackState, Collection<PdscFile>> findPdscFiles(String rootDirectory) {
+		long startTime = System.nanoTime();
+		Map<PackState, Collection<PdscFile>> pdscFiles = new LinkedHashMap<PackState, Collection<PdscFile>>();
+		PdscFileFinder finder = new PdscFileFinder(fLoadThreadCount);
+
 		File webFile = new File(rootDirectory + File.separator + ".Web"); //$NON-NLS-1$
 		if (!webFile.exists()) {
 			webFile.mkdir();
 		}
-		Collection<String> availableFileNames = Utils.findPdscFiles(webFile, null, 0);
-		loadPacks(availableFileNames);
+		pdscFiles.put(PackState.AVAILABLE, finder.findPdscFiles(webFile, 0));
 
-		packState = PackState.DOWNLOADED;
 		File downloadFile = new File(rootDirectory + File.separator + ".Download"); //$NON-NLS-1$
 		if (!downloadFile.exists()) {
 			downloadFile.mkdir();
 		}
-		Collection<String> downloadedFileNames = Utils.findPdscFiles(downloadFile, null, 0);
-		loadPacks(downloadedFileNames);
-
-		packState = PackState.INSTALLED;
-		Collection<String> installedFileNames = Utils.findPdscFiles(root, null, 3);
-		loadPacks(installedFileNames);
+		pdscFiles.put(PackState.DOWNLOADED, finder.findPdscFiles(downloadFile, 0));
 
-		packState = PackState.UNKNOWN;
+		pdscFiles.put(PackState.INSTALLED, finder.findPdscFiles(new File(rootDirectory), 3));
+		fLoadStatistics.addPhaseTime(Phase.DISCOVERY, System.nanoTime() - startTime);
+		return pdscFiles;
+	}
 
-		return true;
+	/**
+	 * Creates and opens cache of parsed packs for given pack root directory
+	 * @param rootDirectory pack root directory
+	 * @return PdscCache or null if no cache should be used
+	 */
+	protected PdscCache createPdscCache(String rootDirectory) {
+		if(pdscParser == null) {
+			return null;
+		}
+		String cacheFile = Utils.addTrailingSlash(rootDirectory) + PdscCache.CACHE_FILE;
+		String parserVersion = pdscParser.getClass().getName() + ':' + PDSC_CACHE_PARSER_VERSION;
+		if(isDeferredLoadingPossible()) {
+			parserVersion += ':' + DEFERRED_SECTIONS.toString(); // cached packs contain no deferred sections
+		}
+		PdscCache cache = new PdscCache(cacheFile, parserVersion);
+		cache.setCompactAttributes(isCompactAttributes());
+		cache.open();
+		return cache;
 	}
 
 
@@ -301,10 +548,27 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 		if(fileNames == null || fileNames.isEmpty()) {
 			return true; // nothing to load => success
 		}
+		List<PdscFile> pdscFiles = new ArrayList<>(fileNames.size());
+		for(String file : fileNames) {
+			pdscFiles.add(toPdscFile(file));
+		}
+		return loadPdscFiles(pdscFiles);
+	}
+
+	/**
+	 * Loads packs from supplied pdsc files
+	 * @param pdscFiles collection of pdsc files with their size and modification time
+	 * @return true if all packs loaded successfully
+	 */
+	protected boolean loadPdscFiles(final Collection<PdscFile> pdscFiles){
+		if(pdscFiles == null || pdscFiles.isEmpty()) {
+			return true; // nothing to load => success
+		}
 
 		boolean success = true;
-		for(String f : fileNames) {
-			if(loadPack(f) == false) {
+		// parse files (concurrently if possible), but add packs in the order of supplied file names
+		for(PackParseResult result : parsePacks(pdscFiles)) {
+			if(addParsedPack(result) == false) {
 				success = false;
 			}
 		}
@@ -313,6 +577,368 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 
 	@Override
 	public boolean loadPack(String file){
+		return addParsedPack(parsePack(pdscParser, toPdscFile(file), null));
+	}
+
+	/**
+	 * Reads size and modification time of a pdsc file the same way as PdscFileFinder does
+	 * @param file pdsc file name
+	 * @return PdscFile, with zero size and modification time if the file cannot be accessed
+	 */
+	protected static PdscFile toPdscFile(String file) {
+		try {
+			BasicFileAttributes attrs = Files.readAttributes(Paths.get(file), BasicFileAttributes.class);
+			return new PdscFile(file, attrs.size(), attrs.lastModifiedTime().toMillis());
+		} catch (IOException | InvalidPathException e) {
+			return new PdscFile(file, 0, 0);
+		}
+	}
+
+	@Override
+	public void setLoadThreadCount(int nThreads) {
+		fLoadThreadCount = nThreads;
+	}
+
+	@Override
+	public int getLoadThreadCount() {
+		return fLoadThreadCount;
+	}
+
+	/**
+	 * Parses supplied pdsc files, uses several threads if load thread count is greater than 1
+	 * @param pdscFiles collection of pdsc files to parse
+	 * @return list of parse results in the same order as supplied files
+	 */
+	protected List<PackParseResult> parsePacks(final Collection<PdscFile> pdscFiles) {
+		final PdscFile[] files = pdscFiles.toArray(new PdscFile[pdscFiles.size()]);
+		final PackParseResult[] results = new PackParseResult[files.length];
+		final Set<String> deferredSections = isDeferredLoadingPossible() ? DEFERRED_SECTIONS : null;
+
+		int nThreads = Math.min(fLoadThreadCount, files.length);
+		List<ICpXmlParser> parsers = new ArrayList<>();
+		if(nThreads > 1) {
+			for(int i = 0; i < nThreads; i++) {
+				ICpXmlParser parser = createParser(deferredSections);
+				if(parser == null) {
+					parsers.clear(); // parser type cannot be replicated => parse sequentially
+					break;
+				}
+				parsers.add(parser);
+			}
+		}
+
+		if(!parsers.isEmpty()) {
+			final AtomicInteger nextIndex = new AtomicInteger(0);
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for(final ICpXmlParser parser : parsers) {
+				tasks.add(() -> {
+					for(int i = nextIndex.getAndIncrement(); i < files.length; i = nextIndex.getAndIncrement()) {
+						results[i] = parsePack(parser, files[i], deferredSections);
+					}
+					return null;
+				});
+			}
+			ExecutorService executor = Executors.newFixedThreadPool(parsers.size());
+			boolean bInterrupted = false;
+			try {
+				executor.invokeAll(tasks);
+			} catch (InterruptedException e) {
+				bInterrupted = true;
+			} finally {
+				nextIndex.set(files.length); // loader threads stop after the file they are parsing
+				executor.shutdownNow();
+				// results and parsers of loader threads may only be used after they have terminated
+				while(!executor.isTerminated()) {
+					try {
+						executor.awaitTermination(1, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						bInterrupted = true;
+					}
+				}
+			}
+			if(bInterrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		List<PackParseResult> resultList = new ArrayList<>(files.length);
+		ICpXmlParser parser = null;
+		for(int i = 0; i < files.length; i++) {
+			if(results[i] == null) { // sequential mode or not processed by a loader thread
+				if(parser == null) {
+					parser = createParser(deferredSections);
+					if(parser == null) {
+						parser = pdscParser;
+					} else {
+						parsers.add(parser);
+					}
+				}
+				results[i] = parsePack(parser, files[i], deferredSections);
+			}
+			resultList.add(results[i]);
+		}
+		for(ICpXmlParser p : parsers) {
+			p.release(); // return pooled XML objects
+		}
+		return resultList;
+	}
+
+	@Override
+	public void setLazyLoading(boolean bLazy) {
+		bLazyLoading = bLazy;
+	}
+
+	@Override
+	public boolean isLazyLoading() {
+		return bLazyLoading;
+	}
+
+	@Override
+	public ICpItem parseDeferredSections(ICpPack pack, List<String> sectionTags) {
+		if(pack == null || pack.getFileName() == null) {
+			return null;
+		}
+		long startTime = System.nanoTime();
+		String file = pack.getFileName();
+		String errorString = null;
+		ICpItem item = null;
+		Map<String, PackFileInfo> packFiles = fPackFiles;
+		PackFileInfo info = packFiles != null ? packFiles.get(getPackFileKey(file)) : null;
+		PdscFile pdscFile = toPdscFile(file);
+		if(info != null && info.pack == pack && (info.size != pdscFile.getSize() || info.modified != pdscFile.getLastModified())) {
+			// sections of the modified file do not fit the loaded ones
+			errorString = file.replace('/', '\\') + ": " + CpStrings.CpPackManager_FileModifiedSinceLoading; //$NON-NLS-1$
+		} else {
+			ICpXmlParser parser = createParser(EAGER_SECTIONS);
+			if(parser == null) {
+				errorString = file.replace('/', '\\') + ": " + CpStrings.CpPackManager_DefaultError; //$NON-NLS-1$
+			} else {
+				item = parser.parseFile(file);
+				if(item == null || !CmsisConstants.PACKAGE_TAG.equals(item.getTag())) {
+					List<String> errors = parser.getErrorStrings();
+					errorString = !errors.isEmpty() ? errors.get(0) : file.replace('/', '\\') + ": " + CpStrings.CpPackManager_DefaultError; //$NON-NLS-1$
+					item = null;
+				} else if(sectionTags != null) {
+					sectionTags.addAll(parser.getSectionTags());
+				}
+				parser.release();
+			}
+		}
+		fLoadStatistics.addPhaseTime(Phase.DEFERRED_LOAD, System.nanoTime() - startTime);
+		if(errorString != null && fPackInstaller != null) {
+			fPackInstaller.printInConsole(CpStrings.CpPackManager_ErrorWhileParsing + errorString, ConsoleColor.ERROR);
+		}
+		return item;
+	}
+
+	/**
+	 * Checks if pack sections can be loaded on demand: lazy loading is enabled and parser can be replicated
+	 * @return true if packs are loaded without deferred sections
+	 */
+	protected boolean isDeferredLoadingPossible() {
+		return bLazyLoading && createParser() != null;
+	}
+
+	/**
+	 * Creates an additional parser instance that skips given sections
+	 * @param ignoreTags set of tags to ignore, null to parse complete files
+	 * @return new ICpXmlParser or null if it cannot be created
+	 */
+	protected ICpXmlParser createParser(Set<String> ignoreTags) {
+		ICpXmlParser parser = createParser();
+		if(parser != null) {
+			parser.setIgnoreTags(ignoreTags);
+			parser.setSchemaValidation(!isValidateLater());
+			parser.setCompactAttributes(isCompactAttributes());
+		}
+		return parser;
+	}
+
+	@Override
+	public PackLoadStatistics getLoadStatistics() {
+		return fLoadStatistics;
+	}
+
+	@Override
+	public void printLoadStatistics() {
+		if(fPackInstaller != null) {
+			fPackInstaller.printInConsole(fLoadStatistics.getSummary(10), ConsoleColor.INFO);
+		}
+	}
+
+	@Override
+	public void setValidateLater(boolean bLater) {
+		bValidateLater = bLater;
+	}
+
+	@Override
+	public boolean isValidateLater() {
+		return bValidateLater;
+	}
+
+	@Override
+	public void setCompactAttributes(boolean bCompact) {
+		bCompactAttributes = bCompact;
+		if(pdscParser != null) {
+			pdscParser.setCompactAttributes(bCompact);
+		}
+	}
+
+	@Override
+	public boolean isCompactAttributes() {
+		return bCompactAttributes;
+	}
+
+	/**
+	 * Schedules background validation of loaded pdsc files if validation is deferred
+	 * @param loadedFiles collection of PackFileInfo describing loaded files
+	 */
+	protected void scheduleValidation(Collection<PackFileInfo> loadedFiles) {
+		cancelValidation(); // results of a running job refer to superseded files
+		if(!isValidateLater() || loadedFiles == null || pdscParser == null) {
+			return;
+		}
+		String xsdFile = pdscParser.getXsdFile();
+		if(xsdFile == null || xsdFile.isEmpty()) {
+			return; // nothing to validate against
+		}
+		ICpXmlParser parser = createParser();
+		if(parser == null) {
+			return; // packs have been validated by pdscParser while parsing
+		}
+		List<String> files = new ArrayList<>();
+		for(PackFileInfo info : loadedFiles) {
+			if(info.pack != null && info.pack.getPackState() != PackState.ERROR) {
+				files.add(info.pack.getFileName());
+			}
+		}
+		if(files.isEmpty()) {
+			parser.release();
+			return;
+		}
+		fValidationJob = new PdscValidationJob(files, parser);
+		fValidationJob.schedule();
+	}
+
+	/**
+	 * Cancels running background validation
+	 */
+	protected void cancelValidation() {
+		if(fValidationJob != null) {
+			fValidationJob.cancel();
+			fValidationJob = null;
+		}
+	}
+
+	/**
+	 * Low-priority job to validate pdsc files against schema after packs have been loaded
+	 */
+	protected class PdscValidationJob extends Job {
+		private final Collection<String> fFiles;
+		private final ICpXmlParser fParser;
+
+		public PdscValidationJob(Collection<String> files, ICpXmlParser parser) {
+			super(CpStrings.CpPackManager_ValidatingPacks);
+			fFiles = files;
+			fParser = parser;
+			setPriority(Job.DECORATE);
+			setSystem(true);
+		}
+
+		@Override
+		protected IStatus run(IProgressMonitor monitor) {
+			monitor.beginTask(getName(), fFiles.size());
+			try {
+				for(String file : fFiles) {
+					if(monitor.isCanceled()) {
+						return Status.CANCEL_STATUS;
+					}
+					if(!fParser.validateFile(file) && fPackInstaller != null) {
+						for(String err : fParser.getErrorStrings()) {
+							fPackInstaller.printInConsole(err, ConsoleColor.WARNING);
+						}
+					}
+					monitor.worked(1);
+				}
+			} finally {
+				fParser.release();
+				monitor.done();
+			}
+			return Status.OK_STATUS;
+		}
+	}
+
+	/**
+	 * Creates an additional parser instance to be used by a loader thread
+	 * @return new ICpXmlParser of the same kind as the current one or null if it cannot be created
+	 */
+	protected ICpXmlParser createParser() {
+		if(pdscParser == null) {
+			return null;
+		}
+		if(pdscParser.getClass() == PdscParser.class) {
+			return new PdscParser(pdscParser.getXsdFile());
+		}
+		if(pdscParser.getClass() == PdscStaxParser.class) {
+			return new PdscStaxParser(pdscParser.getXsdFile());
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a single pdsc file with given parser or takes it from the pack cache if the file is not modified
+	 * @param parser ICpXmlParser to use, must not be shared with other threads
+	 * @param pdscFile pdsc file to parse
+	 * @param deferredSections sections ignored by the parser to be loaded on demand, null if the parser reads complete file
+	 * @return PackParseResult
+	 */
+	protected PackParseResult parsePack(ICpXmlParser parser, PdscFile pdscFile, Set<String> deferredSections) {
+		long startTime = System.nanoTime();
+		String file = pdscFile.getPath();
+		PackParseResult result = new PackParseResult(file);
+		PdscCache cache = fPdscCache;
+		long size = pdscFile.getSize();
+		long modified = pdscFile.getLastModified();
+		result.fileSize = size;
+		result.fileModified = modified;
+		if(cache != null) {
+			result.pack = cache.getPack(file, size, modified);
+			if(result.pack != null) {
+				result.pack.setDeferredSections(deferredSections, this);
+				fLoadStatistics.addFileStatistics(new FileStatistics(file, System.nanoTime() - startTime, 0, 0, 0, 0, 0, true));
+				return result; // unchanged file, no need to parse
+			}
+		}
+
+		ICpItem item = parser.parseFile(file);
+		if(item instanceof ICpPack) {
+			result.pack = (ICpPack)item;
+		}
+		result.errorStrings = new ArrayList<>(parser.getErrorStrings());
+		if(result.pack != null && CmsisConstants.PACKAGE_TAG.equals(result.pack.getTag())) {
+			// a file with errors or warnings is parsed again next time to report them
+			if(cache != null && parser.getErrorCount() == 0 && parser.getWarningCount() == 0 && result.errorStrings.isEmpty()) {
+				cache.putPack(file, result.pack, size, modified);
+			}
+			result.pack.setDeferredSections(deferredSections, this);
+		}
+		long time = System.nanoTime() - startTime;
+		if(parser instanceof CpXmlParser) {
+			CpXmlParser p = (CpXmlParser)parser;
+			fLoadStatistics.addFileStatistics(new FileStatistics(file, time, p.getParseTime(), p.getBuildTime(),
+					size, p.getItemCount(), p.getAttributeCount(), false));
+		} else {
+			fLoadStatistics.addFileStatistics(new FileStatistics(file, time, time, 0, size, 0, 0, false));
+		}
+		return result;
+	}
+
+	/**
+	 * Adds parsed pack to pack collections or to error packs if parsing failed
+	 * @param result PackParseResult to add
+	 * @return true if processed
+	 */
+	protected boolean addParsedPack(PackParseResult result) {
 		if(allPacks == null) {
 			allPacks = new CpPackCollection();
 		}
@@ -326,18 +952,11 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 			allInstalledPacks = new CpPackCollection();
 		}
 
-		ICpPack pack  = (ICpPack)pdscParser.parseFile(file);
+		String file = result.fileName;
+		ICpPack pack  = result.pack;
 		if (pack != null && CmsisConstants.PACKAGE_TAG.equals(pack.getTag())) {
 			pack.setPackState(packState);
-			allPacks.addChild(pack);
-			if (packState == PackState.INSTALLED) {
-				allInstalledPacks.addChild(pack);
-			}
-			if (pack.isDevicelessPack()) {
-				allGenericPacks.addChild(pack);
-			} else {
-				allDevicePacks.addChild(pack);
-			}
+			addToCollections(pack);
 		} else {
 			if (allErrorPacks == null) {
 				allErrorPacks = new CpPackFamily(null, CmsisConstants.ERRORS);
@@ -349,8 +968,8 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 			pack.setPackState(PackState.ERROR);
 			allErrorPacks.addChild(pack);
 			String errorString;
-			if (!pdscParser.getErrorStrings().isEmpty()) {
-				errorString = pdscParser.getErrorStrings().get(0);
+			if (result.errorStrings != null && !result.errorStrings.isEmpty()) {
+				errorString = result.errorStrings.get(0);
 			} else if (!CmsisConstants.PACKAGE_TAG.equals(pack.getTag())) {
 				errorString = pack.getFileName().replace('/', '\\') + ": " //$NON-NLS-1$
 						+ CpStrings.CpPackManager_UnrecognizedFileFormatError;
@@ -361,9 +980,213 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 			fPackInstaller.printInConsole(CpStrings.CpPackManager_ErrorWhileParsing + errorString,
 					ConsoleColor.ERROR);
 		}
+		if(fPackFiles != null) {
+			fPackFiles.put(getPackFileKey(file), new PackFileInfo(packState, result.fileSize, result.fileModified, pack));
+		}
 		return true;
 	}
 
+	/**
+	 * Adds a successfully loaded pack to pack collections according to its state
+	 * @param pack ICpPack to add
+	 */
+	protected void addToCollections(ICpPack pack) {
+		allPacks.addChild(pack);
+		if (pack.getPackState() == PackState.INSTALLED) {
+			allInstalledPacks.addChild(pack);
+		}
+		if (pack.isDevicelessPack()) {
+			allGenericPacks.addChild(pack);
+		} else {
+			allDevicePacks.addChild(pack);
+		}
+	}
+
+	/**
+	 * Removes pack from all pack collections, empty pack families are removed as well
+	 * @param pack ICpPack to remove
+	 */
+	protected void removeFromCollections(ICpPack pack) {
+		if (pack.getPackState() == PackState.ERROR) {
+			if(allErrorPacks != null) {
+				allErrorPacks.removeChild(pack);
+			}
+			return;
+		}
+		String familyId = pack.getPackFamilyId();
+		ICpPackCollection[] packCollections = {allPacks, allInstalledPacks, allGenericPacks, allDevicePacks};
+		for (ICpPackCollection packCollection : packCollections) {
+			if(packCollection == null || packCollection.getChildren() == null) {
+				continue;
+			}
+			for (Iterator<? extends ICpItem> iterator = packCollection.getChildren().iterator(); iterator.hasNext();) {
+				ICpItem packFamily = iterator.next();
+				if (!familyId.equals(packFamily.getPackFamilyId())) {
+					continue;
+				}
+				packFamily.removeChild(pack);
+				if(!packFamily.hasChildren()) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks if packs can be reloaded incrementally: packs are loaded from the current pack root directory
+	 * @return true if incremental reload is possible
+	 */
+	protected boolean isIncrementalReloadPossible() {
+		return bPacksLoaded && allPacks != null && fPackFiles != null &&
+				cmsisPackRootDirectory != null && cmsisPackRootDirectory.equals(fPackFilesRoot);
+	}
+
+	/**
+	 * Compares pdsc files in pack root directory with the loaded ones, re-parses added and modified files only
+	 * and updates pack collections, device, board and example trees accordingly
+	 * @return RtePacksDelta describing the changes, empty if nothing is changed
+	 */
+	synchronized protected RtePacksDelta reloadChangedPacks() {
+		RtePacksDelta delta = new RtePacksDelta();
+
+		// collect added, modified and deleted files
+		Map<PackState, Collection<PdscFile>> filesToLoad = new LinkedHashMap<PackState, Collection<PdscFile>>();
+		Map<String, PackFileInfo> currentFiles = new HashMap<String, PackFileInfo>();
+		boolean bChanged = false;
+		for(Map.Entry<PackState, Collection<PdscFile>> e : findPdscFiles(cmsisPackRootDirectory).entrySet()) {
+			PackState state = e.getKey();
+			Collection<PdscFile> files = new LinkedList<PdscFile>();
+			for(PdscFile file : e.getValue()) {
+				String key = getPackFileKey(file.getPath());
+				PackFileInfo info = fPackFiles.get(key);
+				if(info != null && info.isUpToDate(state, file.getSize(), file.getLastModified())) {
+					currentFiles.put(key, info);
+				} else {
+					files.add(file);
+					bChanged = true;
+				}
+			}
+			filesToLoad.put(state, files);
+		}
+		if(!bChanged && currentFiles.size() == fPackFiles.size()) {
+			return delta; // nothing is changed
+		}
+		CpConditionResultCache.getInstance().clear();
+		CpDeviceItem.clearCaches();
+
+		Collection<ICpPack> treePacks = new LinkedHashSet<ICpPack>(allPacks.getPacks());
+
+		// remove packs of modified and deleted files
+		Set<String> affectedFamilies = new HashSet<String>();
+		for(Map.Entry<String, PackFileInfo> e : fPackFiles.entrySet()) {
+			if(currentFiles.containsKey(e.getKey())) {
+				continue;
+			}
+			ICpPack pack = e.getValue().pack;
+			removeFromCollections(pack);
+			affectedFamilies.add(pack.getPackFamilyId());
+			delta.addRemovedPack(pack);
+		}
+		fPackFiles = currentFiles;
+
+		// re-add remaining packs of affected families: they could be hidden by removed ones of the same version
+		for(PackFileInfo info : currentFiles.values()) {
+			ICpPack pack = info.pack;
+			if(pack.getPackState() != PackState.ERROR && affectedFamilies.contains(pack.getPackFamilyId())) {
+				addToCollections(pack);
+			}
+		}
+
+		// load added and modified files
+		Collection<PackFileInfo> loadedFiles = new LinkedList<PackFileInfo>();
+		for(Map.Entry<PackState, Collection<PdscFile>> e : filesToLoad.entrySet()) {
+			packState = e.getKey();
+			loadPdscFiles(e.getValue());
+			for(PdscFile file : e.getValue()) {
+				PackFileInfo info = fPackFiles.get(getPackFileKey(file.getPath()));
+				if(info != null) {
+					delta.addAddedPack(info.pack);
+					loadedFiles.add(info);
+				}
+			}
+		}
+		packState = PackState.UNKNOWN;
+		scheduleValidation(loadedFiles);
+
+		// device trees are views of a snapshot of all packs: drop them, they are recreated on demand
+		clearDevices();
+		// update board and example trees with the packs that have appeared or disappeared in collections
+		Collection<ICpPack> newTreePacks = new LinkedHashSet<ICpPack>(allPacks.getPacks());
+		for(ICpPack pack : treePacks) {
+			if(newTreePacks.contains(pack)) {
+				continue;
+			}
+			if (allRteBoardDevices != null) {
+				allRteBoardDevices.removeBoards(pack);
+			}
+			if (allExamples != null) {
+				allExamples.removeExamples(pack);
+			}
+			if (searchIndex != null) {
+				searchIndex.removePack(pack);
+			}
+		}
+		for(ICpPack pack : newTreePacks) {
+			if(treePacks.contains(pack)) {
+				continue;
+			}
+			if (allRteBoardDevices != null) {
+				allRteBoardDevices.addBoards(pack);
+			}
+			if (allExamples != null) {
+				allExamples.addExamples(pack);
+			}
+			if (searchIndex != null) {
+				searchIndex.addPack(pack);
+			}
+		}
+		if(allBoards != null) {
+			collectBoards(); // board map keeps only one board per ID, cannot be patched
+		}
+		return delta;
+	}
+
+	/**
+	 * Returns key to identify loaded pdsc file independently of path format
+	 * @param file pdsc file name
+	 * @return absolute file path
+	 */
+	protected static String getPackFileKey(String file) {
+		return new File(file).getAbsolutePath();
+	}
+
+	/**
+	 * Updates information about loaded pdsc files after a pack has been added by a pack job
+	 * @param pack added ICpPack
+	 */
+	protected void addPackFile(ICpPack pack) {
+		if(fPackFiles == null || pack == null || pack.getFileName() == null) {
+			return;
+		}
+		PdscFile f = toPdscFile(pack.getFileName());
+		fPackFiles.put(getPackFileKey(pack.getFileName()), new PackFileInfo(pack.getPackState(), f.getSize(), f.getLastModified(), pack));
+	}
+
+	/**
+	 * Updates information about loaded pdsc files after a pack has been removed by a pack job
+	 * @param pack removed ICpPack
+	 */
+	protected void removePackFile(ICpPack pack) {
+		if(fPackFiles == null || pack == null || pack.getFileName() == null) {
+			return;
+		}
+		String key = getPackFileKey(pack.getFileName());
+		PackFileInfo info = fPackFiles.get(key);
+		if(info != null && info.pack == pack) {
+			fPackFiles.remove(key);
+		}
+	}
+
 	@Override
 	public String getCmsisPackRootDirectory() {
 		return cmsisPackRootDirectory;
@@ -446,6 +1269,8 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 					Assert.isTrue(pack.getPackState() == PackState.INSTALLED ||
 							pack.getPackState() == PackState.GENERATED);
 
+					addPackFile(pack);
+
 					// Update pack collection
 					allPacks.addChild(pack);
 					allInstalledPacks.addChild(pack);
@@ -456,12 +1281,7 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 					}
 
 					// Update RteDevice Tree
-					if (allDevices != null) {
-						allDevices.addDevices(pack);
-					}
-					if (allInstalledDevices != null) {
-						allInstalledDevices.addDevices(pack);
-					}
+					clearDevices();
 
 					// Update Board Collection
 					if (allRteBoardDevices != null) {
@@ -473,6 +1293,11 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 					if (allExamples != null) {
 						allExamples.addExamples(pack);
 					}
+
+					// Update search index
+					if (searchIndex != null) {
+						searchIndex.addPack(pack);
+					}
 				}
 				break;
 			case RteEvent.PACK_REMOVE_JOB_FINISHED:
@@ -480,6 +1305,7 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 				result = (RtePackJobResult) event.getData();
 				if (result.isSuccess()) {
 					ICpPack pack = result.getPack();
+					removePackFile(pack);
 					// if the deleted pack is an error pack, only need to remove it from allErrorPacks
 					if (pack.getPackState() == PackState.ERROR) {
 						allErrorPacks.removeChild(pack);
@@ -507,13 +1333,8 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 						}
 					}
 
-					// Remove Device from device tree if pack is not the latest version of this pack family
-					if (allDevices != null) {
-						allDevices.removeDevices(pack);
-					}
-					if (allInstalledDevices != null) {
-						allInstalledDevices.removeDevices(pack);
-					}
+					// Remove Device from device tree
+					clearDevices();
 
 					// Remove Board from board tree
 					if (allRteBoardDevices != null) {
@@ -525,9 +1346,15 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 						allExamples.removeExamples(pack);
 					}
 
+					// Remove pack content from search index
+					if (searchIndex != null) {
+						searchIndex.removePack(pack);
+					}
+
 					// Add new pack into the packs, which could be the new pdsc file in the .Web or the .Download folder
 					ICpPack newPack = result.getNewPack();
 					if (newPack != null) {
+						addPackFile(newPack);
 						allPacks.addChild(newPack);
 						if (newPack.isDevicelessPack()) {
 							allGenericPacks.addChild(newPack);
@@ -536,12 +1363,7 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 						}
 
 						// Update RteDevice Tree for the newly added pack
-						if (allDevices != null) {
-							allDevices.addDevices(newPack);
-						}
-						if (allInstalledDevices != null) {
-							allInstalledDevices.addDevices(newPack);
-						}
+						clearDevices();
 
 						// Update RteBoard Tree for the newly added pack
 						if (allRteBoardDevices != null) {
@@ -552,6 +1374,9 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 						if (allExamples != null) {
 							allExamples.addExamples(newPack);
 						}
+						if (searchIndex != null) {
+							searchIndex.addPack(newPack);
+						}
 					} else {
 						//reload();
 					}
@@ -591,9 +1416,9 @@ public class CpPackManager implements ICpPackManager, IRteEventListener {
 		} else if (ps1.ordinal() > ps2.ordinal()) {
 			return true;
 		} else {
-			String pv1 = previous.getPack().getVersion();
-			String pv2 = current.getPack().getVersion();
-			if (VersionComparator.versionCompare(pv1, pv2) < 0) {
+			SemanticVersion pv1 = previous.getPack().getSemanticVersion();
+			SemanticVersion pv2 = current.getPack().getSemanticVersion();
+			if (SemanticVersion.compare(pv1, pv2, true) < 0) {
 				return true;
 			}
 		}
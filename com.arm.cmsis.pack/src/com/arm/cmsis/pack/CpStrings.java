@@ -19,7 +19,10 @@ public class CpStrings extends NLS {
 	public static String CpComponentInfo_ComponentMissing;
 	public static String CpPackManager_DefaultError;
 	public static String CpPackManager_ErrorWhileParsing;
+	public static String CpPackManager_FileModifiedSinceLoading;
 	public static String CpPackManager_UnrecognizedFileFormatError;
+	public static String CpPackManager_ValidatingPacks;
+	public static String PdscCache_ErrorWritingCache;
 	public static String CpXmlParser_Error;
 	public static String CpXmlParser_ErrorCreatingXML;
 	public static String CpXmlParser_ErrorParserInit;
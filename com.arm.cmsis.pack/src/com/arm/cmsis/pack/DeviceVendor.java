@@ -22,7 +22,7 @@ import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
 
 import com.arm.cmsis.pack.common.CmsisConstants;
-import com.arm.cmsis.pack.utils.WildCards;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
 
 /**
  * Utility class to manipulate device vendor strings
@@ -193,7 +193,7 @@ public class DeviceVendor {
 		
 		String name0 = getOfficialVendorName(v0);
 		String name1 = getOfficialVendorName(v1);
-		return WildCards.match(name0,  name1);
+		return CompiledWildcard.match(name0, name1, true);
 	}
 
 	/**
@@ -266,9 +266,19 @@ public class DeviceVendor {
 	 */
 	public static void fillMaps() {
 		try {
-			InputStream inputStream = FileLocator.openStream(CpPlugIn
+			InputStream inputStream;
+			if(CpPlugIn.getDefault() != null) {
+				inputStream = FileLocator.openStream(CpPlugIn
 					.getDefault().getBundle(),
 					new Path("resources/deviceVendors.txt"), false); //$NON-NLS-1$
+			} else {
+				// not running in OSGi (headless tools, benchmarks): resources folder is on the class path
+				inputStream = DeviceVendor.class.getResourceAsStream("/deviceVendors.txt"); //$NON-NLS-1$
+				if(inputStream == null) {
+					fillMaps(CmsisConstants.EMPTY_STRING);
+					return;
+				}
+			}
 			BufferedReader in = new BufferedReader(new InputStreamReader(inputStream));
 			StringBuilder sb = new StringBuilder();
 			String line;
@@ -13,17 +13,23 @@ package com.arm.cmsis.pack;
 
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import com.arm.cmsis.pack.data.ICpBoard;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpPack;
 import com.arm.cmsis.pack.data.ICpPackCollection;
 import com.arm.cmsis.pack.data.ICpPackFamily;
+import com.arm.cmsis.pack.data.ICpSearchIndex;
 import com.arm.cmsis.pack.events.IRteEventProxy;
 import com.arm.cmsis.pack.generic.IAttributes;
 import com.arm.cmsis.pack.parser.ICpXmlParser;
 import com.arm.cmsis.pack.repository.CpRepositoryList;
 import com.arm.cmsis.pack.rte.boards.IRteBoardDeviceItem;
 import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceQuery;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTable;
 import com.arm.cmsis.pack.rte.examples.IRteExampleItem;
 
 /**
@@ -134,6 +140,25 @@ public interface ICpPackManager {
 	 */
 	IRteDeviceItem getInstalledDevices();
 
+	/**
+	 * Returns parameter table of all selectable devices returned by {@link #getDevices()}
+	 * @return RteDeviceTable, built on first call after packs are loaded or changed
+	 */
+	RteDeviceTable getDeviceTable();
+
+	/**
+	 * Returns devices matching parametric query, for instance all Cortex-M4 devices with FPU and at least 512K of ROM
+	 * @param query RteDeviceQuery to evaluate
+	 * @return list of matching device items in query sort order
+	 */
+	List<IRteDeviceItem> queryDevices(RteDeviceQuery query);
+
+	/**
+	 * Returns full-text index of packs, devices, boards and examples returned by {@link #getDevices()}, {@link #getRteBoardDevices()} and {@link #getExamples()}
+	 * @return ICpSearchIndex, built on first call after packs are loaded and updated when packs are installed or removed
+	 */
+	ICpSearchIndex getSearchIndex();
+
 	/**
 	 * Returns collection of all board descriptions found in installed packs
 	 * @return map of boards - id to ICpBoard item
@@ -182,6 +207,79 @@ public interface ICpPackManager {
 	 */
 	boolean loadPack(String file);
 
+	/**
+	 * Sets number of threads used to parse pdsc files concurrently.
+	 * Parsed packs are always added in the order of the supplied files
+	 * @param nThreads number of loader threads, 1 or less means sequential loading
+	 */
+	void setLoadThreadCount(int nThreads);
+
+	/**
+	 * Returns number of threads used to parse pdsc files
+	 * @return number of loader threads
+	 */
+	int getLoadThreadCount();
+
+	/**
+	 * Enables or disables deferred schema validation: packs are parsed without validation
+	 * and validated by a low-priority background job after loading, validation errors are printed to the console
+	 * @param bLater true to validate packs in background, false to validate them while parsing
+	 */
+	void setValidateLater(boolean bLater);
+
+	/**
+	 * Checks if schema validation is deferred to a background job
+	 * @return true if packs are validated in background
+	 */
+	boolean isValidateLater();
+
+	/**
+	 * Enables or disables compact read-optimized attribute storage for loaded pack items
+	 * @param bCompact true to store attributes of loaded items in compact form
+	 * @see com.arm.cmsis.pack.data.ICpItem#compactAttributes()
+	 */
+	void setCompactAttributes(boolean bCompact);
+
+	/**
+	 * Checks if loaded pack items use compact attribute storage
+	 * @return true if attributes are stored in compact form
+	 */
+	boolean isCompactAttributes();
+
+	/**
+	 * Returns statistics collected during the last pack loading: per file and per loading phase
+	 * @return PackLoadStatistics
+	 */
+	PackLoadStatistics getLoadStatistics();
+
+	/**
+	 * Prints summary of pack loading statistics to the installer console
+	 */
+	void printLoadStatistics();
+
+	/**
+	 * Enables or disables lazy loading: if enabled, only pack header, releases, devices and boards are parsed on pack load,
+	 * the other sections (components, conditions, examples, etc.) are loaded on first access
+	 * @param bLazy true to enable lazy loading
+	 */
+	void setLazyLoading(boolean bLazy);
+
+	/**
+	 * Checks if lazy loading is enabled
+	 * @return true if pack sections are loaded on demand
+	 */
+	boolean isLazyLoading();
+
+	/**
+	 * Parses pack sections skipped when the pack was loaded, the same parser settings are used as for loading packs.
+	 * Errors are printed to the console
+	 * @param pack ICpPack with deferred sections
+	 * @param sectionTags list that receives tags of all pack sections in file order, including not parsed ones
+	 * @return root ICpItem of the parsed file containing deferred sections,
+	 * null if the file cannot be parsed or has been modified since the pack was loaded
+	 */
+	ICpItem parseDeferredSections(ICpPack pack, List<String> sectionTags);
+
 	/**
 	 * Returns CMSIS-Pack directory to load packs from
 	 * @return the CMSIS-Pack directory
@@ -213,7 +311,9 @@ public interface ICpPackManager {
 	boolean arePacksLoaded();
 
 	/**
-	 *  Triggers reload of the pack if the have already been loaded
+	 *  Triggers reload of the pack if the have already been loaded.
+	 *  Packs loaded from the same root directory are reloaded incrementally: only added or modified pdsc files are parsed
+	 *  and {@link com.arm.cmsis.pack.events.RteEvent#PACKS_UPDATED} is sent instead of {@link com.arm.cmsis.pack.events.RteEvent#PACKS_RELOADED}
 	 */
 	void reload();
 }
\ No newline at end of file
@@ -0,0 +1,231 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing and size statistics collected while loading packs.
+ * <p/>
+ * Times are measured in nanoseconds. Discovery and tree build times are wall-clock times,
+ * XML parse and item construction times are summed over all files (files can be parsed by several threads).
+ * Parsers that build items while reading XML (StAX) report item construction as part of XML parse time.
+ * The class is thread-safe.
+ */
+public class PackLoadStatistics {
+
+	/**
+	 * Pack loading phases
+	 */
+	public enum Phase {
+		DISCOVERY,
+		XML_PARSE,
+		ITEM_CONSTRUCTION,
+		DEVICE_TREE,
+		DEVICE_TABLE,
+		BOARD_TREE,
+		EXAMPLE_TREE,
+		DEFERRED_LOAD
+	}
+
+	/**
+	 * Statistics of a single pdsc file
+	 */
+	public static class FileStatistics {
+		private final String file;
+		private final long time;
+		private final long parseTime;
+		private final long buildTime;
+		private final long bytes;
+		private final int items;
+		private final int attributes;
+		private final boolean cached;
+
+		public FileStatistics(String file, long time, long parseTime, long buildTime, long bytes, int items, int attributes, boolean cached) {
+			this.file = file;
+			this.time = time;
+			this.parseTime = parseTime;
+			this.buildTime = buildTime;
+			this.bytes = bytes;
+			this.items = items;
+			this.attributes = attributes;
+			this.cached = cached;
+		}
+
+		/**
+		 * @return pdsc file name
+		 */
+		public String getFile() {
+			return file;
+		}
+
+		/**
+		 * @return total time to load the file in nanoseconds
+		 */
+		public long getTime() {
+			return time;
+		}
+
+		/**
+		 * @return XML parse time in nanoseconds
+		 */
+		public long getParseTime() {
+			return parseTime;
+		}
+
+		/**
+		 * @return item construction time in nanoseconds
+		 */
+		public long getBuildTime() {
+			return buildTime;
+		}
+
+		/**
+		 * @return number of bytes read, 0 if the pack is taken from the cache
+		 */
+		public long getBytes() {
+			return bytes;
+		}
+
+		/**
+		 * @return number of created items, 0 if pack is taken from cache
+		 */
+		public int getItemCount() {
+			return items;
+		}
+
+		/**
+		 * @return number of set attributes, 0 if pack is taken from cache
+		 */
+		public int getAttributeCount() {
+			return attributes;
+		}
+
+		/**
+		 * @return true if pack is taken from the cache of parsed packs
+		 */
+		public boolean isCached() {
+			return cached;
+		}
+	}
+
+	private final Map<Phase, Long> fPhaseTimes = new EnumMap<Phase, Long>(Phase.class);
+	private final List<FileStatistics> fFiles = new ArrayList<FileStatistics>();
+
+	/**
+	 * Clears collected statistics
+	 */
+	public synchronized void clear() {
+		fPhaseTimes.clear();
+		fFiles.clear();
+	}
+
+	/**
+	 * Adds time to a phase
+	 * @param phase Phase to add time to
+	 * @param nanos time in nanoseconds
+	 */
+	public synchronized void addPhaseTime(Phase phase, long nanos) {
+		fPhaseTimes.put(phase, getPhaseTime(phase) + nanos);
+	}
+
+	/**
+	 * Returns accumulated phase time
+	 * @param phase Phase to query
+	 * @return time in nanoseconds
+	 */
+	public synchronized long getPhaseTime(Phase phase) {
+		Long t = fPhaseTimes.get(phase);
+		return t != null ? t : 0L;
+	}
+
+	/**
+	 * Adds statistics of a loaded file, its parse and construction times are added to corresponding phases
+	 * @param fileStatistics FileStatistics to add
+	 */
+	public synchronized void addFileStatistics(FileStatistics fileStatistics) {
+		fFiles.add(fileStatistics);
+		addPhaseTime(Phase.XML_PARSE, fileStatistics.getParseTime());
+		addPhaseTime(Phase.ITEM_CONSTRUCTION, fileStatistics.getBuildTime());
+	}
+
+	/**
+	 * Returns statistics of loaded files
+	 * @return list of FileStatistics in loading order
+	 */
+	public synchronized List<FileStatistics> getFileStatistics() {
+		return new ArrayList<FileStatistics>(fFiles);
+	}
+
+	/**
+	 * Returns the files that took the longest time to load
+	 * @param count maximum number of files to return
+	 * @return list of FileStatistics sorted by descending load time
+	 */
+	public synchronized List<FileStatistics> getSlowestFiles(int count) {
+		List<FileStatistics> files = new ArrayList<FileStatistics>(fFiles);
+		Collections.sort(files, (f1, f2) -> Long.compare(f2.getTime(), f1.getTime()));
+		if(files.size() > count) {
+			return new ArrayList<FileStatistics>(files.subList(0, count));
+		}
+		return files;
+	}
+
+	/**
+	 * Returns summary as text suitable for console output
+	 * @param nSlowest number of slowest files to list
+	 * @return summary string
+	 */
+	public synchronized String getSummary(int nSlowest) {
+		long bytes = 0;
+		long items = 0;
+		long attributes = 0;
+		int cached = 0;
+		for(FileStatistics f : fFiles) {
+			bytes += f.getBytes();
+			items += f.getItemCount();
+			attributes += f.getAttributeCount();
+			if(f.isCached()) {
+				cached++;
+			}
+		}
+		StringBuilder sb = new StringBuilder();
+		sb.append("Pack loading statistics: ").append(fFiles.size()).append(" files (").append(cached).append(" from cache), "); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		sb.append(bytes).append(" bytes, ").append(items).append(" items, ").append(attributes).append(" attributes\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		for(Phase phase : Phase.values()) {
+			sb.append("  ").append(phase.name()).append(": ").append(toMillis(getPhaseTime(phase))).append(" ms\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		}
+		List<FileStatistics> slowest = getSlowestFiles(nSlowest);
+		if(!slowest.isEmpty()) {
+			sb.append("Slowest files:\n"); //$NON-NLS-1$
+			for(FileStatistics f : slowest) {
+				sb.append("  ").append(toMillis(f.getTime())).append(" ms, "); //$NON-NLS-1$ //$NON-NLS-2$
+				sb.append(f.getBytes()).append(" bytes, "); //$NON-NLS-1$
+				sb.append(f.getItemCount()).append(" items, "); //$NON-NLS-1$
+				sb.append(f.getAttributeCount()).append(" attributes"); //$NON-NLS-1$
+				if(f.isCached()) {
+					sb.append(", cached"); //$NON-NLS-1$
+				}
+				sb.append(": ").append(f.getFile()).append('\n'); //$NON-NLS-1$
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String toMillis(long nanos) {
+		return String.format("%.1f", nanos / 1000000.0); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,45 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import com.arm.cmsis.pack.DeviceVendor;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.generic.CompactAttributes;
+import com.arm.cmsis.pack.generic.IAttributes;
+
+/**
+ * Compact attributes with the same matching rules as {@link CpAttributes}, used for items read from pdsc files 
+ */
+public class CpCompactAttributes extends CompactAttributes {
+
+	public CpCompactAttributes() {
+		super();
+	}
+
+	/**
+	 * Copy constructor
+	 * @param copyFrom
+	 */
+	public CpCompactAttributes(IAttributes copyFrom) {
+		super(copyFrom);
+	}
+	
+	
+	@Override
+	public boolean matchAttribute(String key, String value, String pattern) {
+		if(key.equals(CmsisConstants.DVENDOR)) {
+			return DeviceVendor.match(value, pattern);
+		}
+		return super.matchAttribute(key, value, pattern);
+	}
+
+}
@@ -15,6 +15,7 @@ import java.util.Collection;
 
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.enums.EFileCategory;
+import com.arm.cmsis.pack.utils.SemanticVersion;
 
 
 /**
@@ -25,6 +26,7 @@ public class CpComponent extends CpItem implements ICpComponent {
 	protected int bApi = -1; // not initialized
 	protected int deviceDependent = -1; // not initialized
 	protected int bGenerated = -1; // not initialized
+	protected SemanticVersion fSemanticVersion = null; // parsed version, checked against the attribute
 	
 	/**
 	 * Public constructor
@@ -111,6 +113,18 @@ public class CpComponent extends CpItem implements ICpComponent {
 		return getAttribute(CmsisConstants.CVERSION);
 	}
 
+	@Override
+	public SemanticVersion getSemanticVersion() {
+		String version = getVersion();
+		SemanticVersion semanticVersion = fSemanticVersion;
+		if(semanticVersion == null || !semanticVersion.getVersion().equals(version)) {
+			// version attribute can be changed, for instance by component info
+			semanticVersion = SemanticVersion.valueOf(version);
+			fSemanticVersion = semanticVersion;
+		}
+		return semanticVersion;
+	}
+
 
 	@Override
 	public boolean isApi() {
@@ -11,6 +11,8 @@
 
 package com.arm.cmsis.pack.data;
 
+import java.util.Collections;
+
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.enums.EEvaluationResult;
 
@@ -19,6 +21,8 @@ import com.arm.cmsis.pack.enums.EEvaluationResult;
  */
 public class CpCondition extends CpItem implements ICpCondition {
 
+	private volatile CpConditionProgram fProgram = null;
+
 	/**
 	 * @param parent
 	 */
@@ -51,6 +55,34 @@ public class CpCondition extends CpItem implements ICpCondition {
 		return child;
 	}
 
+	@Override
+	public CpConditionProgram getProgram() {
+		CpConditionProgram program = fProgram;
+		if(program != null) {
+			return program;
+		}
+		ICpItem parent = getParent();
+		Object lock = parent != null ? parent : this;
+		synchronized (lock) {
+			if(fProgram == null && parent != null) {
+				// compile all sibling conditions to link references
+				CpConditionProgram.compile(parent.getChildren());
+			}
+			if(fProgram == null) {
+				CpConditionProgram.compile(Collections.singletonList(this));
+			}
+			return fProgram;
+		}
+	}
+
+	/**
+	 * Sets compiled program, called by <code>CpConditionProgram.compile()</code>
+	 * @param program CpConditionProgram
+	 */
+	void setProgram(CpConditionProgram program) {
+		fProgram = program;
+	}
+
 	@Override
 	public EEvaluationResult evaluate(ICpConditionContext context) {
 		EEvaluationResult result = EEvaluationResult.UNDEFINED;
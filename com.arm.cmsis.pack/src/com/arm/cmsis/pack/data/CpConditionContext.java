@@ -11,12 +11,11 @@
 
 package com.arm.cmsis.pack.data;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map;
-import java.util.Set;
 
 import com.arm.cmsis.pack.enums.EEvaluationResult;
 
@@ -29,7 +28,8 @@ public class CpConditionContext extends CpAttributes implements ICpConditionCont
 	protected Map<ICpItem, EEvaluationResult> fResults = null;
 	
 	// temporary variables
-	protected Set<ICpCondition> tConditionsBeingEvaluated = new HashSet<ICpCondition>(); // to prevent recursion
+	protected CpConditionProgram[] tProgramStack = new CpConditionProgram[16]; // programs being executed, to prevent recursion
+	protected int tDepth = 0;
 	protected EEvaluationResult tResultAccept = EEvaluationResult.UNDEFINED; // keeps last (the best) accept result
 	protected boolean tbDeny = false; // flag is set when deny expression is evaluated  
 	
@@ -42,7 +42,8 @@ public class CpConditionContext extends CpAttributes implements ICpConditionCont
 		fResults = null;
 		tResultAccept = EEvaluationResult.UNDEFINED;
 		tbDeny = false;
-		tConditionsBeingEvaluated.clear();
+		Arrays.fill(tProgramStack, 0, tDepth, null);
+		tDepth = 0;
 	}
 
 	@Override
@@ -133,49 +134,107 @@ public class CpConditionContext extends CpAttributes implements ICpConditionCont
 
 	@Override
 	public EEvaluationResult evaluateCondition(ICpCondition condition) {
-		if(tConditionsBeingEvaluated.contains(condition))
-			return EEvaluationResult.ERROR; // recursion
-		
-		tConditionsBeingEvaluated.add(condition);
+		return execute(condition.getProgram());
+	}
+
+	/**
+	 * Executes compiled condition
+	 * @param program CpConditionProgram to execute
+	 * @return condition result
+	 */
+	protected EEvaluationResult execute(CpConditionProgram program) {
+		for(int d = 0; d < tDepth; d++) {
+			if(tProgramStack[d] == program)
+				return EEvaluationResult.ERROR; // recursion
+		}
+		if(tDepth == tProgramStack.length)
+			tProgramStack = Arrays.copyOf(tProgramStack, tDepth * 2);
+		tProgramStack[tDepth++] = program;
+
 		EEvaluationResult resultRequire = EEvaluationResult.IGNORED;
 		EEvaluationResult resultAccept = EEvaluationResult.UNDEFINED;
-		// first check require and deny expressions
-		Collection<? extends ICpItem> children = condition.getChildren();
-		for(ICpItem child :  children) {
-			if(!(child instanceof ICpExpression))
-				continue;
-			ICpExpression expr = (ICpExpression)child;
-			boolean bDeny = tbDeny; // save deny context  
-			if(expr.getExpressionType() == ICpExpression.DENY_EXPRESSION)
-				tbDeny = !tbDeny; // invert the deny context 
-			EEvaluationResult res =  evaluate(expr);
-			tbDeny = bDeny; // restore deny context
-			if(res == EEvaluationResult.IGNORED || res == EEvaluationResult.UNDEFINED )
-				continue;
-			else if(res == EEvaluationResult.ERROR)
-				return res;
-			if(expr.getExpressionType() == ICpExpression.ACCEPT_EXPRESSION) {
-				if(res.ordinal() > resultAccept.ordinal()){
-					resultAccept = res;
+		try {
+			int size = program.size();
+			for(int i = 0; i < size; i++) {
+				byte op = program.getOp(i);
+				boolean bDeny = tbDeny; // save deny context
+				if(op == CpConditionProgram.OP_DENY)
+					tbDeny = !tbDeny; // invert the deny context
+				EEvaluationResult res = evaluateInstruction(program, i);
+				tbDeny = bDeny; // restore deny context
+				if(res == EEvaluationResult.IGNORED || res == EEvaluationResult.UNDEFINED )
+					continue;
+				else if(res == EEvaluationResult.ERROR)
+					return res;
+				if(op == CpConditionProgram.OP_ACCEPT) {
+					if(res.ordinal() > resultAccept.ordinal()){
+						resultAccept = res;
+					}
+				} else {
+					if(res.ordinal() < resultRequire.ordinal()){
+						resultRequire = res;
+					}
 				}
-			} else {
-				if(res.ordinal() < resultRequire.ordinal()){
-					resultRequire = res;
-				}	
 			}
+		} finally {
+			tProgramStack[--tDepth] = null;
 		}
 
-		tConditionsBeingEvaluated.remove(condition);
-
-		tResultAccept = resultAccept; 
-		if(resultAccept != EEvaluationResult.UNDEFINED && 
-		   resultAccept.ordinal() < resultRequire.ordinal()) {  
+		tResultAccept = resultAccept;
+		if(resultAccept != EEvaluationResult.UNDEFINED &&
+		   resultAccept.ordinal() < resultRequire.ordinal()) {
 			return resultAccept;
 		}
-		
+
 		return resultRequire;
 	}
 
+	/**
+	 * Evaluates program instruction using cached result of its expression if available
+	 * @param program CpConditionProgram
+	 * @param i instruction index
+	 * @return expression result
+	 */
+	protected EEvaluationResult evaluateInstruction(CpConditionProgram program, int i) {
+		ICpExpression expr = program.getExpression(i);
+		EEvaluationResult res = getCachedResult(expr);
+		if(!isEvaluate(res))
+			return res;
+		res = executeInstruction(program, i);
+		if(program.getOp(i) == CpConditionProgram.OP_DENY)
+			res = CpConditionProgram.deny(res, program.getDomain(i));
+		putCachedResult(expr, res);
+		return res;
+	}
+
+	/**
+	 * Evaluates operand of program instruction, counterpart of {@link #evaluateExpression(ICpExpression)}
+	 * @param program CpConditionProgram
+	 * @param i instruction index
+	 * @return operand result
+	 */
+	protected EEvaluationResult executeInstruction(CpConditionProgram program, int i) {
+		switch(program.getDomain(i)) {
+		case ICpExpression.DEVICE_EXPRESSION:
+		case ICpExpression.TOOLCHAIN_EXPRESSION:
+			return program.match(i, this) ? EEvaluationResult.FULFILLED : EEvaluationResult.FAILED;
+		case ICpExpression.REFERENCE_EXPRESSION:
+			CpConditionProgram ref = program.getReference(i);
+			if(ref == null)
+				break;
+			ICpCondition condition = ref.getCondition();
+			EEvaluationResult res = getCachedResult(condition);
+			if(isEvaluate(res)) {
+				res = execute(ref);
+				putCachedResult(condition, res);
+			}
+			return res;
+		default:
+			break;
+		}
+		return evaluateExpression(program.getExpression(i));
+	}
+
 
 	@Override
 	public Collection<ICpItem> filterItems(Collection<? extends ICpItem> sourceCollection) {
@@ -0,0 +1,327 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.enums.EEvaluationResult;
+import com.arm.cmsis.pack.generic.IAttributes;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * Compiled form of an ICpCondition: flat immutable arrays of instructions, one per condition expression.
+ * <p/>
+ * Each instruction consists of an operation (accept, require or deny), expression domain and operand:
+ * <ul>
+ * <li>device and toolchain expressions: attribute keys with precompiled {@link CompiledWildcard} patterns
+ * <li>references: linked program of the referenced condition
+ * <li>component expressions: the expression itself, it is evaluated by the context
+ * </ul>
+ * Precompiled patterns reproduce {@link CpAttributes#matchAttribute(String, String, String)}.
+ * If a context overrides <code>matchAttribute()</code>, all attributes are matched by the context instead.
+ * Programs are compiled for all conditions of a pack at once by {@link ICpCondition#getProgram()},
+ * therefore references can be linked even if conditions refer to each other.
+ */
+public final class CpConditionProgram {
+
+	public static final byte OP_ACCEPT 	= 0;
+	public static final byte OP_REQUIRE = 1;
+	public static final byte OP_DENY 	= 2;
+
+	// pattern kinds
+	private static final byte ANY 		= 0; // "*"
+	private static final byte LITERAL 	= 1; // no wild cards
+	private static final byte WILDCARD = 2; // CompiledWildcard.match()
+	private static final byte CONTEXT 	= 3; // context-specific match, see CpAttributes.matchAttribute()
+
+	private static final String[] EMPTY_STRINGS = new String[0];
+
+	// true for context classes that do not override CpAttributes.matchAttribute(): precompiled patterns can be used
+	private static final ClassValue<Boolean> STANDARD_MATCH = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				Class<?> declaringClass = type.getMethod("matchAttribute", String.class, String.class, String.class).getDeclaringClass(); //$NON-NLS-1$
+				return declaringClass == CpAttributes.class || declaringClass == CpCompactAttributes.class;
+			} catch (NoSuchMethodException | SecurityException e) {
+				return false;
+			}
+		}
+	};
+
+	private final ICpCondition fCondition;
+	private final byte[] fOps;
+	private final char[] fDomains;
+	private final ICpExpression[] fExpressions;
+	private final CpConditionProgram[] fReferences;
+	private final String[][] fKeys;
+	private final String[][] fPatterns;
+	private final CompiledWildcard[][] fCompiled;
+	private final byte[][] fKinds;
+
+	private CpConditionProgram(ICpCondition condition) {
+		fCondition = condition;
+		int size = 0;
+		Collection<? extends ICpItem> children = condition.getChildren();
+		if(children != null) {
+			for(ICpItem child : children) {
+				if(child instanceof ICpExpression) {
+					size++;
+				}
+			}
+		}
+		fOps = new byte[size];
+		fDomains = new char[size];
+		fExpressions = new ICpExpression[size];
+		fReferences = new CpConditionProgram[size];
+		fKeys = new String[size][];
+		fPatterns = new String[size][];
+		fCompiled = new CompiledWildcard[size][];
+		fKinds = new byte[size][];
+		if(size == 0) {
+			return;
+		}
+		int i = 0;
+		for(ICpItem child : children) {
+			if(!(child instanceof ICpExpression)) {
+				continue;
+			}
+			ICpExpression expr = (ICpExpression)child;
+			fExpressions[i] = expr;
+			fOps[i] = toOp(expr.getExpressionType());
+			char domain = expr.getExpressionDomain();
+			fDomains[i] = domain;
+			if(domain == ICpExpression.DEVICE_EXPRESSION || domain == ICpExpression.TOOLCHAIN_EXPRESSION) {
+				compilePatterns(i, expr.attributes());
+			}
+			i++;
+		}
+	}
+
+	private static byte toOp(char type) {
+		switch(type) {
+		case ICpExpression.ACCEPT_EXPRESSION:
+			return OP_ACCEPT;
+		case ICpExpression.DENY_EXPRESSION:
+			return OP_DENY;
+		default:
+			return OP_REQUIRE;
+		}
+	}
+
+	private void compilePatterns(int i, IAttributes attributes) {
+		Map<String, String> map = attributes.getAttributesAsMap();
+		if(map == null || map.isEmpty()) {
+			fKeys[i] = EMPTY_STRINGS;
+			fPatterns[i] = EMPTY_STRINGS;
+			fCompiled[i] = new CompiledWildcard[0];
+			fKinds[i] = new byte[0];
+			return;
+		}
+		int n = map.size();
+		String[] keys = new String[n];
+		String[] patterns = new String[n];
+		CompiledWildcard[] compiled = new CompiledWildcard[n];
+		byte[] kinds = new byte[n];
+		int j = 0;
+		for(Map.Entry<String, String> e : map.entrySet()) {
+			keys[j] = e.getKey();
+			patterns[j] = e.getValue();
+			kinds[j] = getPatternKind(e.getKey(), e.getValue());
+			if(kinds[j] == LITERAL || kinds[j] == WILDCARD) {
+				compiled[j] = CompiledWildcard.compile(e.getValue());
+			}
+			j++;
+		}
+		fKeys[i] = keys;
+		fPatterns[i] = patterns;
+		fCompiled[i] = compiled;
+		fKinds[i] = kinds;
+	}
+
+	private static byte getPatternKind(String key, String pattern) {
+		if(key.equals(CmsisConstants.DVENDOR)) {
+			return CONTEXT;
+		}
+		if(pattern.equals("*")) { //$NON-NLS-1$
+			return ANY;
+		}
+		return containsWildCards(pattern) ? WILDCARD : LITERAL;
+	}
+
+	private static boolean containsWildCards(String s) {
+		for(int i = 0; i < s.length(); i++) {
+			switch(s.charAt(i)) {
+			case '*':
+			case '?':
+			case '[':
+			case ']':
+				return true;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Compiles all conditions in the given collection and links references between them
+	 * @param conditions collection of conditions, typically children of pack's <code>conditions</code> element
+	 */
+	static void compile(Collection<? extends ICpItem> conditions) {
+		if(conditions == null || conditions.isEmpty()) {
+			return;
+		}
+		Map<ICpItem, CpConditionProgram> programs = new IdentityHashMap<ICpItem, CpConditionProgram>();
+		for(ICpItem item : conditions) {
+			if(item instanceof CpCondition) {
+				programs.put(item, new CpConditionProgram((ICpCondition)item));
+			}
+		}
+		// link references
+		for(CpConditionProgram program : programs.values()) {
+			for(int i = 0; i < program.size(); i++) {
+				if(program.fDomains[i] == ICpExpression.REFERENCE_EXPRESSION) {
+					program.fReferences[i] = programs.get(program.fExpressions[i].getCondition());
+				}
+			}
+		}
+		for(CpConditionProgram program : programs.values()) {
+			((CpCondition)program.fCondition).setProgram(program);
+		}
+	}
+
+	/**
+	 * Returns compiled condition
+	 * @return ICpCondition
+	 */
+	public ICpCondition getCondition() {
+		return fCondition;
+	}
+
+	/**
+	 * Returns number of instructions
+	 * @return instruction count
+	 */
+	public int size() {
+		return fOps.length;
+	}
+
+	/**
+	 * Returns operation of the instruction
+	 * @param i instruction index
+	 * @return one of OP_ACCEPT, OP_REQUIRE or OP_DENY
+	 */
+	public byte getOp(int i) {
+		return fOps[i];
+	}
+
+	/**
+	 * Returns expression domain of the instruction
+	 * @param i instruction index
+	 * @return expression domain as returned by {@link ICpExpression#getExpressionDomain()}
+	 */
+	public char getDomain(int i) {
+		return fDomains[i];
+	}
+
+	/**
+	 * Returns source expression of the instruction, used as a key to cache its result
+	 * @param i instruction index
+	 * @return ICpExpression
+	 */
+	public ICpExpression getExpression(int i) {
+		return fExpressions[i];
+	}
+
+	/**
+	 * Returns linked program of referenced condition
+	 * @param i instruction index
+	 * @return CpConditionProgram or null if instruction is not a reference or the reference cannot be resolved within the pack
+	 */
+	public CpConditionProgram getReference(int i) {
+		return fReferences[i];
+	}
+
+	/**
+	 * Matches device or toolchain expression against context attributes.
+	 * Only attributes found in both, the expression and the context, are compared
+	 * (same as <code>context.matchCommonAttributes(expression.attributes())</code>).
+	 * Precompiled patterns are only used if the context does not override <code>matchAttribute()</code>
+	 * @param i instruction index
+	 * @param context context attributes
+	 * @return true if attributes match
+	 */
+	public boolean match(int i, IAttributes context) {
+		String[] keys = fKeys[i];
+		if(keys == null) {
+			return false;
+		}
+		String[] patterns = fPatterns[i];
+		byte[] kinds = fKinds[i];
+		CompiledWildcard[] compiled = fCompiled[i];
+		boolean bStandardMatch = STANDARD_MATCH.get(context.getClass());
+		for(int j = 0; j < keys.length; j++) {
+			String key = keys[j];
+			String value = context.getAttribute(key);
+			if(value == null) {
+				continue;
+			}
+			String pattern = patterns[j];
+			boolean b;
+			switch(bStandardMatch ? kinds[j] : CONTEXT) {
+			case ANY:
+				b = !value.isEmpty();
+				break;
+			case LITERAL:
+				// value can also contain wild cards
+				b = pattern.equals(value) || compiled[j].match(value);
+				break;
+			case CONTEXT:
+				b = context.matchAttribute(key, value, pattern);
+				break;
+			default:
+				b = compiled[j].match(value);
+				break;
+			}
+			if(!b) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Converts result of a deny expression's operand to the expression result
+	 * @param result result of the operand
+	 * @param domain expression domain
+	 * @return deny expression result
+	 */
+	public static EEvaluationResult deny(EEvaluationResult result, char domain) {
+		switch(result){
+		case FULFILLED:
+			if(domain != ICpExpression.COMPONENT_EXPRESSION)
+				return EEvaluationResult.INCOMPATIBLE;
+		case UNDEFINED:
+		case ERROR:
+		case IGNORED:
+		case INCOMPATIBLE:
+			return result;
+		default:
+			break;
+		}
+		return EEvaluationResult.FULFILLED;
+	}
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arm.cmsis.pack.enums.EEvaluationResult;
+
+/**
+ * Global cache of condition evaluation results shared by condition contexts with the same attributes.
+ * <p/>
+ * Results of device and toolchain conditions depend only on the evaluated item and context attributes,
+ * therefore they can be reused by subsequent updates of the same RTE model and by models for the same device and toolchain.
+ * Results are keyed by context fingerprint (string representation of all context attributes) and item identity,
+ * only the most recently used fingerprints are kept.
+ * Contexts using the cache must not evaluate anything that is not reflected in the fingerprint,
+ * see {@link CpSharedConditionContext}.
+ * The cache must be cleared when packs are reloaded.
+ */
+public class CpConditionResultCache {
+
+	private static final int MAX_CONTEXTS = 16;
+	private static final CpConditionResultCache theInstance = new CpConditionResultCache();
+
+	// access-ordered map : fingerprint -> results
+	private final Map<String, Map<ICpItem, EEvaluationResult>> fResults =
+			new LinkedHashMap<String, Map<ICpItem, EEvaluationResult>>(MAX_CONTEXTS, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Map<ICpItem, EEvaluationResult>> eldest) {
+					return size() > MAX_CONTEXTS;
+				}
+			};
+
+	/**
+	 * Returns shared cache instance
+	 * @return CpConditionResultCache
+	 */
+	public static CpConditionResultCache getInstance() {
+		return theInstance;
+	}
+
+	/**
+	 * Returns result map for given context fingerprint, creates one if not exists
+	 * @param fingerprint string uniquely identifying context attributes, must contain all attributes the results depend on
+	 * @return thread-safe map of evaluated items to their results
+	 */
+	public synchronized Map<ICpItem, EEvaluationResult> getResults(String fingerprint) {
+		Map<ICpItem, EEvaluationResult> results = fResults.get(fingerprint);
+		if(results == null) {
+			results = new ConcurrentHashMap<ICpItem, EEvaluationResult>();
+			fResults.put(fingerprint, results);
+		}
+		return results;
+	}
+
+	/**
+	 * Returns number of cached contexts
+	 * @return context count
+	 */
+	public synchronized int getContextCount() {
+		return fResults.size();
+	}
+
+	/**
+	 * Clears all cached results, must be called when packs are reloaded
+	 */
+	public synchronized void clear() {
+		fResults.clear();
+	}
+}
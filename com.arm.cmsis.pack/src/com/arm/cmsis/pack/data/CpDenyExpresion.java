@@ -29,18 +29,6 @@ public class CpDenyExpresion extends CpExpression {
 	@Override
 	public EEvaluationResult evaluate(ICpConditionContext context) {
 		EEvaluationResult result = super.evaluate(context);
-		switch(result){
-		case FULFILLED:
-			if(getExpressionDomain() != ICpExpression.COMPONENT_EXPRESSION)
-				return EEvaluationResult.INCOMPATIBLE;
-		case UNDEFINED:
-		case ERROR:
-		case IGNORED:
-		case INCOMPATIBLE:
-			return result;
-		default:
-			break;
-		}
-		return EEvaluationResult.FULFILLED;
+		return CpConditionProgram.deny(result, getExpressionDomain());
 	}
 }
@@ -13,10 +13,10 @@ package com.arm.cmsis.pack.data;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import com.arm.cmsis.pack.DeviceVendor;
 import com.arm.cmsis.pack.common.CmsisConstants;
@@ -28,12 +28,64 @@ import com.arm.cmsis.pack.enums.EDeviceHierarchyLevel;
  */
 public class CpDeviceItem extends CpDeviceItemContainer implements ICpDeviceItem {
 
+	private static final int MAX_DEBUG_CONFIGURATIONS = 64;
+	private static final int MAX_EFFECTIVE_PROPERTIES = 256;
+
+	// access-ordered map : device item and processor name -> debug configuration
+	private static final Map<ProcessorKey, ICpDebugConfiguration> debugConfigurations =
+			new LinkedHashMap<ProcessorKey, ICpDebugConfiguration>(MAX_DEBUG_CONFIGURATIONS, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ProcessorKey, ICpDebugConfiguration> eldest) {
+			return size() > MAX_DEBUG_CONFIGURATIONS;
+		}
+	};
+
+	// access-ordered map : device item and processor name -> effective properties, recreated from shared layers on demand
+	private static final Map<ProcessorKey, ICpItem> effectiveProperties =
+			new LinkedHashMap<ProcessorKey, ICpItem>(MAX_EFFECTIVE_PROPERTIES, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ProcessorKey, ICpItem> eldest) {
+			return size() > MAX_EFFECTIVE_PROPERTIES;
+		}
+	};
+
 	private EDeviceHierarchyLevel level = null;
 	protected List<ICpDeviceItem> deviceItems = null;
 	protected Map<String, ICpItem> processors = null; // effective processors
-	protected Map<String, ICpItem > effectiveProperties = null;
-	protected Map<String, ICpDebugConfiguration > debugConfigurations = null;
-	
+	protected Map<String, CpEffectiveProperties> propertyLayers = null; // own properties of this level per processor
+
+	/**
+	 * Key of cached effective properties and debug configurations, device items are compared by identity
+	 */
+	private static final class ProcessorKey {
+		private final ICpDeviceItem deviceItem;
+		private final String processorName;
+
+		ProcessorKey(ICpDeviceItem deviceItem, String processorName) {
+			this.deviceItem = deviceItem;
+			this.processorName = processorName;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof ProcessorKey)) {
+				return false;
+			}
+			ProcessorKey that = (ProcessorKey)obj;
+			return deviceItem == that.deviceItem &&
+					(processorName == null ? that.processorName == null : processorName.equals(that.processorName));
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(deviceItem) * 31 + (processorName == null ? 0 : processorName.hashCode());
+		}
+	}
+
 	/**
 	 * @param parent
 	 * @param tag
@@ -141,77 +193,123 @@ public class CpDeviceItem extends CpDeviceItemContainer implements ICpDeviceItem
 
 	@Override
 	public synchronized ICpItem getEffectiveProperties(String processorName) {
-		if(effectiveProperties == null) {
-			// ensure filled processor collection
-			getProcessors();
-			// collect properties for all processors
-			effectiveProperties = new HashMap<String, ICpItem >();
-		}
+		// ensure filled processor collection
+		getProcessors();
 		if(processorName != null && processorName.isEmpty() && !processors.containsKey(processorName)) {
 			return null;
 		}
-		ICpItem props = effectiveProperties.get(processorName);
-		if(props != null) {
-			return props;
+		ProcessorKey key = new ProcessorKey(this, processorName);
+		synchronized (effectiveProperties) {
+			ICpItem props = effectiveProperties.get(key);
+			if(props != null) {
+				return props;
+			}
 		}
-		props = new CpItem(this);
-		effectiveProperties.put(processorName, props);
+		CpEffectiveProperties effectiveProps = new CpEffectiveProperties(this);
 		// add processor attributes to the properties
 		ICpItem pItem = getProcessor(processorName); 
 		if(pItem != null) { 
-			props.attributes().setAttributes(pItem.attributes().getAttributesAsMap());
+			effectiveProps.attributes().setAttributes(pItem.attributes().getAttributesAsMap());
 			// directly insert processor property since it is already collected
-			props.addChild(pItem);
+			effectiveProps.addChild(pItem);
 		} else {
 			for(ICpItem p : processors.values()) {
-				props.addChild(p);
+				effectiveProps.addChild(p);
 			}
 		}
-		// add other properties
-		collectEffectiveProperties(processorName, props);
-		return props;
+		collectProcessorProperties(processorName, effectiveProps);
+		// other properties are shared with the items of this level
+		effectiveProps.inherit(getPropertyLayer(processorName), processorName);
+		synchronized (effectiveProperties) {
+			effectiveProperties.put(key, effectiveProps);
+		}
+		return effectiveProps;
 	}
 
-
-	protected int collectEffectiveProperties(String pname, ICpItem props) {
-		int nseq = 0; 
-		// insert properties starting from this item and going up in parent chain 
+	/**
+	 * Merges processor properties of this item and its parents into collected processor properties
+	 * @param pname processor name, null or empty for all processors
+	 * @param props properties containing collected processors
+	 */
+	protected void collectProcessorProperties(String pname, ICpItem props) {
 		for(ICpDeviceItem deviceItem = this; deviceItem != null; deviceItem = deviceItem.getDeviceItemParent()){
-			props.attributes().mergeAttributes(deviceItem.attributes());
 			Collection<? extends ICpItem> children = deviceItem.getChildren();
 			if(children == null) {
 				continue;
 			}
 			for(ICpItem p : children) {
+				if(!p.getTag().equals(CmsisConstants.PROCESSOR_TAG)) {
+					continue;
+				}
 				String itemPname = p.getProcessorName();
 				if(pname == null || pname.isEmpty() || itemPname.isEmpty() || itemPname.equals(pname)) {
 					props.mergeProperty(p, pname);
-				}			
+				}
 			}
 		}
-		return nseq;
+	}
+
+	/**
+	 * Returns effective properties of this hierarchy level for given processor,
+	 * the layer contains own properties and inherits the ones of parent level
+	 * @param processorName processor name, null or empty for all processors
+	 * @return CpEffectiveProperties layer
+	 */
+	protected synchronized CpEffectiveProperties getPropertyLayer(String processorName) {
+		if(propertyLayers == null) {
+			propertyLayers = new HashMap<String, CpEffectiveProperties>();
+		}
+		CpEffectiveProperties layer = propertyLayers.get(processorName);
+		if(layer != null) {
+			return layer;
+		}
+		layer = new CpEffectiveProperties(this);
+		layer.addProperties(this, processorName);
+		ICpDeviceItem parent = getDeviceItemParent();
+		if(parent instanceof CpDeviceItem) {
+			layer.inherit(((CpDeviceItem)parent).getPropertyLayer(processorName), processorName);
+		}
+		propertyLayers.put(processorName, layer);
+		return layer;
 	}
 
 	@Override
-	public synchronized ICpDebugConfiguration getDebugConfiguration(String processorName) {
-		if(debugConfigurations == null) {
-			// ensure filled processor collection
-			getProcessors();
-			// collect properties for all processors
-			debugConfigurations = new HashMap<String, ICpDebugConfiguration>();
-			for(Entry<String, ICpItem> e : processors.entrySet()) {
-				String pname = e.getKey();
-				CpDebugConfiguration debugConfig = new CpDebugConfiguration(this);
-				ICpItem processor = getProcessor(pname); 
-				// add processor attribute to the configuration
-				if(processor != null ) {
-					debugConfig.attributes().setAttributes(processor.attributes());
-				}
-				debugConfigurations.put(pname, debugConfig);
-				debugConfig.init( getEffectiveProperties(pname));
+	public ICpDebugConfiguration getDebugConfiguration(String processorName) {
+		ICpItem processor = getProcessor(processorName);
+		if(processor == null) {
+			return null;
+		}
+		ProcessorKey key = new ProcessorKey(this, processorName);
+		synchronized (debugConfigurations) {
+			ICpDebugConfiguration debugConfig = debugConfigurations.get(key);
+			if(debugConfig != null) {
+				return debugConfig;
 			}
 		}
-		return debugConfigurations.get(processorName);
+		CpDebugConfiguration debugConfig = new CpDebugConfiguration(this);
+		// add processor attribute to the configuration
+		debugConfig.attributes().setAttributes(processor.attributes());
+		debugConfig.init(getEffectiveProperties(processorName));
+		synchronized (debugConfigurations) {
+			ICpDebugConfiguration cached = debugConfigurations.get(key);
+			if(cached != null) {
+				return cached;
+			}
+			debugConfigurations.put(key, debugConfig);
+		}
+		return debugConfig;
+	}
+
+	/**
+	 * Clears caches of effective properties and debug configurations, must be called when packs are unloaded
+	 */
+	public static void clearCaches() {
+		synchronized (effectiveProperties) {
+			effectiveProperties.clear();
+		}
+		synchronized (debugConfigurations) {
+			debugConfigurations.clear();
+		}
 	}
 
 	@Override
@@ -0,0 +1,129 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+
+/**
+ * Layer of effective device properties for a processor.
+ * <p/>
+ * A layer stores only own properties of a device hierarchy level, properties of upper levels
+ * are taken from the inherited layer of the parent level that is shared by all its sub-items.
+ * Own unique properties override inherited ones with the same ID.
+ * <p/>
+ * Children are combined on each call to {@link #getChildren()}: own properties first, followed by inherited ones.
+ * A layer must not be modified after {@link #inherit(CpEffectiveProperties, String)} is called.
+ */
+public class CpEffectiveProperties extends CpItem {
+
+	private CpEffectiveProperties fInherited = null; // layer of the parent level
+	private Set<String> fOverriddenIds = null; // IDs of inherited properties replaced by own ones
+
+	/**
+	 * Creates an empty layer
+	 * @param parent device item the properties belong to
+	 */
+	public CpEffectiveProperties(ICpItem parent) {
+		super(parent);
+	}
+
+	/**
+	 * Adds attributes and properties of a device item matching given processor,
+	 * processor properties are skipped: they are collected by {@link ICpDeviceItem#getProcessors()}
+	 * @param deviceItem ICpDeviceItem to add properties of
+	 * @param processorName processor name, null or empty to add properties of all processors
+	 */
+	public void addProperties(ICpDeviceItem deviceItem, String processorName) {
+		attributes().mergeAttributes(deviceItem.attributes());
+		Collection<? extends ICpItem> children = deviceItem.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(ICpItem p : children) {
+			if(p.getTag().equals(CmsisConstants.PROCESSOR_TAG)) {
+				continue;
+			}
+			String itemPname = p.getProcessorName();
+			if(processorName == null || processorName.isEmpty() || itemPname.isEmpty() || itemPname.equals(processorName)) {
+				mergeProperty(p, processorName);
+			}
+		}
+	}
+
+	/**
+	 * Sets layer to inherit properties from, merges inherited attributes into own attributes and properties
+	 * @param inherited CpEffectiveProperties of the parent level, can be null
+	 * @param processorName processor name used to collect the properties
+	 */
+	public synchronized void inherit(CpEffectiveProperties inherited, String processorName) {
+		if(inherited == null) {
+			return;
+		}
+		// add missing attributes, but do not replace existing ones (we go down-up)
+		attributes().mergeAttributes(inherited.attributes());
+		Collection<? extends ICpItem> own = super.getChildren();
+		if(own != null) {
+			for(ICpItem p : own) {
+				if(!p.isUnique()) {
+					continue;
+				}
+				String id = p.getId();
+				ICpItem base = inherited.getProperty(id);
+				if(base == null) {
+					continue;
+				}
+				p.mergeEffectiveContent(base, processorName);
+				if(fOverriddenIds == null) {
+					fOverriddenIds = new HashSet<String>();
+				}
+				fOverriddenIds.add(id);
+			}
+		}
+		fInherited = inherited;
+	}
+
+	/**
+	 * Returns layer this one inherits properties from
+	 * @return inherited CpEffectiveProperties or null if this layer is the top one
+	 */
+	public CpEffectiveProperties getInherited() {
+		return fInherited;
+	}
+
+	@Override
+	public synchronized Collection<? extends ICpItem> getChildren() {
+		Collection<? extends ICpItem> own = super.getChildren();
+		if(fInherited == null) {
+			return own;
+		}
+		Collection<? extends ICpItem> inherited = fInherited.getChildren();
+		if(inherited == null || inherited.isEmpty()) {
+			return own;
+		}
+		List<ICpItem> children = new ArrayList<ICpItem>(inherited.size() + (own != null ? own.size() : 0));
+		if(own != null) {
+			children.addAll(own);
+		}
+		for(ICpItem p : inherited) {
+			if(fOverriddenIds == null || !p.isUnique() || !fOverriddenIds.contains(p.getId())) {
+				children.add(p);
+			}
+		}
+		return children;
+	}
+}
@@ -25,9 +25,12 @@ import org.eclipse.core.runtime.Path;
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.enums.EEvaluationResult;
 import com.arm.cmsis.pack.enums.EVersionMatchMode;
+import com.arm.cmsis.pack.generic.CompactAttributes;
 import com.arm.cmsis.pack.generic.IAttributes;
 import com.arm.cmsis.pack.item.CmsisTreeItem;
+import com.arm.cmsis.pack.item.IndexedChildren;
 import com.arm.cmsis.pack.utils.AlnumComparator;
+import com.arm.cmsis.pack.utils.SemanticVersion;
 
 /**
  * Default implementation of ICpItem interface
@@ -67,6 +70,13 @@ public class CpItem extends CmsisTreeItem<ICpItem> implements ICpItem {
 		return fAttributes;
 	}
 
+	@Override
+	public void compactAttributes() {
+		if(!(fAttributes instanceof CompactAttributes)) {
+			fAttributes = new CpCompactAttributes(fAttributes);
+		}
+	}
+
 	@Override
 	public String getAttribute(String key) {
 		 // Proxy method to get attribute from attributes 
@@ -172,6 +182,10 @@ public class CpItem extends CmsisTreeItem<ICpItem> implements ICpItem {
 
 	@Override
 	public ICpItem getProperty(String id) {
+		IndexedChildren<ICpItem> indexedChildren = getIndexedChildren();
+		if(indexedChildren != null) {
+			return indexedChildren.getFirstById(id);
+		}
 		Collection<? extends ICpItem> children = getChildren();
 		if(children != null) {
 			for(ICpItem item : children){
@@ -196,6 +210,11 @@ public class CpItem extends CmsisTreeItem<ICpItem> implements ICpItem {
 	@Override
 	public Collection<ICpItem> getChildren(String tag) {
 		List<ICpItem> tagChildren = new LinkedList<ICpItem>();
+		IndexedChildren<ICpItem> indexedChildren = getIndexedChildren();
+		if(indexedChildren != null) {
+			tagChildren.addAll(indexedChildren.getAll(tag));
+			return tagChildren;
+		}
 		Collection<? extends ICpItem> children = getChildren();
 		if(children != null) {
 			for(ICpItem item: children) {
@@ -211,6 +230,12 @@ public class CpItem extends CmsisTreeItem<ICpItem> implements ICpItem {
 	protected List<ICpItem> children() {
 		return (List<ICpItem>)super.children();
 	}
+
+	@Override
+	protected Collection<ICpItem> createCollection() {
+		// pack items are looked up by tag and ID
+		return new IndexedChildren<ICpItem>(this::getItemKey, ICpItem::getId);
+	}
 	
 	@Override
 	public ICpItem createItem(ICpItem parent, String tag) {
@@ -423,6 +448,11 @@ public class CpItem extends CmsisTreeItem<ICpItem> implements ICpItem {
 		return null;
 	}
 
+	@Override
+	public SemanticVersion getSemanticVersion() {
+		return SemanticVersion.valueOf(getVersion());
+	}
+
 	@Override
 	public String getDescription() {
 		ICpItem descr = getFirstChild(CmsisConstants.DESCRIPTION);
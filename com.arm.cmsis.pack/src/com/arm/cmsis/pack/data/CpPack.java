@@ -13,9 +13,13 @@ package com.arm.cmsis.pack.data;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -23,8 +27,11 @@ import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
 
 import com.arm.cmsis.pack.CpPlugIn;
+import com.arm.cmsis.pack.ICpPackManager;
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.generic.IAttributes;
+import com.arm.cmsis.pack.item.IndexedChildren;
+import com.arm.cmsis.pack.utils.SemanticVersion;
 import com.arm.cmsis.pack.utils.VersionComparator;
 
 /**
@@ -34,9 +41,12 @@ public class CpPack extends CpRootItem implements ICpPack {
 
 	private String installDir = null;
 	private String version = null;
+	private SemanticVersion semanticVersion = null;
 	private PackState state = PackState.UNKNOWN;
 	private Map<String, ICpItem> conditions = null; // sorted map for quick access to conditions
 	private Set<String> deviceNames = null;
+	private volatile Set<String> deferredSections = null; // sections to load on first access
+	private ICpPackManager deferredLoader = null; // pack manager to parse deferred sections
 
 	public CpPack() {
 		this(NULL_CPITEM);
@@ -65,6 +75,139 @@ public class CpPack extends CpRootItem implements ICpPack {
 		return super.createItem(parent, tag);
 	}
 
+	@Override
+	public synchronized void setDeferredSections(Set<String> tags, ICpPackManager packManager) {
+		if(tags == null || tags.isEmpty() || packManager == null) {
+			deferredSections = null;
+			deferredLoader = null;
+		} else {
+			deferredLoader = packManager;
+			deferredSections = new HashSet<String>(tags);
+		}
+	}
+
+	@Override
+	public boolean hasDeferredSections() {
+		return deferredSections != null;
+	}
+
+	/**
+	 * Loads sections skipped during parsing from pdsc file and inserts them at their positions in the file,
+	 * so that children follow the file order as if the pack was completely loaded.
+	 * If the file cannot be parsed the pack stays without the sections, the error is reported by the pack manager
+	 */
+	protected void loadDeferredSections() {
+		if(deferredSections == null) {
+			return;
+		}
+		synchronized (this) {
+			Set<String> tags = deferredSections;
+			if(tags == null) {
+				return; // loaded by another thread
+			}
+			List<String> sectionTags = new ArrayList<String>();
+			ICpItem item = deferredLoader.parseDeferredSections(this, sectionTags);
+			if(item != null && item.hasChildren()) {
+				Map<String, List<ICpItem>> sections = new HashMap<String, List<ICpItem>>();
+				for(Iterator<? extends ICpItem> iterator = item.getChildren().iterator(); iterator.hasNext();) {
+					ICpItem section = iterator.next();
+					if(tags.contains(section.getTag())) {
+						iterator.remove();
+						section.setParent(this);
+						addSection(sections, section);
+					}
+				}
+				insertSections(sections, sectionTags);
+			}
+			deferredSections = null;
+			deferredLoader = null;
+		}
+	}
+
+	private static void addSection(Map<String, List<ICpItem>> sections, ICpItem section) {
+		List<ICpItem> list = sections.get(section.getTag());
+		if(list == null) {
+			list = new LinkedList<ICpItem>();
+			sections.put(section.getTag(), list);
+		}
+		list.add(section);
+	}
+
+	/**
+	 * Rebuilds children list in file order: loaded children and deferred sections are taken by their tags
+	 * @param deferred deferred sections by tag in file order
+	 * @param sectionTags tags of all pack sections in file order
+	 */
+	private void insertSections(Map<String, List<ICpItem>> deferred, List<String> sectionTags) {
+		Map<String, List<ICpItem>> loaded = new HashMap<String, List<ICpItem>>();
+		if(fChildren != null) {
+			for(ICpItem child : fChildren) {
+				addSection(loaded, child);
+			}
+		}
+		List<ICpItem> children = new ArrayList<ICpItem>();
+		for(String tag : sectionTags) {
+			List<ICpItem> list = deferred.containsKey(tag) ? deferred.get(tag) : loaded.get(tag);
+			if(list != null && !list.isEmpty()) {
+				children.add(list.remove(0));
+			}
+		}
+		// items not found in the file, should not happen
+		for(List<ICpItem> list : loaded.values()) {
+			children.addAll(list);
+		}
+		for(List<ICpItem> list : deferred.values()) {
+			children.addAll(list);
+		}
+		fChildren = null;
+		for(ICpItem child : children) {
+			addChild(child);
+		}
+	}
+
+	@Override
+	public Collection<? extends ICpItem> getChildren() {
+		loadDeferredSections();
+		return super.getChildren();
+	}
+
+	@Override
+	public boolean hasChildren() {
+		// the pack always has header children, no need to load deferred sections
+		return fChildren != null && !fChildren.isEmpty();
+	}
+
+	@Override
+	public ICpItem getFirstChild(String key) {
+		if(key == null) {
+			return null;
+		}
+		Set<String> tags = deferredSections;
+		if(tags != null && tags.contains(key)) {
+			loadDeferredSections();
+		}
+		return super.getFirstChild(key);
+	}
+
+	@Override
+	public Collection<ICpItem> getChildren(String tag) {
+		Set<String> tags = deferredSections;
+		if(tags != null && tags.contains(tag)) {
+			loadDeferredSections();
+		}
+		return super.getChildren(tag);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected IndexedChildren<ICpItem> getIndexedChildren() {
+		// loaded children only: callers load deferred sections they need
+		if(fChildren instanceof IndexedChildren) {
+			return (IndexedChildren<ICpItem>)fChildren;
+		}
+		return null;
+	}
+
 	@Override
 	public PackState getPackState() {
 		return state;
@@ -179,6 +322,14 @@ public class CpPack extends CpRootItem implements ICpPack {
 		return version;
 	}
 
+	@Override
+	public synchronized SemanticVersion getSemanticVersion() {
+		if(semanticVersion == null) {
+			semanticVersion = SemanticVersion.valueOf(getVersion());
+		}
+		return semanticVersion;
+	}
+
 
 	@Override
 	public synchronized String getUrl() {
@@ -0,0 +1,435 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.arm.cmsis.pack.DeviceVendor;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.enums.ESearchCategory;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * In-memory inverted index of packs, devices, boards and examples.
+ * <p/>
+ * For each category the index keeps a sorted vocabulary that maps lower-case tokens to items containing them.
+ * Compound tokens are also indexed by their parts, for instance "cortex-m4" by "cortex" and "m4".
+ * Tokens of each indexed item are remembered per pack, so that a pack can be removed without re-indexing other packs.
+ * Search looks up each term as a prefix range in the vocabulary, only terms starting with a wild card scan it.
+ * <p/>
+ * A category is indexed by {@link #indexCategory(ESearchCategory)} or on the first search in it,
+ * for instance examples are not read from packs loaded with deferred sections until examples are searched.
+ * Items are read from packs without holding the index lock, so that searches in indexed categories are not blocked.
+ */
+public class CpSearchIndex implements ICpSearchIndex {
+
+	// characters that belong to a token in addition to letters and digits, for instance "Cortex-M0+" or "STM32F4xx_DFP.2.1.0"
+	private static final String TOKEN_CHARS = "-_.+#*?"; //$NON-NLS-1$
+	// characters removed from token start and end, for instance sentence punctuation
+	private static final String TRIM_CHARS = "-_."; //$NON-NLS-1$
+	// characters that make a search term a wild card pattern, see CompiledWildcard.isLiteral()
+	private static final String WILDCARD_CHARS = "*?["; //$NON-NLS-1$
+
+	/**
+	 * Indexed item and its tokens
+	 */
+	private static class IndexEntry {
+		final ICpItem item;
+		final ESearchCategory category;
+		final Collection<String> tokens;
+
+		IndexEntry(ICpItem item, ESearchCategory category, Collection<String> tokens) {
+			this.item = item;
+			this.category = category;
+			this.tokens = tokens;
+		}
+	}
+
+	private final Map<ESearchCategory, NavigableMap<String, Set<ICpItem>>> fTokens = new EnumMap<ESearchCategory, NavigableMap<String, Set<ICpItem>>>(ESearchCategory.class);
+	private final Map<ICpPack, List<IndexEntry>> fPackEntries = new LinkedHashMap<ICpPack, List<IndexEntry>>();
+	private final Set<ESearchCategory> fIndexedCategories = EnumSet.noneOf(ESearchCategory.class);
+
+	public CpSearchIndex() {
+		for(ESearchCategory category : ESearchCategory.values()) {
+			fTokens.put(category, new TreeMap<String, Set<ICpItem>>());
+		}
+	}
+
+	/**
+	 * Creates index of given packs
+	 * @param packs collection of ICpPack to index
+	 */
+	public CpSearchIndex(Collection<ICpPack> packs) {
+		this();
+		if(packs == null) {
+			return;
+		}
+		for(ICpPack pack : packs) {
+			addPack(pack);
+		}
+	}
+
+	/**
+	 * Splits text into lower-case tokens
+	 * @param text text to split, can be null
+	 * @return ordered set of unique tokens
+	 */
+	public static Set<String> tokenize(String text) {
+		Set<String> tokens = new LinkedHashSet<String>();
+		addTokens(tokens, text);
+		return tokens;
+	}
+
+	protected static void addTokens(Set<String> tokens, String text) {
+		if(text == null || text.isEmpty()) {
+			return;
+		}
+		int len = text.length();
+		int start = -1;
+		for(int i = 0; i <= len; i++) {
+			boolean bTokenChar = false;
+			if(i < len) {
+				char ch = text.charAt(i);
+				bTokenChar = Character.isLetterOrDigit(ch) || TOKEN_CHARS.indexOf(ch) >= 0;
+			}
+			if(bTokenChar) {
+				if(start < 0) {
+					start = i;
+				}
+			} else if(start >= 0) {
+				addToken(tokens, text, start, i);
+				start = -1;
+			}
+		}
+	}
+
+	private static void addToken(Set<String> tokens, String text, int start, int end) {
+		while(start < end && TRIM_CHARS.indexOf(text.charAt(start)) >= 0) {
+			start++;
+		}
+		while(end > start && TRIM_CHARS.indexOf(text.charAt(end - 1)) >= 0) {
+			end--;
+		}
+		if(start < end) {
+			tokens.add(text.substring(start, end).toLowerCase());
+		}
+	}
+
+	/**
+	 * Adds parts of compound tokens separated by trimmed characters, for instance "m4" of "cortex-m4"
+	 * @param tokens set of tokens to extend
+	 */
+	protected static void addTokenParts(Set<String> tokens) {
+		List<String> parts = new ArrayList<String>();
+		for(String token : tokens) {
+			int start = 0;
+			for(int i = 0; i <= token.length(); i++) {
+				if(i < token.length() && TRIM_CHARS.indexOf(token.charAt(i)) < 0) {
+					continue;
+				}
+				// a token without separators is not a part of itself
+				if(start < i && (start > 0 || i < token.length())) {
+					parts.add(token.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		tokens.addAll(parts);
+	}
+
+	@Override
+	public synchronized void addPack(ICpPack pack) {
+		if(pack == null) {
+			return;
+		}
+		removePack(pack);
+		List<IndexEntry> entries = new ArrayList<IndexEntry>();
+		fPackEntries.put(pack, entries);
+		for(ESearchCategory category : fIndexedCategories) {
+			addPackItems(entries, pack, category);
+		}
+		addToVocabulary(entries);
+	}
+
+	@Override
+	public synchronized boolean isIndexed(ESearchCategory category) {
+		return fIndexedCategories.contains(category);
+	}
+
+	@Override
+	public void indexCategory(ESearchCategory category) {
+		Collection<ICpPack> packs;
+		synchronized (this) {
+			if(fIndexedCategories.contains(category)) {
+				return;
+			}
+			packs = new ArrayList<ICpPack>(fPackEntries.keySet());
+		}
+		// read items without holding the lock: reading can parse deferred pack sections
+		Map<ICpPack, List<IndexEntry>> packEntries = new HashMap<ICpPack, List<IndexEntry>>();
+		for(ICpPack pack : packs) {
+			List<IndexEntry> entries = new ArrayList<IndexEntry>();
+			addPackItems(entries, pack, category);
+			packEntries.put(pack, entries);
+		}
+		synchronized (this) {
+			if(!fIndexedCategories.add(category)) {
+				return; // indexed concurrently
+			}
+			for(Entry<ICpPack, List<IndexEntry>> e : fPackEntries.entrySet()) {
+				ICpPack pack = e.getKey();
+				List<IndexEntry> entries = packEntries.get(pack);
+				if(entries == null) { // pack is added in the meantime
+					entries = new ArrayList<IndexEntry>();
+					addPackItems(entries, pack, category);
+				}
+				e.getValue().addAll(entries);
+				addToVocabulary(entries);
+			}
+		}
+	}
+
+	protected void addPackItems(List<IndexEntry> entries, ICpPack pack, ESearchCategory category) {
+		switch(category) {
+		case PACK:
+			Set<String> tokens = new LinkedHashSet<String>();
+			addTokens(tokens, pack.getName());
+			addTokens(tokens, pack.getVendor());
+			addTokens(tokens, pack.getVersion());
+			addTokens(tokens, pack.getId());
+			addTokens(tokens, pack.getDescription());
+			addEntry(entries, pack, ESearchCategory.PACK, tokens);
+			return;
+		case DEVICE:
+			Collection<? extends ICpItem> devices = pack.getGrandChildren(CmsisConstants.DEVICES_TAG);
+			if(devices != null) {
+				for(ICpItem item : devices) {
+					if(item instanceof ICpDeviceItem) {
+						addDevice(entries, (ICpDeviceItem)item);
+					}
+				}
+			}
+			return;
+		case BOARD:
+			Collection<? extends ICpItem> boards = pack.getGrandChildren(CmsisConstants.BOARDS_TAG);
+			if(boards != null) {
+				for(ICpItem item : boards) {
+					if(item instanceof ICpBoard) {
+						addBoard(entries, (ICpBoard)item);
+					}
+				}
+			}
+			return;
+		case EXAMPLE:
+			Collection<? extends ICpItem> examples = pack.getGrandChildren(CmsisConstants.EXAMPLES_TAG);
+			if(examples != null) {
+				for(ICpItem item : examples) {
+					if(item instanceof ICpExample) {
+						addExample(entries, (ICpExample)item);
+					}
+				}
+			}
+			return;
+		default:
+			break;
+		}
+	}
+
+	protected void addDevice(List<IndexEntry> entries, ICpDeviceItem device) {
+		Set<String> tokens = new LinkedHashSet<String>();
+		addTokens(tokens, device.getName());
+		addTokens(tokens, DeviceVendor.getOfficialVendorName(device.getVendor()));
+		// processors are effective ones: include cores of parent levels
+		for(Entry<String, ICpItem> e : device.getProcessors().entrySet()) {
+			addTokens(tokens, e.getKey());
+			addTokens(tokens, e.getValue().getAttribute(CmsisConstants.DCORE));
+		}
+		addTokens(tokens, device.getDescription());
+		addEntry(entries, device, ESearchCategory.DEVICE, tokens);
+
+		Collection<ICpDeviceItem> subItems = device.getDeviceItems();
+		if(subItems == null) {
+			return;
+		}
+		for(ICpDeviceItem item : subItems) {
+			addDevice(entries, item);
+		}
+	}
+
+	protected void addBoard(List<IndexEntry> entries, ICpBoard board) {
+		Set<String> tokens = new LinkedHashSet<String>();
+		addTokens(tokens, board.getName());
+		addTokens(tokens, DeviceVendor.getOfficialVendorName(board.getVendor()));
+		addTokens(tokens, board.getAttribute(CmsisConstants.REVISION));
+		Collection<ICpItem> mountedDevices = board.getMountedDevices();
+		if(mountedDevices != null) {
+			for(ICpItem device : mountedDevices) {
+				addTokens(tokens, device.getAttribute(CmsisConstants.DNAME));
+			}
+		}
+		addTokens(tokens, board.getDescription());
+		addEntry(entries, board, ESearchCategory.BOARD, tokens);
+	}
+
+	protected void addExample(List<IndexEntry> entries, ICpExample example) {
+		Set<String> tokens = new LinkedHashSet<String>();
+		addTokens(tokens, example.getAttribute(CmsisConstants.NAME));
+		ICpItem board = example.getFirstChild(CmsisConstants.BOARD_TAG);
+		if(board != null) {
+			addTokens(tokens, board.getAttribute(CmsisConstants.NAME));
+			addTokens(tokens, DeviceVendor.getOfficialVendorName(board.getVendor()));
+		}
+		addTokens(tokens, example.getDescription());
+		addEntry(entries, example, ESearchCategory.EXAMPLE, tokens);
+	}
+
+	private void addEntry(List<IndexEntry> entries, ICpItem item, ESearchCategory category, Set<String> tokens) {
+		if(tokens.isEmpty()) {
+			return;
+		}
+		addTokenParts(tokens);
+		entries.add(new IndexEntry(item, category, tokens));
+	}
+
+	private void addToVocabulary(List<IndexEntry> entries) {
+		for(IndexEntry entry : entries) {
+			Map<String, Set<ICpItem>> categoryTokens = fTokens.get(entry.category);
+			for(String token : entry.tokens) {
+				Set<ICpItem> items = categoryTokens.get(token);
+				if(items == null) {
+					items = new HashSet<ICpItem>();
+					categoryTokens.put(token, items);
+				}
+				items.add(entry.item);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void removePack(ICpPack pack) {
+		List<IndexEntry> entries = fPackEntries.remove(pack);
+		if(entries == null) {
+			return;
+		}
+		for(IndexEntry entry : entries) {
+			Map<String, Set<ICpItem>> categoryTokens = fTokens.get(entry.category);
+			for(String token : entry.tokens) {
+				Set<ICpItem> items = categoryTokens.get(token);
+				if(items == null) {
+					continue;
+				}
+				items.remove(entry.item);
+				if(items.isEmpty()) {
+					categoryTokens.remove(token);
+				}
+			}
+		}
+	}
+
+	@Override
+	public synchronized Collection<ICpPack> getPacks() {
+		return new ArrayList<ICpPack>(fPackEntries.keySet());
+	}
+
+	@Override
+	public synchronized void clear() {
+		fPackEntries.clear();
+		fIndexedCategories.clear();
+		for(NavigableMap<String, Set<ICpItem>> categoryTokens : fTokens.values()) {
+			categoryTokens.clear();
+		}
+	}
+
+	@Override
+	public Set<ICpItem> search(ESearchCategory category, String text) {
+		indexCategory(category);
+		synchronized (this) {
+			return search(fTokens.get(category), text);
+		}
+	}
+
+	private static Set<ICpItem> search(NavigableMap<String, Set<ICpItem>> categoryTokens, String text) {
+		Set<ICpItem> result = null;
+		for(String term : tokenize(text)) {
+			Set<ICpItem> matches = matchTerm(categoryTokens, term);
+			if(result == null) {
+				result = matches;
+			} else {
+				result.retainAll(matches);
+			}
+			if(result.isEmpty()) {
+				break;
+			}
+		}
+		if(result == null) {
+			return new HashSet<ICpItem>();
+		}
+		return result;
+	}
+
+	private static Set<ICpItem> matchTerm(NavigableMap<String, Set<ICpItem>> categoryTokens, String term) {
+		Set<ICpItem> matches = new HashSet<ICpItem>();
+		if(CompiledWildcard.isLiteral(term)) {
+			for(Set<ICpItem> items : prefixRange(categoryTokens, term).values()) {
+				matches.addAll(items);
+			}
+		} else {
+			// only tokens starting with the literal part of the term can match
+			int prefixLength = 0;
+			while(prefixLength < term.length() && WILDCARD_CHARS.indexOf(term.charAt(prefixLength)) < 0) {
+				prefixLength++;
+			}
+			CompiledWildcard pattern = CompiledWildcard.compile(term + '*');
+			for(Entry<String, Set<ICpItem>> e : prefixRange(categoryTokens, term.substring(0, prefixLength)).entrySet()) {
+				if(pattern.match(e.getKey())) {
+					matches.addAll(e.getValue());
+				}
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Returns vocabulary range of tokens starting with given prefix
+	 * @param categoryTokens sorted vocabulary
+	 * @param prefix token prefix, empty string for the entire vocabulary
+	 * @return view of the vocabulary
+	 */
+	private static NavigableMap<String, Set<ICpItem>> prefixRange(NavigableMap<String, Set<ICpItem>> categoryTokens, String prefix) {
+		if(prefix.isEmpty()) {
+			return categoryTokens;
+		}
+		return categoryTokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+	}
+
+	@Override
+	public synchronized int getTokenCount() {
+		int count = 0;
+		for(NavigableMap<String, Set<ICpItem>> categoryTokens : fTokens.values()) {
+			count += categoryTokens.size();
+		}
+		return count;
+	}
+}
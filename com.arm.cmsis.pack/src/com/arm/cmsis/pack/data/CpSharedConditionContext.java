@@ -0,0 +1,76 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.Map;
+
+import com.arm.cmsis.pack.generic.IAttributes;
+
+/**
+ * Condition context that stores its results in {@link CpConditionResultCache}
+ * and reuses results of other contexts with the same attributes.
+ * <p/>
+ * Suitable for device and toolchain filtering only: results must not depend on anything but context attributes.
+ * Attributes must be set before {@link #resetResult()} is called, the context fingerprint is taken at that moment.
+ * Changing attributes afterwards detaches the context from shared results until the next {@link #resetResult()}.
+ */
+public class CpSharedConditionContext extends CpConditionContext {
+
+	public CpSharedConditionContext() {
+	}
+
+	@Override
+	public void resetResult() {
+		super.resetResult();
+		// The fingerprint is the complete sorted attribute set, the shared results are valid for any context with the same one.
+		// That holds because CpConditionContext evaluates only device and toolchain expressions against these attributes
+		// and ignores component expressions: a subclass that evaluates anything else must not use shared results.
+		fResults = CpConditionResultCache.getInstance().getResults(getAttributesAsString());
+	}
+
+	/**
+	 * Stops storing results in the shared cache: they would be stored under a fingerprint that no longer matches attributes
+	 */
+	protected void detachResults() {
+		fResults = null;
+	}
+
+	@Override
+	public synchronized void setAttribute(String key, String value) {
+		super.setAttribute(key, value);
+		detachResults();
+	}
+
+	@Override
+	public synchronized void removeAttribute(String key) {
+		super.removeAttribute(key);
+		detachResults();
+	}
+
+	@Override
+	public synchronized void setAttributes(Map<String, String> attributes) {
+		super.setAttributes(attributes);
+		detachResults();
+	}
+
+	@Override
+	public void setAttributes(String attributesString) {
+		super.setAttributes(attributesString);
+		detachResults();
+	}
+
+	@Override
+	public synchronized void setAttributes(IAttributes attributes) {
+		super.setAttributes(attributes);
+		detachResults();
+	}
+}
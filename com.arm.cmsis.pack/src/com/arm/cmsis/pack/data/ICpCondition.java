@@ -15,5 +15,10 @@ package com.arm.cmsis.pack.data;
  * Interface represent condition that is used to describe item dependencies 
  */
 public interface ICpCondition extends ICpItem {
-	 // currently is only used for type matching
+
+	/**
+	 * Returns compiled form of this condition, compiles all conditions of the pack on first call
+	 * @return CpConditionProgram
+	 */
+	CpConditionProgram getProgram();
 }
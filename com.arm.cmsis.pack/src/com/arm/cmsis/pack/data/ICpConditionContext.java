@@ -23,6 +23,9 @@ import com.arm.cmsis.pack.generic.IAttributes;
  * Caches overall evaluation result as well as results or individual conditions and expressionsf   
  * <p>
  * Underlying IAttributes provides methods to manage device and toolchain filter attributes  
+ * <p>
+ * Device and toolchain expressions are matched by {@link #matchAttribute(String, String, String)},
+ * implementations can override it to change the match method for particular attributes
  * @see EEvaluationResult  
  */
 public interface ICpConditionContext extends IAttributes, IEvaluationResult {
@@ -20,6 +20,7 @@ import com.arm.cmsis.pack.enums.EEvaluationResult;
 import com.arm.cmsis.pack.enums.EVersionMatchMode;
 import com.arm.cmsis.pack.generic.IAttributedItem;
 import com.arm.cmsis.pack.item.ICmsisTreeItem;
+import com.arm.cmsis.pack.utils.SemanticVersion;
 
 /**
  * Base for all items in CMSIS packs 
@@ -37,6 +38,13 @@ public interface ICpItem extends IAttributedItem, ICpItemFactory, ICmsisTreeItem
 	 */
 	String getId();
 	
+	/**
+	 * Replaces item's attribute storage with compact read-optimized one, 
+	 * called by parsers once all item attributes are set  
+	 * @see CpCompactAttributes
+	 */
+	void compactAttributes();
+	
 	/**
 	 * Returns pack item containing this item as ICpPack   
 	 * @return pack item owning the item tree
@@ -203,6 +211,12 @@ public interface ICpItem extends IAttributedItem, ICpItemFactory, ICmsisTreeItem
 	 * @return version of this element
 	 */
 	String getVersion();
+
+	/**
+	 * Returns parsed version of the element to compare it semantically
+	 * @return SemanticVersion of this element or null if the element has no version
+	 */
+	SemanticVersion getSemanticVersion();
 	
 	/**
 	 * Returns "Pname" attribute of the element representing device property 
@@ -14,6 +14,8 @@ package com.arm.cmsis.pack.data;
 import java.util.Collection;
 import java.util.Set;
 
+import com.arm.cmsis.pack.ICpPackManager;
+
 /**
  * Represents CMISIS Pack meta data read from pdsc file
  * Provides access method to underlying structure of the Pack
@@ -101,5 +103,19 @@ public interface ICpPack extends ICpRootItem {
 	 */
 	Collection<? extends ICpItem> getReleases();
 
+	/**
+	 * Sets tags of pack sections that were skipped when the pack was parsed.
+	 * The sections are loaded from the pdsc file on first access to them or to the child collection
+	 * @param tags set of top-level section tags to load on demand, null if the pack is completely loaded
+	 * @param packManager ICpPackManager that loaded the pack, used to parse deferred sections
+	 */
+	void setDeferredSections(Set<String> tags, ICpPackManager packManager);
+
+	/**
+	 * Checks if some pack sections are not loaded yet
+	 * @return true if the pack has deferred sections
+	 */
+	boolean hasDeferredSections();
+
 
 }
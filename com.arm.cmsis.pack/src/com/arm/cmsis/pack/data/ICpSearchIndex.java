@@ -0,0 +1,82 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.data;
+
+import java.util.Collection;
+import java.util.Set;
+
+import com.arm.cmsis.pack.enums.ESearchCategory;
+
+/**
+ * Full-text index of packs, devices, boards and examples
+ * <p/>
+ * Texts are split into lower-case tokens, each token refers to items containing it.
+ * The index is updated per pack: a pack is added when it is loaded or installed and removed when it disappears.
+ * Items of a category are indexed by {@link #indexCategory(ESearchCategory)} or on the first search in that category.
+ */
+public interface ICpSearchIndex {
+
+	/**
+	 * Adds pack and its devices, boards and examples to the index, replaces previously added content of the same pack
+	 * @param pack ICpPack to add
+	 */
+	void addPack(ICpPack pack);
+
+	/**
+	 * Removes pack and its devices, boards and examples from the index
+	 * @param pack ICpPack to remove
+	 */
+	void removePack(ICpPack pack);
+
+	/**
+	 * Returns indexed packs
+	 * @return collection of indexed packs
+	 */
+	Collection<ICpPack> getPacks();
+
+	/**
+	 * Clears the index
+	 */
+	void clear();
+
+	/**
+	 * Checks if items of given category are indexed
+	 * @param category ESearchCategory to check
+	 * @return true if the category can be searched without reading pack items
+	 */
+	boolean isIndexed(ESearchCategory category);
+
+	/**
+	 * Indexes items of given category in all packs if not done yet.
+	 * <p/>
+	 * Can take long and parse deferred pack sections: UI should call it from a background job
+	 * @param category ESearchCategory to index
+	 */
+	void indexCategory(ESearchCategory category);
+
+	/**
+	 * Searches items of given category.
+	 * <p/>
+	 * The text is split into terms the same way as indexed texts, an item matches if each term is a prefix of at least one of its tokens.
+	 * Terms may contain wild cards <code>'*'</code> and <code>'?'</code>, for instance <code>"*F407"</code> matches "stm32f407vg".
+	 * @param category ESearchCategory of items to search
+	 * @param text search text, for instance <code>"STM32F4 Cortex-M4"</code>
+	 * @return set of matching items, empty if nothing matches or text contains no terms
+	 */
+	Set<ICpItem> search(ESearchCategory category, String text);
+
+	/**
+	 * Returns number of distinct tokens in the index
+	 * @return token count
+	 */
+	int getTokenCount();
+}
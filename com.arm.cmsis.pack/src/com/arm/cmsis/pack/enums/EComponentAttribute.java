@@ -13,8 +13,8 @@ package com.arm.cmsis.pack.enums;
 
 import com.arm.cmsis.pack.DeviceVendor;
 import com.arm.cmsis.pack.common.CmsisConstants;
-import com.arm.cmsis.pack.utils.VersionComparator;
-import com.arm.cmsis.pack.utils.WildCards;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+import com.arm.cmsis.pack.utils.VersionRange;
 
 /**
  * Enumeration of component attributes Cclass, Cbundle, Cgroup, Csub, Cvariant, Cvendor, Cversion, CapiVersion and condition: 
@@ -76,7 +76,7 @@ public enum EComponentAttribute{
 		switch(this) {
 		case CVERSION:
 		case CAPIVERSION:
-			return VersionComparator.matchVersionRange(attributeValue, pattern);
+			return VersionRange.valueOf(pattern).match(attributeValue);
 		case CVENDOR:
 			return DeviceVendor.match(pattern,  attributeValue);
 		case CNONE:
@@ -84,7 +84,7 @@ public enum EComponentAttribute{
 		default:
 			break;
 		}
-		return WildCards.match(pattern, attributeValue);
+		return CompiledWildcard.match(pattern, attributeValue, true);
 	}
 	
 }
@@ -0,0 +1,40 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.enums;
+
+/**
+ * Enumeration of device parameters stored in a device table, used to sort device query results:
+ * <dl>
+ * <dt>NAME</dt>
+ *		<dd>device name, including processor name for multi-core devices</dd>
+ * <dt>VENDOR</dt>
+ *		<dd>official device vendor name</dd>
+ * <dt>CORE, FPU, MPU, ENDIAN, CLOCK</dt>
+ *		<dd>processor attributes: Dcore, Dfpu, Dmpu, Dendian and Dclock</dd>
+ * <dt>ROM_SIZE, RAM_SIZE</dt>
+ *		<dd>total size of ROM and RAM memory regions</dd>
+ * <dt>PACK_ID</dt>
+ *		<dd>ID of the pack the device is taken from</dd>
+ * </dl>
+ */
+public enum EDeviceParameter {
+	NAME,
+	VENDOR,
+	CORE,
+	FPU,
+	MPU,
+	ENDIAN,
+	CLOCK,
+	ROM_SIZE,
+	RAM_SIZE,
+	PACK_ID;
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.enums;
+
+/**
+ * Enumeration of item categories stored in a search index:
+ * <dl>
+ * <dt>PACK</dt>
+ *		<dd>ICpPack items: pack name, vendor, version and description</dd>
+ * <dt>DEVICE</dt>
+ *		<dd>ICpDeviceItem items of all hierarchy levels: name, vendor, processor cores and description</dd>
+ * <dt>BOARD</dt>
+ *		<dd>ICpBoard items: name, vendor, revision, mounted devices and description</dd>
+ * <dt>EXAMPLE</dt>
+ *		<dd>ICpExample items: name, board and description</dd>
+ * </dl>
+ */
+public enum ESearchCategory {
+	PACK,
+	DEVICE,
+	BOARD,
+	EXAMPLE;
+}
@@ -26,6 +26,7 @@ public class RteEvent {
 	public static final String COMPONENT_SHOW = "com.arm.cmsis.pack.rte.component.show"; //$NON-NLS-1$
 
 	public static final String PACKS_RELOADED = "com.arm.cmsis.pack.reloaded"; //$NON-NLS-1$
+	public static final String PACKS_UPDATED = "com.arm.cmsis.pack.updated"; //$NON-NLS-1$ data is RtePacksDelta
 	public static final String PACK_INSTALL_JOB_FINISHED = "com.arm.cmsis.pack.installed"; //$NON-NLS-1$
 	public static final String PACK_REMOVE_JOB_FINISHED = "com.arm.cmsis.pack.removed"; //$NON-NLS-1$
 	public static final String PACK_DELETE_JOB_FINISHED = "com.arm.cmsis.pack.deleted"; //$NON-NLS-1$
@@ -0,0 +1,67 @@
+/*******************************************************************************
+* Copyright (c) 2016 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.events;
+
+import java.util.Collection;
+import java.util.LinkedList;
+
+import com.arm.cmsis.pack.data.ICpPack;
+
+/**
+ * Changes applied to pack collections by an incremental reload, sent as data of {@link RteEvent#PACKS_UPDATED} event.
+ * <p/>
+ * A pack read from a modified pdsc file is reported as removed (old instance) and added (new instance).
+ */
+public class RtePacksDelta {
+
+	private Collection<ICpPack> addedPacks = new LinkedList<ICpPack>();
+	private Collection<ICpPack> removedPacks = new LinkedList<ICpPack>();
+
+	/**
+	 * @return the added packs including error packs
+	 */
+	public Collection<ICpPack> getAddedPacks() {
+		return addedPacks;
+	}
+
+	/**
+	 * @return the removed packs including error packs
+	 */
+	public Collection<ICpPack> getRemovedPacks() {
+		return removedPacks;
+	}
+
+	/**
+	 * @param pack the added pack
+	 */
+	public void addAddedPack(ICpPack pack) {
+		if(pack != null) {
+			addedPacks.add(pack);
+		}
+	}
+
+	/**
+	 * @param pack the removed pack
+	 */
+	public void addRemovedPack(ICpPack pack) {
+		if(pack != null) {
+			removedPacks.add(pack);
+		}
+	}
+
+	/**
+	 * @return true if no pack has been added or removed
+	 */
+	public boolean isEmpty() {
+		return addedPacks.isEmpty() && removedPacks.isEmpty();
+	}
+}
@@ -0,0 +1,273 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.parser;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.arm.cmsis.pack.CpStrings;
+import com.arm.cmsis.pack.data.ICpItem;
+
+/**
+ * Base class to parse CMSIS pack-related files from StAX event stream.
+ * <p/>
+ * Unlike {@link CpXmlParser} no intermediate DOM is created: ICpItem tree is built directly while reading the file.
+ * The parser checks only that the file is well-formed, schema validation is not performed.
+ * Writing XML files is inherited from {@link CpXmlParser}
+ */
+public abstract class CpStaxParser extends CpXmlParser {
+
+	private XMLInputFactory inputFactory = null;
+
+	public CpStaxParser() {
+	}
+
+	public CpStaxParser(String xsdFile) {
+		super(xsdFile);
+	}
+
+	/**
+	 * Creates StAX input factory only: no DOM document builder and no schema are needed to read the stream
+	 */
+	@Override
+	public boolean init() {
+		if(inputFactory == null) {
+			inputFactory = XMLInputFactory.newInstance();
+			inputFactory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.TRUE);
+			inputFactory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+			inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		}
+		return true;
+	}
+
+	@Override
+	public ICpItem parseXmlString(String xml) {
+		clear();
+		this.xmlString = xml;
+		if(!init()) {
+			return null;
+		}
+
+		XMLStreamReader reader = null;
+		try {
+			reader = inputFactory.createXMLStreamReader(new StringReader(xml));
+			return parseStream(reader);
+		} catch (XMLStreamException e) {
+			addParseError(e);
+		} finally {
+			closeReader(reader);
+		}
+		return null;
+	}
+
+	@Override
+	public ICpItem parseFile(String file) {
+		clear();
+		this.xmlFile = file;
+		if(!init()) {
+			return null;
+		}
+
+		XMLStreamReader reader = null;
+		InputStream is = null;
+		long startTime = System.nanoTime();
+		try {
+			is = new BufferedInputStream(new FileInputStream(xmlFile));
+			reader = inputFactory.createXMLStreamReader(is);
+			return parseStream(reader);
+		} catch (XMLStreamException | IOException e) {
+			addParseError(e);
+		} finally {
+			parseTime = System.nanoTime() - startTime; // items are constructed while reading
+			closeReader(reader);
+			if(is != null) {
+				try {
+					is.close();
+				} catch (IOException e) {
+					e.printStackTrace();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Reads XML events and constructs ICpItem tree
+	 * @param reader XMLStreamReader to read from
+	 * @return root ICpItem or null if parsing failed
+	 * @throws XMLStreamException
+	 */
+	protected ICpItem parseStream(XMLStreamReader reader) throws XMLStreamException {
+		Deque<ICpItem> items = new ArrayDeque<ICpItem>(); // currently open items
+		StringBuilder text = null;  // text collected from consecutive character events
+		int ignoreDepth = 0; // > 0 while inside an ignored element
+		ICpItem root = null;
+
+		while(reader.hasNext()) {
+			int event = reader.next();
+			if(ignoreDepth > 0) {
+				if(event == XMLStreamConstants.START_ELEMENT) {
+					ignoreDepth++;
+				} else if(event == XMLStreamConstants.END_ELEMENT) {
+					ignoreDepth--;
+				}
+				continue;
+			}
+
+			if(event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.SPACE) {
+				if(text == null) {
+					text = new StringBuilder();
+				}
+				text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				continue;
+			}
+			// any other event finishes a text node: the last text node sets item text (as DOM parser does)
+			if(text != null) {
+				if(!items.isEmpty()) {
+					items.peek().setText(text.toString().trim());
+				}
+				text = null;
+			}
+
+			switch(event) {
+			case XMLStreamConstants.START_ELEMENT: {
+				String tag = getQualifiedName(reader.getPrefix(), reader.getLocalName());
+				if (items.size() == 1) {
+					sectionTags.add(tag);
+				}
+				if (isTagIgnored(tag)) {
+					ignoreDepth = 1;
+					break;
+				}
+				ICpItem parent = items.peek();
+				ICpItem item = createItem(parent, tag);
+				if(item == null) {
+					return null;
+				}
+				nItems++;
+				parseAttributes(reader, item);
+				// add child item here since parent implementation can query item attributes
+				if(parent != null) {
+					parent.addChild(item);
+				} else {
+					root = item;
+				}
+				items.push(item);
+				break;
+			}
+			case XMLStreamConstants.END_ELEMENT:
+				items.pop();
+				break;
+			default:
+				break;
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Sets item attributes from current element, namespace declarations are treated as attributes (as DOM parser does)
+	 * @param reader XMLStreamReader positioned at start element
+	 * @param item ICpItem to set attributes to
+	 */
+	protected void parseAttributes(XMLStreamReader reader, ICpItem item) {
+		int nNamespaces = reader.getNamespaceCount();
+		for(int i = 0; i < nNamespaces; i++) {
+			String prefix = reader.getNamespacePrefix(i);
+			String key = "xmlns"; //$NON-NLS-1$
+			if(prefix != null && !prefix.isEmpty()) {
+				key = getQualifiedName("xmlns", prefix); //$NON-NLS-1$
+			}
+			String value = reader.getNamespaceURI(i);
+			if(value != null) {
+				item.attributes().setAttribute(key, adjustAttributeValue(key, value.trim()));
+				nAttributes++;
+			}
+		}
+
+		int count = reader.getAttributeCount();
+		for(int i = 0; i < count; i++) {
+			String key = getQualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i));
+			if (key == null) {
+				continue;
+			}
+			key = key.trim();
+			if (key.isEmpty()) {
+				continue;
+			}
+			String value = reader.getAttributeValue(i);
+			if (value == null) {
+				continue;
+			}
+			value = adjustAttributeValue(key, value.trim());
+			item.attributes().setAttribute(key, value);
+			nAttributes++;
+		}
+		if(bCompactAttributes) {
+			item.compactAttributes();
+		}
+	}
+
+	/**
+	 * Returns qualified XML name in the form "prefix:localName"
+	 * @param prefix namespace prefix, can be null or empty
+	 * @param localName local name
+	 * @return qualified name
+	 */
+	protected static String getQualifiedName(String prefix, String localName) {
+		if(prefix == null || prefix.isEmpty() || localName == null) {
+			return localName;
+		}
+		return prefix + ':' + localName;
+	}
+
+	/**
+	 * Adds error string for a parsing exception
+	 * @param e exception to report
+	 */
+	protected void addParseError(Exception e) {
+		String err = CpStrings.CpXmlParser_ErrorParsingFile;
+		err += " " + xmlFile; //$NON-NLS-1$
+		if(e instanceof XMLStreamException) {
+			Location location = ((XMLStreamException)e).getLocation();
+			if(location != null && location.getLineNumber() > 0) {
+				err += "(" + location.getLineNumber() + "," + location.getColumnNumber() + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			}
+		}
+		err += "': "; //$NON-NLS-1$
+		err += e.toString();
+		errorStrings.add(err);
+		nErrors++;
+	}
+
+	private void closeReader(XMLStreamReader reader) {
+		if(reader == null) {
+			return;
+		}
+		try {
+			reader.close();
+		} catch (XMLStreamException e) {
+			e.printStackTrace();
+		}
+	}
+}
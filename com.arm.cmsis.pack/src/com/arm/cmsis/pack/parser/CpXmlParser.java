@@ -18,6 +18,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,12 +26,9 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import javax.xml.XMLConstants;
 import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -39,7 +37,7 @@ import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
-import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -67,15 +65,23 @@ public abstract class CpXmlParser implements ICpXmlParser {
 
 	protected String xsdFile = null;        // schema file with absolute path
 	protected Set<String> ignoreTags = null; // tags to ignore (partly parsed file)
+	protected List<String> sectionTags = new ArrayList<String>(); // tags of root element children, including ignored ones
 	protected Set<String> ignoreWriteTags = null; // tags to ignore when writing to xml file
+	protected boolean bSchemaValidation = true; // validate parsed files against xsdFile if it is set
+	protected boolean bCompactAttributes = false; // convert item attributes to compact storage
 
 	// errors for current file
 	protected List<String> errorStrings = new LinkedList<String>();
 	protected int nErrors = 0;
 	protected int nWarnings = 0;
 
-	// DOM
-	private DocumentBuilderFactory docBuilderFactory = null;
+	// statistics for current file
+	protected int nItems = 0;
+	protected int nAttributes = 0;
+	protected long parseTime = 0; // nanoseconds
+	protected long buildTime = 0; // nanoseconds
+
+	// DOM, builder is taken from CpXmlParserPool
 	private DocumentBuilder docBuilder = null;
 	protected XmlErrorHandler errorHandler = null;
 
@@ -92,8 +98,13 @@ public abstract class CpXmlParser implements ICpXmlParser {
 		xmlString = null;
 		rootItem 	= null;
 		errorStrings.clear();
+		sectionTags.clear();
 		nErrors   = 0;
 		nWarnings = 0;
+		nItems = 0;
+		nAttributes = 0;
+		parseTime = 0;
+		buildTime = 0;
 		if (docBuilder != null) {
 			docBuilder.reset();
 		}
@@ -107,9 +118,43 @@ public abstract class CpXmlParser implements ICpXmlParser {
 
 	@Override
 	public void setXsdFile(String xsdFile) {
+		if(xsdFile == null ? this.xsdFile != null : !xsdFile.equals(this.xsdFile)) {
+			release(); // builder with another schema is needed
+		}
 		this.xsdFile = xsdFile;
 	}
 
+	@Override
+	public void setSchemaValidation(boolean bValidate) {
+		if(bSchemaValidation != bValidate) {
+			release();
+		}
+		bSchemaValidation = bValidate;
+	}
+
+	@Override
+	public boolean isSchemaValidation() {
+		return bSchemaValidation;
+	}
+
+	@Override
+	public void setCompactAttributes(boolean bCompact) {
+		bCompactAttributes = bCompact;
+	}
+
+	@Override
+	public boolean isCompactAttributes() {
+		return bCompactAttributes;
+	}
+
+	@Override
+	public void release() {
+		if(docBuilder != null) {
+			CpXmlParserPool.getInstance().releaseDocumentBuilder(docBuilder);
+			docBuilder = null;
+		}
+	}
+
 	/**
 	 * @return the xmlFile
 	 */
@@ -132,12 +177,45 @@ public abstract class CpXmlParser implements ICpXmlParser {
 		return nWarnings;
 	}
 
+	/**
+	 * @return number of items created from current file
+	 */
+	public int getItemCount() {
+		return nItems;
+	}
+
+	/**
+	 * @return number of attributes set from current file
+	 */
+	public int getAttributeCount() {
+		return nAttributes;
+	}
+
+	/**
+	 * @return time in nanoseconds spent to read and parse XML of current file
+	 */
+	public long getParseTime() {
+		return parseTime;
+	}
+
+	/**
+	 * @return time in nanoseconds spent to construct items, 0 if items are constructed during XML parsing
+	 */
+	public long getBuildTime() {
+		return buildTime;
+	}
+
 
 	@Override
 	public void setIgnoreTags(Set<String> ignoreTags) {
 		this.ignoreTags = ignoreTags;
 	}
 
+	@Override
+	public List<String> getSectionTags() {
+		return sectionTags;
+	}
+
 	@Override
 	public void setWriteIgnoreTags(Set<String> ignoreTags) {
 		ignoreWriteTags = ignoreTags;
@@ -201,21 +279,24 @@ public abstract class CpXmlParser implements ICpXmlParser {
 
 	@Override
 	public boolean init() {
+		if(errorHandler == null) {
+			errorHandler = new XmlErrorHandler();
+		}
+		return initDocumentBuilder();
+	}
 
+	/**
+	 * Acquires pooled DOM document builder if not yet done, the builder is needed to parse and to write DOM documents
+	 * @return true if successful
+	 */
+	protected boolean initDocumentBuilder() {
+		if(errorHandler == null) {
+			errorHandler = new XmlErrorHandler();
+		}
 		try {
-			if(docBuilderFactory == null) {
-				docBuilderFactory = DocumentBuilderFactory.newInstance();
-				docBuilderFactory.setValidating(false);
-				docBuilderFactory.setNamespaceAware(true);
-				if (xsdFile != null && !xsdFile.isEmpty()) {
-					SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
-					Schema schema = schemaFactory.newSchema(new Source[] {new StreamSource(xsdFile)});
-					docBuilderFactory.setSchema(schema);
-				}
-			}
 			if(docBuilder == null){
-				docBuilder = docBuilderFactory.newDocumentBuilder();
-				errorHandler = new XmlErrorHandler();
+				Schema schema = bSchemaValidation ? getSchema() : null;
+				docBuilder = CpXmlParserPool.getInstance().acquireDocumentBuilder(schema);
 			}
 			docBuilder.setErrorHandler(errorHandler);
 		} catch (ParserConfigurationException e) {
@@ -227,6 +308,18 @@ public abstract class CpXmlParser implements ICpXmlParser {
 			docBuilder = null;
 			e.printStackTrace();
 			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns compiled schema shared by all parsers, reports an error if schema cannot be compiled
+	 * @return Schema or null if no xsd file is set or it cannot be compiled
+	 */
+	protected Schema getSchema() {
+		try {
+			return CpXmlParserPool.getInstance().getSchema(xsdFile);
 		} catch (SAXException e) {
 			String err = CpStrings.CpXmlParser_ErrorSchemaInit;
 			err += " " +  xsdFile; //$NON-NLS-1$
@@ -234,11 +327,40 @@ public abstract class CpXmlParser implements ICpXmlParser {
 			err += e.toString();
 			errorStrings.add(err);
 			nErrors++;
-			docBuilder = null;
 			e.printStackTrace();
 		}
+		return null;
+	}
 
-		return true;
+	@Override
+	public boolean validateFile(String file) {
+		clear();
+		this.xmlFile = file;
+		Schema schema = getSchema();
+		if(schema == null) {
+			return nErrors == 0;
+		}
+		if(errorHandler == null) {
+			errorHandler = new XmlErrorHandler();
+		}
+		CpXmlParserPool pool = CpXmlParserPool.getInstance();
+		Validator validator = pool.acquireValidator(schema);
+		try {
+			validator.setErrorHandler(errorHandler);
+			validator.validate(new StreamSource(new File(file)));
+		} catch (SAXParseException e) {
+			// already reported by error handler
+		} catch (SAXException | IOException e ) {
+			String err = CpStrings.CpXmlParser_ErrorParsingFile;
+			err += " " + xmlFile; //$NON-NLS-1$
+			err += "': "; //$NON-NLS-1$
+			err += e.toString();
+			errorStrings.add(err);
+			nErrors++;
+		} finally {
+			pool.releaseValidator(schema, validator);
+		}
+		return nErrors == 0;
 	}
 
 
@@ -292,6 +414,7 @@ public abstract class CpXmlParser implements ICpXmlParser {
 
 		Document domDoc = null;
 		InputStream sr = null;
+		long startTime = System.nanoTime();
 		try {
 			sr = new FileInputStream(xmlFile);
 			domDoc = docBuilder.parse(sr);
@@ -312,6 +435,7 @@ public abstract class CpXmlParser implements ICpXmlParser {
 			}
 		}
 		sr = null;
+		parseTime = System.nanoTime() - startTime;
 		if(domDoc == null)
 			return null;
 
@@ -320,7 +444,10 @@ public abstract class CpXmlParser implements ICpXmlParser {
 			return null;
 		}
 
-		if(parseElement(domElement, null)) {
+		startTime = System.nanoTime();
+		boolean success = parseElement(domElement, null);
+		buildTime = System.nanoTime() - startTime;
+		if(success) {
 			return rootItem;
 		}
 		return null;
@@ -336,6 +463,9 @@ public abstract class CpXmlParser implements ICpXmlParser {
 	protected boolean parseElement(Node elementNode, ICpItem parent) {
 		// set element tag name
 		String tag = elementNode.getNodeName();
+		if (parent != null && parent == rootItem) {
+			sectionTags.add(tag);
+		}
 		if (isTagIgnored(tag)) {
 			return true; // no further processing
 		}
@@ -343,6 +473,7 @@ public abstract class CpXmlParser implements ICpXmlParser {
 		if(item == null) {
 			return false;
 		}
+		nItems++;
 		// process node attributes
 		NamedNodeMap attributes = elementNode.getAttributes();
 		if (attributes != null && attributes.getLength() > 0) {
@@ -363,9 +494,13 @@ public abstract class CpXmlParser implements ICpXmlParser {
 					}
 					value = adjustAttributeValue(key, value.trim());
 					item.attributes().setAttribute(key, value);
+					nAttributes++;
 				}
 			}
 		}
+		if(bCompactAttributes) {
+			item.compactAttributes();
+		}
 
 		// add child item here since parent implementation can query item attributes
 		if(parent != null) {
@@ -396,7 +531,12 @@ public abstract class CpXmlParser implements ICpXmlParser {
 		return true;
 	}
 
-	private boolean isTagIgnored(String tag) {
+	/**
+	 * Checks if given tag should be skipped during parsing
+	 * @param tag XML tag to check
+	 * @return true if the tag and its content should be ignored
+	 */
+	protected boolean isTagIgnored(String tag) {
 		if (ignoreTags == null || ignoreTags.isEmpty()) {
 			return false;
 		}
@@ -480,7 +620,7 @@ public abstract class CpXmlParser implements ICpXmlParser {
 		String xml = null;
 		clear();
 		this.xmlFile = null;
-		if(!init()) {
+		if(!init() || !initDocumentBuilder()) {
 			return xml;
 		}
 
@@ -0,0 +1,177 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.parser;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.xml.sax.SAXException;
+
+/**
+ * Pool of XML objects shared by parser instances running in different threads:
+ * <ul>
+ * <li>compiled schemas, each xsd file is compiled only once (Schema objects are thread-safe)
+ * <li>DocumentBuilder and Validator instances that are not thread-safe, but can be reused after reset
+ * </ul>
+ * Objects are acquired by one thread and must be released after use.
+ * At most {@link #MAX_POOLED} idle objects are kept per schema, surplus ones are discarded on release.
+ */
+public class CpXmlParserPool {
+
+	private static final CpXmlParserPool theInstance = new CpXmlParserPool();
+	private static final Object NO_SCHEMA = new Object(); // key for non-validating builders
+	/**
+	 * Maximum number of idle builders or validators kept per schema
+	 */
+	public static final int MAX_POOLED = Runtime.getRuntime().availableProcessors() * 2;
+
+	private final Map<String, Schema> fSchemas = new HashMap<String, Schema>();
+	private final Map<Object, DocumentBuilderFactory> fBuilderFactories = new HashMap<Object, DocumentBuilderFactory>();
+	private final Map<Object, Queue<DocumentBuilder>> fBuilders = new HashMap<Object, Queue<DocumentBuilder>>();
+	private final Map<Schema, Queue<Validator>> fValidators = new HashMap<Schema, Queue<Validator>>();
+
+	/**
+	 * Returns shared pool instance
+	 * @return CpXmlParserPool
+	 */
+	public static CpXmlParserPool getInstance() {
+		return theInstance;
+	}
+
+	/**
+	 * Returns compiled schema, compiles it on first request
+	 * @param xsdFile schema file with absolute path
+	 * @return Schema or null if xsdFile is null or empty
+	 * @throws SAXException if schema cannot be compiled
+	 */
+	public synchronized Schema getSchema(String xsdFile) throws SAXException {
+		if (xsdFile == null || xsdFile.isEmpty()) {
+			return null;
+		}
+		Schema schema = fSchemas.get(xsdFile);
+		if(schema == null) {
+			SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+			schema = schemaFactory.newSchema(new Source[] {new StreamSource(xsdFile)});
+			fSchemas.put(xsdFile, schema);
+		}
+		return schema;
+	}
+
+	/**
+	 * Acquires a namespace-aware DocumentBuilder
+	 * @param schema schema to validate against, null to create a non-validating builder
+	 * @return DocumentBuilder to be released with {@link #releaseDocumentBuilder(DocumentBuilder)} after use
+	 * @throws ParserConfigurationException
+	 */
+	public DocumentBuilder acquireDocumentBuilder(Schema schema) throws ParserConfigurationException {
+		Object key = schema != null ? schema : NO_SCHEMA;
+		synchronized (this) {
+			DocumentBuilder builder = getQueue(fBuilders, key).poll();
+			if(builder != null) {
+				return builder;
+			}
+			DocumentBuilderFactory factory = fBuilderFactories.get(key);
+			if(factory == null) {
+				factory = DocumentBuilderFactory.newInstance();
+				factory.setValidating(false);
+				factory.setNamespaceAware(true);
+				factory.setSchema(schema);
+				fBuilderFactories.put(key, factory);
+			}
+			// DocumentBuilderFactory is not thread-safe
+			return factory.newDocumentBuilder();
+		}
+	}
+
+	/**
+	 * Returns DocumentBuilder to the pool
+	 * @param builder DocumentBuilder acquired with {@link #acquireDocumentBuilder(Schema)}
+	 */
+	public void releaseDocumentBuilder(DocumentBuilder builder) {
+		if(builder == null) {
+			return;
+		}
+		builder.reset();
+		builder.setErrorHandler(null);
+		Schema schema = builder.getSchema();
+		Object key = schema != null ? schema : NO_SCHEMA;
+		synchronized (this) {
+			offer(getQueue(fBuilders, key), builder);
+		}
+	}
+
+	/**
+	 * Acquires a Validator for given schema
+	 * @param schema schema to validate against
+	 * @return Validator to be released with {@link #releaseValidator(Schema, Validator)} after use
+	 */
+	public synchronized Validator acquireValidator(Schema schema) {
+		Validator validator = getQueue(fValidators, schema).poll();
+		if(validator != null) {
+			return validator;
+		}
+		return schema.newValidator();
+	}
+
+	/**
+	 * Returns Validator to the pool
+	 * @param schema schema the validator is created for
+	 * @param validator Validator acquired with {@link #acquireValidator(Schema)}
+	 */
+	public void releaseValidator(Schema schema, Validator validator) {
+		if(schema == null || validator == null) {
+			return;
+		}
+		validator.reset();
+		validator.setErrorHandler(null);
+		synchronized (this) {
+			offer(getQueue(fValidators, schema), validator);
+		}
+	}
+
+	/**
+	 * Clears all cached schemas and pooled objects, for instance if an xsd file has been changed
+	 */
+	public synchronized void clear() {
+		fSchemas.clear();
+		fBuilderFactories.clear();
+		fBuilders.clear();
+		fValidators.clear();
+	}
+
+	private static <V> void offer(Queue<V> queue, V object) {
+		if(queue.size() < MAX_POOLED) {
+			queue.offer(object);
+		}
+	}
+
+	private static <K, V> Queue<V> getQueue(Map<K, Queue<V>> map, K key) {
+		Queue<V> queue = map.get(key);
+		if(queue == null) {
+			queue = new ArrayDeque<V>();
+			map.put(key, queue);
+		}
+		return queue;
+	}
+}
@@ -44,6 +44,43 @@ public interface ICpXmlParser extends ICpItemFactory {
 	 */
 	public String getXsdFile();
 
+	/**
+	 * Enables or disables schema validation during parsing (if schema file is set)
+	 * @param bValidate true to validate files while parsing, false to parse only
+	 */
+	void setSchemaValidation(boolean bValidate);
+
+	/**
+	 * Checks if schema validation during parsing is enabled
+	 * @return true if files are validated while parsing
+	 */
+	boolean isSchemaValidation();
+
+	/**
+	 * Enables or disables compact attribute storage for created items
+	 * @param bCompact true to convert item attributes to read-optimized compact storage once they are set
+	 * @see ICpItem#compactAttributes()
+	 */
+	void setCompactAttributes(boolean bCompact);
+
+	/**
+	 * Checks if created items use compact attribute storage
+	 * @return true if item attributes are compacted
+	 */
+	boolean isCompactAttributes();
+
+	/**
+	 * Validates file against schema without parsing it, errors are available via {@link #getErrorStrings()}
+	 * @param file XML file to validate
+	 * @return true if file is valid or no schema file is set
+	 */
+	boolean validateFile(String file);
+
+	/**
+	 * Releases resources held by the parser, the parser can still be used afterwards
+	 */
+	void release();
+
 	/**
 	 * @return the errorStrings
 	 */
@@ -65,6 +102,12 @@ public interface ICpXmlParser extends ICpItemFactory {
 	 */
 	void setIgnoreTags(Set<String> ignoreTags);
 
+	/**
+	 * Returns tags of root element children of the last parsed file in document order, including ignored ones
+	 * @return list of section tags
+	 */
+	List<String> getSectionTags();
+
 	/**
 	 * Sets XML tags to ignore during writing
 	 * @param ignoreTags set of tags to ignore
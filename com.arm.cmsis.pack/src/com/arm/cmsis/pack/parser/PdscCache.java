@@ -0,0 +1,485 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.parser;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.arm.cmsis.pack.CpStrings;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.CpPack;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpPack;
+
+/**
+ * Persistent cache of parsed pdsc files.
+ * <p/>
+ * Each pack is stored as a compact binary snapshot of its ICpItem tree (tags, attributes, text and children)
+ * keyed by pdsc file path, size and modification time. The cache file is memory-mapped, a snapshot is only decoded
+ * when requested for a file that has not been changed since it was stored.
+ * The whole cache is discarded if it was written by a different parser or cache format version.
+ * <p/>
+ * A mapped file cannot be replaced on all platforms (Windows denies that until the mapping is garbage collected),
+ * therefore <code>save()</code> writes a new generation file: <code>pdsc.cache.1</code>, <code>pdsc.cache.2</code>, etc.
+ * The latest generation is used by the next <code>open()</code> that also removes older generations.
+ * <p/>
+ * Methods <code>getPack()</code> and <code>putPack()</code> can be called from several loader threads concurrently.
+ */
+public class PdscCache {
+
+	/**
+	 * Cache file name relative to pack root directory
+	 */
+	public static final String CACHE_FILE = ".Cache/pdsc.cache"; //$NON-NLS-1$
+
+	private static final int MAGIC = 0x50445343; // "PDSC"
+	private static final int FORMAT_VERSION = 1; // increment on any change of the snapshot layout (header, entries, item encoding)
+
+	private final String fCacheFile;
+	private final String fParserVersion;
+
+	private boolean bCompactAttributes = false; // convert attributes of decoded items to compact storage
+	private int fGeneration = 0; // generation of the opened cache file, 0 corresponds to the base file name
+	private MappedByteBuffer fBuffer = null;
+	private List<String> fErrorStrings = new LinkedList<String>();
+	private Map<String, CacheEntry> fEntries = new HashMap<String, CacheEntry>(); // entries read from cache file
+	private Map<String, CacheEntry> fUsedEntries = new ConcurrentHashMap<String, CacheEntry>(); // entries still valid
+	private Map<String, CacheEntry> fNewEntries = new ConcurrentHashMap<String, CacheEntry>(); // entries to add
+
+	/**
+	 * Cache entry: pdsc file key and location of the snapshot in the cache file
+	 */
+	private static class CacheEntry {
+		final String file;
+		final long size;
+		final long modified;
+		int offset = -1;   // snapshot offset in the mapped buffer
+		int length = 0;    // snapshot length
+		byte[] data = null; // encoded snapshot to write
+
+		CacheEntry(String file, long size, long modified) {
+			this.file = file;
+			this.size = size;
+			this.modified = modified;
+		}
+
+		boolean matches(long size, long modified) {
+			return this.size == size && this.modified == modified;
+		}
+	}
+
+	/**
+	 * Constructs cache for given file
+	 * @param cacheFile absolute cache file name
+	 * @param parserVersion string identifying parser that creates cached items
+	 */
+	public PdscCache(String cacheFile, String parserVersion) {
+		fCacheFile = cacheFile;
+		fParserVersion = parserVersion != null ? parserVersion : CmsisConstants.EMPTY_STRING;
+	}
+
+	/**
+	 * Returns cache file name
+	 * @return absolute base name of cache generation files
+	 */
+	public String getCacheFile() {
+		return fCacheFile;
+	}
+
+	/**
+	 * Returns name of cache file for given generation
+	 * @param generation cache file generation
+	 * @return absolute cache file name
+	 */
+	protected String getCacheFile(int generation) {
+		if(generation == 0) {
+			return fCacheFile;
+		}
+		return fCacheFile + '.' + generation;
+	}
+
+	/**
+	 * Returns errors occurred since last call to <code>open()</code>
+	 * @return list of error strings
+	 */
+	public synchronized List<String> getErrorStrings() {
+		return new ArrayList<String>(fErrorStrings);
+	}
+
+	/**
+	 * Enables or disables compact attribute storage for decoded items
+	 * @param bCompact true to convert item attributes to compact storage as parser does
+	 * @see ICpXmlParser#setCompactAttributes(boolean)
+	 */
+	public void setCompactAttributes(boolean bCompact) {
+		bCompactAttributes = bCompact;
+	}
+
+	/**
+	 * Maps cache file into memory and reads its index
+	 * @return true if the cache file exists and is valid
+	 */
+	public synchronized boolean open() {
+		close();
+		fErrorStrings.clear();
+		fGeneration = findLatestGeneration();
+		removeObsoleteGenerations();
+		File f = new File(getCacheFile(fGeneration));
+		if(!f.exists() || f.length() == 0 || f.length() > Integer.MAX_VALUE) {
+			return false;
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(f, "r"); //$NON-NLS-1$
+			 FileChannel channel = raf.getChannel()) {
+			fBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			return readIndex(fBuffer.duplicate());
+		} catch (IOException | RuntimeException e) {
+			close();
+		}
+		return false;
+	}
+
+	/**
+	 * Returns latest generation of existing cache files
+	 * @return generation number, 0 if no generation file exists
+	 */
+	private int findLatestGeneration() {
+		int latest = 0;
+		for(int generation : listGenerations()) {
+			latest = Math.max(latest, generation);
+		}
+		return latest;
+	}
+
+	private Collection<Integer> listGenerations() {
+		Collection<Integer> generations = new ArrayList<Integer>();
+		File base = new File(fCacheFile);
+		File dir = base.getParentFile();
+		String[] names = dir != null ? dir.list() : null;
+		if(names == null) {
+			return generations;
+		}
+		String prefix = base.getName() + '.';
+		for(String name : names) {
+			if(!name.startsWith(prefix)) {
+				continue;
+			}
+			try {
+				generations.add(Integer.parseInt(name.substring(prefix.length())));
+			} catch (NumberFormatException e) {
+				// not a generation file, for instance temporary one
+			}
+		}
+		return generations;
+	}
+
+	/**
+	 * Deletes cache files of generations older than the current one.
+	 * Deletion of a file still mapped by a previous cache instance can fail, it is repeated by next <code>open()</code>
+	 */
+	private void removeObsoleteGenerations() {
+		if(fGeneration > 0) {
+			new File(fCacheFile).delete();
+		}
+		for(int generation : listGenerations()) {
+			if(generation < fGeneration) {
+				new File(getCacheFile(generation)).delete();
+			}
+		}
+	}
+
+	/**
+	 * Releases mapped buffer and clears all entries
+	 */
+	public synchronized void close() {
+		fBuffer = null;
+		fEntries.clear();
+		fUsedEntries.clear();
+		fNewEntries.clear();
+	}
+
+	private boolean readIndex(ByteBuffer b) {
+		if(b.getInt() != MAGIC || b.getInt() != FORMAT_VERSION) {
+			return false;
+		}
+		if(!fParserVersion.equals(readString(b))) {
+			return false;
+		}
+		int nEntries = b.getInt();
+		Map<String, CacheEntry> entries = new HashMap<String, CacheEntry>();
+		for(int i = 0; i < nEntries; i++) {
+			String file = readString(b);
+			CacheEntry e = new CacheEntry(file, b.getLong(), b.getLong());
+			e.length = b.getInt();
+			e.offset = b.position();
+			b.position(e.offset + e.length);
+			entries.put(file, e);
+		}
+		fEntries = entries;
+		return true;
+	}
+
+	/**
+	 * Returns pack from cache if pdsc file has not been modified since it was stored
+	 * @param file absolute pdsc file name
+	 * @param size current pdsc file size
+	 * @param modified current pdsc file modification time
+	 * @return decoded ICpPack or null if not found or outdated
+	 */
+	public ICpPack getPack(String file, long size, long modified) {
+		ByteBuffer buffer;
+		CacheEntry e;
+		synchronized (this) {
+			if(fBuffer == null || file == null) {
+				return null;
+			}
+			e = fEntries.get(file);
+			if(e == null || !e.matches(size, modified)) {
+				return null;
+			}
+			buffer = fBuffer.duplicate();
+		}
+		ICpPack pack = null;
+		try {
+			buffer.position(e.offset);
+			pack = readPack(buffer, file, bCompactAttributes);
+		} catch (RuntimeException ex) {
+			pack = null; // corrupted entry
+		}
+		if(pack != null) {
+			fUsedEntries.put(file, e);
+		}
+		return pack;
+	}
+
+	/**
+	 * Adds parsed pack to the cache, it will be stored by the next call to <code>save()</code>.
+	 * The pack is encoded immediately, so it should be called before any further pack modifications
+	 * @param file absolute pdsc file name used as key
+	 * @param pack ICpPack to store
+	 * @param size pdsc file size at the moment of parsing
+	 * @param modified pdsc file modification time at the moment of parsing
+	 */
+	public void putPack(String file, ICpPack pack, long size, long modified) {
+		if(file == null || pack == null) {
+			return;
+		}
+		CacheEntry e = new CacheEntry(file, size, modified);
+		try {
+			e.data = encodePack(pack);
+		} catch (IOException ex) {
+			return;
+		}
+		fNewEntries.put(e.file, e);
+	}
+
+	/**
+	 * Checks if cache file needs to be rewritten
+	 * @return true if packs were added or stored entries became obsolete
+	 */
+	public synchronized boolean isModified() {
+		return !fNewEntries.isEmpty() || fUsedEntries.size() != fEntries.size();
+	}
+
+	/**
+	 * Writes used and added entries to the next generation cache file, obsolete entries are dropped.
+	 * The opened cache file stays mapped until the cache is closed and garbage collected
+	 * @return true if successful, otherwise error is available via {@link #getErrorStrings()}
+	 */
+	public synchronized boolean save() {
+		if(!isModified()) {
+			return true;
+		}
+		Map<String, CacheEntry> entries = new TreeMap<String, CacheEntry>(fUsedEntries);
+		entries.putAll(fNewEntries);
+
+		File target = new File(getCacheFile(fGeneration + 1));
+		File tmp = new File(fCacheFile + ".tmp"); //$NON-NLS-1$
+		File dir = target.getParentFile();
+		if(dir != null && !dir.exists()) {
+			dir.mkdirs();
+		}
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+			out.writeInt(MAGIC);
+			out.writeInt(FORMAT_VERSION);
+			writeString(out, fParserVersion);
+			out.writeInt(entries.size());
+			for(CacheEntry e : entries.values()) {
+				byte[] data = getSnapshot(e);
+				writeString(out, e.file);
+				out.writeLong(e.size);
+				out.writeLong(e.modified);
+				out.writeInt(data.length);
+				out.write(data);
+			}
+		} catch (IOException e) {
+			addError(tmp, e);
+			tmp.delete();
+			return false;
+		}
+		try {
+			// target is not mapped: only the current generation can be
+			Files.move(tmp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			addError(target, e);
+			tmp.delete();
+			return false;
+		}
+		fGeneration++;
+		return true;
+	}
+
+	private void addError(File file, IOException e) {
+		fErrorStrings.add(CpStrings.PdscCache_ErrorWritingCache + file.getAbsolutePath() + ": " + e.toString()); //$NON-NLS-1$
+	}
+
+	private byte[] getSnapshot(CacheEntry e) {
+		if(e.data != null) {
+			return e.data;
+		}
+		// copy stored snapshot as is
+		byte[] data = new byte[e.length];
+		ByteBuffer b = fBuffer.duplicate();
+		b.position(e.offset);
+		b.get(data);
+		return data;
+	}
+
+	private static byte[] encodePack(ICpPack pack) throws IOException {
+		Map<String, Integer> stringIndex = new HashMap<String, Integer>();
+		ByteArrayOutputStream items = new ByteArrayOutputStream();
+		writeItem(new DataOutputStream(items), pack, stringIndex);
+
+		String[] strings = new String[stringIndex.size()];
+		for(Entry<String, Integer> s : stringIndex.entrySet()) {
+			strings[s.getValue()] = s.getKey();
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(items.size() + strings.length * 16);
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(strings.length);
+		for(String s : strings) {
+			writeString(out, s);
+		}
+		items.writeTo(out);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static void writeItem(DataOutputStream out, ICpItem item, Map<String, Integer> stringIndex) throws IOException {
+		out.writeInt(indexOf(item.getTag(), stringIndex));
+		out.writeInt(indexOf(item.getText(), stringIndex));
+		Map<String, String> attributes = item.attributes().getAttributesAsMap();
+		if(attributes == null) {
+			out.writeInt(0);
+		} else {
+			out.writeInt(attributes.size());
+			for(Entry<String, String> a : attributes.entrySet()) {
+				out.writeInt(indexOf(a.getKey(), stringIndex));
+				out.writeInt(indexOf(a.getValue(), stringIndex));
+			}
+		}
+		Collection<? extends ICpItem> children = item.getChildren();
+		if(children == null) {
+			out.writeInt(0);
+		} else {
+			out.writeInt(children.size());
+			for(ICpItem child : children) {
+				writeItem(out, child, stringIndex);
+			}
+		}
+	}
+
+	private static int indexOf(String s, Map<String, Integer> stringIndex) {
+		if(s == null) {
+			s = CmsisConstants.EMPTY_STRING;
+		}
+		Integer index = stringIndex.get(s);
+		if(index == null) {
+			index = stringIndex.size();
+			stringIndex.put(s, index);
+		}
+		return index;
+	}
+
+	private static ICpPack readPack(ByteBuffer b, String file, boolean bCompact) {
+		int nStrings = b.getInt();
+		String[] strings = new String[nStrings];
+		for(int i = 0; i < nStrings; i++) {
+			strings[i] = readString(b);
+		}
+		ICpItem item = readItem(b, strings, null, file, bCompact);
+		if(item instanceof ICpPack) {
+			return (ICpPack)item;
+		}
+		return null;
+	}
+
+	private static ICpItem readItem(ByteBuffer b, String[] strings, ICpItem parent, String file, boolean bCompact) {
+		String tag = strings[b.getInt()];
+		String text = strings[b.getInt()];
+		ICpItem item = parent != null ? parent.createItem(parent, tag) : new CpPack(tag, file);
+		int nAttributes = b.getInt();
+		for(int i = 0; i < nAttributes; i++) {
+			String key = strings[b.getInt()];
+			String value = strings[b.getInt()];
+			item.attributes().setAttribute(key, value);
+		}
+		if(bCompact) {
+			item.compactAttributes();
+		}
+		// add child item here since parent implementation can query item attributes (same as parser)
+		if(parent != null) {
+			parent.addChild(item);
+		}
+		item.setText(text);
+		int nChildren = b.getInt();
+		for(int i = 0; i < nChildren; i++) {
+			readItem(b, strings, item, file, bCompact);
+		}
+		return item;
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer b) {
+		int len = b.getInt();
+		if(len == 0) {
+			return CmsisConstants.EMPTY_STRING;
+		}
+		byte[] bytes = new byte[len];
+		b.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -11,17 +11,26 @@
 
 package com.arm.cmsis.pack.rte;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.arm.cmsis.pack.CpPlugIn;
 import com.arm.cmsis.pack.ICpPackManager;
 import com.arm.cmsis.pack.common.CmsisConstants;
-import com.arm.cmsis.pack.data.CpConditionContext;
 import com.arm.cmsis.pack.data.CpPackFilter;
+import com.arm.cmsis.pack.data.CpSharedConditionContext;
 import com.arm.cmsis.pack.data.ICpComponent;
 import com.arm.cmsis.pack.data.ICpConditionContext;
 import com.arm.cmsis.pack.data.ICpDeviceItem;
@@ -52,6 +61,7 @@ import com.arm.cmsis.pack.rte.dependencies.IRteDependencySolver;
 import com.arm.cmsis.pack.rte.dependencies.RteDependencySolver;
 import com.arm.cmsis.pack.rte.devices.IRteDeviceItem;
 import com.arm.cmsis.pack.rte.devices.RteDeviceItem;
+import com.arm.cmsis.pack.rte.devices.RteDeviceTreeSnapshot;
 
 /**
  * Default implementation of IRteModel interface
@@ -74,6 +84,11 @@ public class RteModel implements IRteModel {
 
 	// component filter
 	protected ICpConditionContext  fComponentFilter = null;
+	// number of threads to filter components
+	protected int fFilterThreadCount = Runtime.getRuntime().availableProcessors();
+	// threads to filter components shared by all models, idle threads terminate
+	private static final int MAX_FILTER_THREADS = Runtime.getRuntime().availableProcessors();
+	private static ExecutorService fFilterExecutor = null;
 
 	// filtered components tree
 	protected RteComponentRoot 	fComponentRoot = null;
@@ -458,7 +473,15 @@ public class RteModel implements IRteModel {
 	@Override
 	public IRteDeviceItem getDevices(){
 		if(fRteDevices == null){
-			fRteDevices = RteDeviceItem.createTree(fFilteredPacks);
+			// use a view of the device tree shared with the pack manager and other models if possible
+			ICpPackManager pm  = CpPlugIn.getPackManager();
+			RteDeviceTreeSnapshot snapshot = RteDeviceTreeSnapshot.getSnapshot(pm != null ? pm.getPacks() : fAllPacks);
+			if(snapshot != null) {
+				fRteDevices = snapshot.createView(fFilteredPacks);
+			}
+			if(fRteDevices == null) {
+				fRteDevices = RteDeviceItem.createTree(fFilteredPacks);
+			}
 		}
 		return fRteDevices;
 	}
@@ -472,15 +495,59 @@ public class RteModel implements IRteModel {
 	 *  Updates component filter by setting new device information
 	 */
 	protected void updateComponentFilter() {
-		fComponentFilter = new CpConditionContext();
+		fComponentFilter = createComponentFilter();
+	}
+
+	/**
+	 * Creates condition context to filter components by selected device and toolchain
+	 * @return ICpConditionContext with reset results
+	 */
+	protected ICpConditionContext createComponentFilter() {
+		ICpConditionContext filter = new CpSharedConditionContext(); // reuses results of previous updates for the same device and toolchain
 		if(fDeviceInfo != null) {
-			fComponentFilter.setAttributes(fDeviceInfo.attributes().getAttributesAsMap());
-			fComponentFilter.removeAttribute(CmsisConstants.URL); // this attribute is not needed for filtering
+			filter.setAttributes(fDeviceInfo.attributes().getAttributesAsMap());
+			filter.removeAttribute(CmsisConstants.URL); // this attribute is not needed for filtering
 		}
 		if(fToolchainInfo != null) {
-			fComponentFilter.mergeAttributes(fToolchainInfo.attributes());
+			filter.mergeAttributes(fToolchainInfo.attributes());
+		}
+		filter.resetResult();
+		return filter;
+	}
+
+	/**
+	 * Sets number of threads to filter components
+	 * @param nThreads number of threads, 1 to filter sequentially
+	 */
+	public void setFilterThreadCount(int nThreads) {
+		fFilterThreadCount = nThreads;
+	}
+
+	/**
+	 * Returns number of threads to filter components
+	 * @return number of threads
+	 */
+	public int getFilterThreadCount() {
+		return fFilterThreadCount;
+	}
+
+	/**
+	 * Returns executor to filter components, shared by all models and bounded by number of processors
+	 * @return ExecutorService
+	 */
+	protected static synchronized ExecutorService getFilterExecutor() {
+		if(fFilterExecutor == null) {
+			final AtomicInteger threadNumber = new AtomicInteger(1);
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_FILTER_THREADS, MAX_FILTER_THREADS,
+					30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), r -> {
+						Thread thread = new Thread(r, "RTE component filter " + threadNumber.getAndIncrement()); //$NON-NLS-1$
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			fFilterExecutor = executor;
 		}
-		fComponentFilter.resetResult();
+		return fFilterExecutor;
 	}
 
 	/**
@@ -507,16 +574,21 @@ public class RteModel implements IRteModel {
 
 		Collection<? extends ICpItem> children;
 		// first add components
+		List<Collection<? extends ICpItem>> componentLists = new ArrayList<>();
 		if(devicePack != null) {
-			children = devicePack.getGrandChildren(CmsisConstants.COMPONENTS_TAG);
-			collectComponents(children);
+			componentLists.add(devicePack.getGrandChildren(CmsisConstants.COMPONENTS_TAG));
 		}
 		for(ICpPack pack : fFilteredPacks ){
 			if(pack == devicePack) {
 				continue;
 			}
-			children = pack.getGrandChildren(CmsisConstants.COMPONENTS_TAG);
-			collectComponents(children);
+			componentLists.add(pack.getGrandChildren(CmsisConstants.COMPONENTS_TAG));
+		}
+		// filtering can run in parallel, insertion order is kept
+		for(List<ICpComponent> components : filterComponents(componentLists)) {
+			for(ICpComponent c : components) {
+				fComponentRoot.addComponent(c);
+			}
 		}
 		// then add APIs and taxonomy items
 		if(devicePack != null) {
@@ -559,26 +631,82 @@ public class RteModel implements IRteModel {
 	}
 
 	/**
-	 * Collect components from given pack
-	 * @param pack
+	 * Filters components of several packs, uses several threads if filter thread count is greater than 1
+	 * @param componentLists list of pack component collections
+	 * @return list of filtered components for each supplied collection in the same order
+	 */
+	protected List<List<ICpComponent>> filterComponents(final List<Collection<? extends ICpItem>> componentLists) {
+		final int n = componentLists.size();
+		List<List<ICpComponent>> results = new ArrayList<>(n);
+		for(int i = 0; i < n; i++) {
+			results.add(null);
+		}
+
+		int nThreads = Math.min(Math.min(fFilterThreadCount, MAX_FILTER_THREADS), n);
+		if(nThreads > 1) {
+			// each task uses own context: temporary evaluation state is thread-confined, results are shared via CpConditionResultCache
+			// tasks return their results, lists are only written by this thread
+			final AtomicInteger nextIndex = new AtomicInteger(0);
+			ExecutorService executor = getFilterExecutor();
+			List<Future<Map<Integer, List<ICpComponent>>>> futures = new ArrayList<>();
+			for(int t = 0; t < nThreads; t++) {
+				futures.add(executor.submit(() -> {
+					Map<Integer, List<ICpComponent>> filtered = new HashMap<>();
+					ICpConditionContext filter = createComponentFilter();
+					for(int i = nextIndex.getAndIncrement(); i < n; i = nextIndex.getAndIncrement()) {
+						filtered.put(i, filterComponents(componentLists.get(i), filter, new ArrayList<ICpComponent>()));
+					}
+					return filtered;
+				}));
+			}
+			try {
+				for(Future<Map<Integer, List<ICpComponent>>> future : futures) {
+					for(Entry<Integer, List<ICpComponent>> e : future.get().entrySet()) {
+						results.set(e.getKey(), e.getValue());
+					}
+				}
+			} catch (InterruptedException e) {
+				nextIndex.set(n); // tasks stop taking new lists, remaining ones are filtered below
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				nextIndex.set(n);
+				e.printStackTrace();
+			}
+		}
+
+		for(int i = 0; i < n; i++) {
+			if(results.get(i) == null) { // sequential mode or result of a filter task is not available
+				results.set(i, filterComponents(componentLists.get(i), fComponentFilter, new ArrayList<ICpComponent>()));
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Collects components from given collection that fulfill filter conditions
+	 * @param children collection of pack components and bundles
+	 * @param filter ICpConditionContext to evaluate component conditions
+	 * @param filtered list to add filtered components to
+	 * @return the filtered list
 	 */
-	protected void collectComponents(Collection<? extends ICpItem> children) {
+	protected List<ICpComponent> filterComponents(Collection<? extends ICpItem> children, ICpConditionContext filter, List<ICpComponent> filtered) {
 		if(children == null || children.isEmpty()) {
-			return;
+			return filtered;
 		}
 		for(ICpItem item : children){
 			if(item.getTag().equals(CmsisConstants.BUNDLE_TAG)){
 				// insert bundle implicitly since its components can be filtered out
-				collectComponents(item.getChildren());
+				filterComponents(item.getChildren(), filter, filtered);
 			} else if(item instanceof ICpComponent) { // skip doc and description items
 				ICpComponent c = (ICpComponent) item;
-				EEvaluationResult res = c.evaluate(fComponentFilter);
+				EEvaluationResult res = c.evaluate(filter);
 				if(res.ordinal() < EEvaluationResult.FULFILLED.ordinal()) {
 					continue; // filtered out
 				}
-				fComponentRoot.addComponent(c);
+				filtered.add(c);
 			}
 		}
+		return filtered;
 	}
 
 	@Override
@@ -606,7 +734,7 @@ public class RteModel implements IRteModel {
 
 	@Override
 	public EEvaluationResult resolveComponentDependencies() {
-		return fDependencySolver.resolveDependencies();
+		return fDependencySolver.resolveAllDependencies();
 	}
 
 	@Override
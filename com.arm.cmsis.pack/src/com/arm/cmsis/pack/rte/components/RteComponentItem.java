@@ -11,8 +11,12 @@
 
 package com.arm.cmsis.pack.rte.components;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
@@ -28,6 +32,7 @@ import com.arm.cmsis.pack.item.CmsisMapItem;
 import com.arm.cmsis.pack.rte.RteConstants;
 import com.arm.cmsis.pack.rte.dependencies.IRteDependency;
 import com.arm.cmsis.pack.utils.AlnumComparator;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
 
 
 /**
@@ -35,11 +40,18 @@ import com.arm.cmsis.pack.utils.AlnumComparator;
  */
 public class RteComponentItem extends CmsisMapItem<IRteComponentItem> implements IRteComponentItem {
 	
+	/**
+	 * Items with more children use hash index of child keys to find matching children
+	 */
+	public static final int INDEX_THRESHOLD = 8;
+	
 	protected String fActiveChildName = null;
 	protected boolean fbActiveChildDefault = true;
 	protected boolean fbExclusive = true; // default is true
 	protected EComponentAttribute fComponentAttribute = EComponentAttribute.CNONE;
 	protected ICpItem fTaxonomy = null;  
+	protected Map<String, IRteComponentItem> fKeyIndex = null; // exact child keys, built on demand
+	protected boolean fbWildcardKeys = false; // true if a child key contains wild cards, valid if fKeyIndex != null
 	
 	/**
 	 * Hierarchical constructor
@@ -83,6 +95,24 @@ public class RteComponentItem extends CmsisMapItem<IRteComponentItem> implements
 	}
 	
 	
+	@Override
+	public void clear() {
+		super.clear();
+		fKeyIndex = null;
+	}
+
+	@Override
+	public void addChild(IRteComponentItem item) {
+		super.addChild(item);
+		fKeyIndex = null;
+	}
+
+	@Override
+	public IRteComponentItem removeChild(String key) {
+		fKeyIndex = null;
+		return super.removeChild(key);
+	}
+	
 	@Override
 	public String getItemKey(IRteComponentItem item) {
 		if(item == null) {
@@ -587,8 +617,7 @@ public class RteComponentItem extends CmsisMapItem<IRteComponentItem> implements
 			return result;
 		}
 
-		Map<String, ? extends IRteComponentItem> children = getChildMap();
-		if(children == null) {
+		if(getChildMap() == null) {
 			return result;
 		}
 		boolean bIncompatible = false;
@@ -615,17 +644,14 @@ public class RteComponentItem extends CmsisMapItem<IRteComponentItem> implements
 			}
 		}
   
-		for(Entry<String, ? extends IRteComponentItem> e : children.entrySet()) {
-			IRteComponentItem child = e.getValue();
+		for(IRteComponentItem child : findChildren(keyPattern)) {
 			if(child == activeChild) {
 				continue;
 			}
-			if(matchKey(keyPattern, e.getKey())){
-				matchFound = true;
-				EEvaluationResult res= child.findComponents(dependency);
-				if(res != EEvaluationResult.IGNORED && res.ordinal() > result.ordinal()) {
-					result = res;
-				}
+			matchFound = true;
+			EEvaluationResult res= child.findComponents(dependency);
+			if(res != EEvaluationResult.IGNORED && res.ordinal() > result.ordinal()) {
+				result = res;
 			}
 		}
 		if(!matchFound ){
@@ -639,6 +665,75 @@ public class RteComponentItem extends CmsisMapItem<IRteComponentItem> implements
 	}
 
 
+	/**
+	 * Returns children whose keys match the pattern, see {@link #matchKey(String, String)}.
+	 * <p/>
+	 * A plain pattern is looked up in a hash index of child keys if the key attribute is matched by wild cards,
+	 * so the lookup cost does not depend on the number of children.
+	 * Other patterns are matched against all child keys.
+	 * @param pattern key pattern, null matches all children
+	 * @return collection of matching children in child map order
+	 */
+	protected Collection<? extends IRteComponentItem> findChildren(String pattern) {
+		Map<String, ? extends IRteComponentItem> children = getChildMap();
+		if(children == null || children.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Map<String, IRteComponentItem> keyIndex = getKeyIndex(pattern);
+		if(keyIndex != null) {
+			IRteComponentItem child = keyIndex.get(pattern);
+			if(child != null) {
+				return Collections.singletonList(child);
+			}
+			return Collections.emptyList();
+		}
+		List<IRteComponentItem> matching = new ArrayList<IRteComponentItem>();
+		for(Entry<String, ? extends IRteComponentItem> e : children.entrySet()) {
+			if(matchKey(pattern, e.getKey())) {
+				matching.add(e.getValue());
+			}
+		}
+		return matching;
+	}
+
+	/**
+	 * Returns index of exact child keys suitable to find children matching the pattern, builds it if needed
+	 * @param pattern key pattern
+	 * @return index or null if the pattern must be matched against all child keys
+	 */
+	protected Map<String, IRteComponentItem> getKeyIndex(String pattern) {
+		if(pattern == null || getChildCount() <= INDEX_THRESHOLD || !CompiledWildcard.isLiteral(pattern)) {
+			return null;
+		}
+		EComponentAttribute keyAttribute = getKeyAttribute();
+		if(keyAttribute == null) {
+			return null;
+		}
+		switch(keyAttribute) {
+		case CVERSION:
+		case CAPIVERSION:
+		case CVENDOR:
+		case CNONE:
+			return null; // version ranges, vendor aliases or no key at all
+		default:
+			break;
+		}
+		if(fKeyIndex == null) {
+			// the child map comparator can treat different keys as equal => index the stored keys
+			Map<String, IRteComponentItem> keyIndex = new HashMap<String, IRteComponentItem>();
+			boolean bWildcardKeys = false;
+			for(Entry<String, IRteComponentItem> e : childMap().entrySet()) {
+				keyIndex.put(e.getKey(), e.getValue());
+				if(!CompiledWildcard.isLiteral(e.getKey())) {
+					bWildcardKeys = true; // such keys can match a plain pattern
+				}
+			}
+			fbWildcardKeys = bWildcardKeys;
+			fKeyIndex = keyIndex;
+		}
+		return fbWildcardKeys ? null : fKeyIndex;
+	}
+
 	@Override
 	public boolean matchKey(String pattern, String key) {
 		if(pattern == null) {
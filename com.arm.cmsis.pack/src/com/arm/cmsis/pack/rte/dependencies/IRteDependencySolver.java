@@ -37,6 +37,15 @@ public interface IRteDependencySolver extends ICpConditionContext{
 	EEvaluationResult resolveDependencies();
 	
 	
+	/**
+	 * Tries to resolve component dependencies in rounds: best matches of all SELECTABLE dependencies
+	 * are selected together and dependencies are re-evaluated once per round.  
+	 * Stops when all dependencies are resolved or a round does not change the selection. 
+	 * @return evaluation result after dependency resolving 
+	 */
+	EEvaluationResult resolveAllDependencies();
+	
+	
 	/**
 	 * Returns dependency item for given component item (bundle, group or component) 
 	 * @param component IRteComponentItem for which to get result 
@@ -11,17 +11,27 @@
 
 package com.arm.cmsis.pack.rte.dependencies;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.arm.cmsis.pack.common.CmsisConstants;
 import com.arm.cmsis.pack.data.CpConditionContext;
+import com.arm.cmsis.pack.data.CpConditionProgram;
 import com.arm.cmsis.pack.data.ICpComponent;
+import com.arm.cmsis.pack.data.ICpCondition;
 import com.arm.cmsis.pack.data.ICpExpression;
 import com.arm.cmsis.pack.data.ICpItem;
 import com.arm.cmsis.pack.enums.EEvaluationResult;
@@ -33,6 +43,7 @@ import com.arm.cmsis.pack.rte.components.IRteComponent;
 import com.arm.cmsis.pack.rte.components.IRteComponentGroup;
 import com.arm.cmsis.pack.rte.components.IRteComponentItem;
 import com.arm.cmsis.pack.utils.AlnumComparator;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
 
 /**
  * Class responsible for evaluating component dependencies and resolving them 
@@ -50,9 +61,21 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 	
 	// temporary collection of selected components
 	protected Collection<IRteComponent> tSelectedComponents = null; 
+
+	// temporary collection of used components, selecting components does not change it
+	protected Collection<IRteComponent> tUsedComponents = null;
+
+	// temporary index of selected components, updated together with tSelectedComponents
+	protected SelectedComponentIndex tSelectionIndex = null;
 	
 	protected Map<IRteComponentItem, EEvaluationResult> fEvaluationResults = null;
 
+	// reverse dependencies: evaluated item -> items whose cached results depend on it
+	protected Map<ICpItem, Set<ICpItem>> fDependents = null;
+
+	// Cclass/Cgroup pairs of components whose selection has changed since last evaluation, null if all results must be re-evaluated
+	protected Collection<String[]> fChangedGroups = null;
+
 	 /**
 	 *  Helper class to compare component by evaluation result (descending) and component name (acceding) 
 	 */
@@ -86,6 +109,116 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 		fEvaluationResults = null;
 		fDependencyItems = null;
 		tSelectedComponents = null;
+		tUsedComponents = null;
+		tSelectionIndex = null;
+		fDependents = null;
+		fChangedGroups = null;
+	}
+
+	/**
+	 * Removes cached results affected by selection change of components in given groups, keeps all other results
+	 * @param changedGroups collection of Cclass/Cgroup pairs, null values match any class or group
+	 */
+	protected void invalidateResults(Collection<String[]> changedGroups) {
+		Deque<ICpItem> dirty = new ArrayDeque<ICpItem>();
+		collectAffectedExpressions(fDependencies, changedGroups, dirty);
+		collectAffectedExpressions(fDenyDependencies, changedGroups, dirty);
+		// propagate to conditions, references and components that depend on affected expressions
+		while(!dirty.isEmpty()) {
+			ICpItem item = dirty.poll();
+			fResults.remove(item);
+			Set<ICpItem> dependents = fDependents != null ? fDependents.remove(item) : null;
+			if(dependents != null)
+				dirty.addAll(dependents);
+		}
+		fResult = EEvaluationResult.IGNORED;
+		tResultAccept = EEvaluationResult.UNDEFINED;
+		tbDeny = false;
+		fEvaluationResults = null;
+		fDependencyItems = null;
+	}
+
+	private static void collectAffectedExpressions(Map<ICpExpression, IRteDependency> dependencies, Collection<String[]> changedGroups, Collection<ICpItem> affected) {
+		if(dependencies == null)
+			return;
+		for(Iterator<ICpExpression> it = dependencies.keySet().iterator(); it.hasNext();) {
+			ICpExpression expr = it.next();
+			if(isAffected(expr.attributes(), changedGroups)) {
+				it.remove();
+				affected.add(expr);
+			}
+		}
+	}
+
+	private static boolean isAffected(IAttributes attributes, Collection<String[]> changedGroups) {
+		String cclass = attributes.getAttribute(CmsisConstants.CCLASS);
+		String cgroup = attributes.getAttribute(CmsisConstants.CGROUP);
+		for(String[] g : changedGroups) {
+			if(cclass != null && g[0] != null && !CompiledWildcard.match(cclass, g[0], true))
+				continue;
+			if(cgroup != null && g[1] != null && !CompiledWildcard.match(cgroup, g[1], true))
+				continue;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Updates temporary selection data after selection change and returns Cclass/Cgroup pairs of components which selection differs
+	 * @param before components selected before selection change
+	 * @param after components selected after selection change
+	 * @param changed component which selection was explicitly changed, null if only the difference matters
+	 * @return collection of Cclass/Cgroup pairs
+	 */
+	protected Collection<String[]> updateSelection(Collection<IRteComponent> before, Collection<IRteComponent> after, IRteComponent changed) {
+		tSelectedComponents = after;
+		Collection<String[]> groups = new ArrayList<String[]>();
+		if(changed != null)
+			addChangedGroup(groups, changed);
+		Set<IRteComponent> beforeSet = before != null ? new HashSet<IRteComponent>(before) : new HashSet<IRteComponent>();
+		Set<IRteComponent> afterSet = after != null ? new HashSet<IRteComponent>(after) : new HashSet<IRteComponent>();
+		for(IRteComponent c : beforeSet) {
+			if(!afterSet.contains(c)) {
+				addChangedGroup(groups, c);
+				if(tSelectionIndex != null)
+					tSelectionIndex.remove(c);
+			}
+		}
+		for(IRteComponent c : afterSet) {
+			if(!beforeSet.contains(c)) {
+				addChangedGroup(groups, c);
+				if(tSelectionIndex != null)
+					tSelectionIndex.add(c);
+			}
+		}
+		return groups;
+	}
+
+	private static void addChangedGroup(Collection<String[]> groups, IRteComponent component) {
+		ICpComponent c = component.getActiveCpComponent();
+		if(c == null) {
+			groups.add(new String[]{null, null}); // unknown => everything is affected
+		} else {
+			groups.add(new String[]{c.getAttribute(CmsisConstants.CCLASS), c.getAttribute(CmsisConstants.CGROUP)});
+		}
+	}
+
+	/**
+	 * Remembers that cached result of an item depends on the result of another one
+	 * @param item evaluated item
+	 * @param dependent item whose result depends on the item
+	 */
+	protected void addDependent(ICpItem item, ICpItem dependent) {
+		if(item == null || dependent == null)
+			return;
+		if(fDependents == null)
+			fDependents = new HashMap<ICpItem, Set<ICpItem>>();
+		Set<ICpItem> dependents = fDependents.get(item);
+		if(dependents == null) {
+			dependents = new HashSet<ICpItem>();
+			fDependents.put(item, dependents);
+		}
+		dependents.add(dependent);
 	}
 	
 	protected Collection<IRteComponent> getSelectedComponents(){
@@ -96,10 +229,19 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 		return tSelectedComponents;
 	}
 
+	protected SelectedComponentIndex getSelectionIndex(){
+		if(tSelectionIndex == null) {
+			tSelectionIndex = new SelectedComponentIndex(getSelectedComponents());
+		}
+		return tSelectionIndex;
+	}
+
 	protected Collection<IRteComponent> getUsedComponents(){
-		if(rteModel != null)
-			return rteModel.getUsedComponents();
-		return null;
+		if(tUsedComponents == null) {
+			if(rteModel != null)
+				tUsedComponents = rteModel.getUsedComponents();
+		}
+		return tUsedComponents;
 	}
 	
 	
@@ -116,31 +258,42 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 	}
 	
 	protected void collectDependencies(IRteDependencyResult depRes, ICpItem condition, EEvaluationResult overallResult) {
+		if(condition instanceof ICpCondition) {
+			collectDependencies(depRes, ((ICpCondition)condition).getProgram(), overallResult);
+		}
+	}
+
+	protected void collectDependencies(IRteDependencyResult depRes, CpConditionProgram program, EEvaluationResult overallResult) {
 		// first check require and deny expressions
-		Collection<? extends ICpItem> children = condition.getChildren();
-		for(ICpItem child :  children) {
-			if(!(child instanceof ICpExpression))
-				continue;
-			ICpExpression expr = (ICpExpression)child;
+		int size = program.size();
+		for(int i = 0; i < size; i++) {
+			ICpExpression expr = program.getExpression(i);
 			EEvaluationResult res =  getCachedResult(expr);
-			if(res == EEvaluationResult.IGNORED || res == EEvaluationResult.UNDEFINED || res == EEvaluationResult.FULFILLED)
+			if(res == null || res == EEvaluationResult.IGNORED || res == EEvaluationResult.UNDEFINED || res == EEvaluationResult.FULFILLED)
 				continue;
-			
-			if(expr.getExpressionType() == ICpExpression.ACCEPT_EXPRESSION) {
+
+			byte op = program.getOp(i);
+			if(op == CpConditionProgram.OP_ACCEPT) {
 				if(res.ordinal() < overallResult.ordinal()){
-					continue; // ignored 
+					continue; // ignored
 				}
 			} else {
 				if(res.ordinal() > overallResult.ordinal()){
 					continue;
-				}	
+				}
 			}
-			boolean bDeny = tbDeny; // save deny context  
-			if(expr.getExpressionType() == ICpExpression.DENY_EXPRESSION)
-				tbDeny = !tbDeny; // invert the deny context 
-			if(expr.getExpressionDomain() == ICpExpression.REFERENCE_EXPRESSION) {
-				collectDependencies(depRes, expr.getCondition(), overallResult);
-			} else if(expr.getExpressionDomain() == ICpExpression.COMPONENT_EXPRESSION) {
+			boolean bDeny = tbDeny; // save deny context
+			if(op == CpConditionProgram.OP_DENY)
+				tbDeny = !tbDeny; // invert the deny context
+			char domain = program.getDomain(i);
+			if(domain == ICpExpression.REFERENCE_EXPRESSION) {
+				CpConditionProgram ref = program.getReference(i);
+				if(ref != null) {
+					collectDependencies(depRes, ref, overallResult);
+				} else {
+					collectDependencies(depRes, expr.getCondition(), overallResult);
+				}
+			} else if(domain == ICpExpression.COMPONENT_EXPRESSION) {
 				IRteDependency dep = getDependency(expr);
 				if(dep != null) {
 					depRes.addDependency(dep);
@@ -172,6 +325,30 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 	}
 
 
+	@Override
+	protected EEvaluationResult evaluateInstruction(CpConditionProgram program, int i) {
+		addDependent(program.getExpression(i), program.getCondition());
+		return super.evaluateInstruction(program, i);
+	}
+
+	@Override
+	protected EEvaluationResult executeInstruction(CpConditionProgram program, int i) {
+		switch(program.getDomain(i)) {
+		case ICpExpression.DEVICE_EXPRESSION:
+		case ICpExpression.TOOLCHAIN_EXPRESSION:
+			return EEvaluationResult.IGNORED; // already evaluated by component filter
+		case ICpExpression.REFERENCE_EXPRESSION:
+			CpConditionProgram ref = program.getReference(i);
+			ICpExpression expr = program.getExpression(i);
+			addDependent(ref != null ? ref.getCondition() : expr.getCondition(), expr);
+			break;
+		default:
+			break;
+		}
+		return super.executeInstruction(program, i);
+	}
+
+
 	protected EEvaluationResult evaluateDependency( ICpExpression expression) {
 		if(rteModel == null)
 			return EEvaluationResult.IGNORED; // nothing to do
@@ -201,16 +378,35 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 		if(selectedComponents == null || selectedComponents.isEmpty())
 			return res;
 		IAttributes attr = dep.getCpItem().attributes();
-		for(IRteComponent rteComponent : selectedComponents) {
+		Collection<IRteComponent> candidates = getSelectionIndex().getCandidates(attr);
+		if(candidates == null) {
+			candidates = selectedComponents;
+		}
+		List<IRteComponent> matching = new ArrayList<IRteComponent>();
+		for(IRteComponent rteComponent : candidates) {
 			ICpComponent c = rteComponent.getActiveCpComponent();
 			if(c == null)
 				continue; // should not happen
 					
 			if(attr.matchAttributes(c.attributes())) {
-				res = EEvaluationResult.INCOMPATIBLE;
-				dep.addComponent(rteComponent, res);
+				matching.add(rteComponent);
+			}
+		}
+		if(matching.isEmpty())
+			return res;
+		if(matching.size() > 1 && candidates != selectedComponents) {
+			// report components in selection order
+			Set<IRteComponent> matchingSet = new HashSet<IRteComponent>(matching);
+			matching.clear();
+			for(IRteComponent rteComponent : selectedComponents) {
+				if(matchingSet.contains(rteComponent))
+					matching.add(rteComponent);
 			}
 		}
+		res = EEvaluationResult.INCOMPATIBLE;
+		for(IRteComponent rteComponent : matching) {
+			dep.addComponent(rteComponent, res);
+		}
 		return res;
 	}
 
@@ -249,7 +445,12 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 
 	@Override
 	public EEvaluationResult evaluateDependencies() {
-		resetResult();
+		if(fChangedGroups != null && fResults != null) {
+			invalidateResults(fChangedGroups); // incremental update
+			fChangedGroups = null;
+		} else {
+			resetResult();
+		}
 		if(rteModel == null)
 			return EEvaluationResult.IGNORED; // nothing to do
 		
@@ -303,6 +504,7 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 			ICpComponent c = component.getActiveCpComponent();
 			if(c == null || c instanceof ICpComponentInfo)
 				continue;
+			addDependent(c.getCondition(), c);
 			EEvaluationResult r = evaluate(c);
 
 			if(r.ordinal() < fResult.ordinal())
@@ -445,14 +647,93 @@ public class RteDependencySolver extends CpConditionContext implements IRteDepen
 		
 		IRteComponent c = dependency.getBestMatch();
 		if(c != null) {
+			Collection<IRteComponent> selectedBefore = getSelectedComponents(); // selection cached results correspond to
 			rteModel.selectComponent(c, 1);
-			rteModel.evaluateComponentDependencies(); // re-evaluate dependencies to remove resolved ones
+			// re-evaluate dependencies to remove resolved ones, only results affected by the selection change are re-evaluated
+			fChangedGroups = updateSelection(selectedBefore, rteModel.getSelectedComponents(), c);
+			rteModel.evaluateComponentDependencies();
+			fChangedGroups = null;
 			return true;
 		}
 		return false;
 	}
 
 
+	@Override
+	public EEvaluationResult resolveAllDependencies() {
+		// run resolve rounds until all dependencies are resolved or a round makes no progress
+		while(fDependencyItems != null && getEvaluationResult().ordinal() < EEvaluationResult.FULFILLED.ordinal())
+		{	
+			if(resolveRound() == false)
+				break;
+		}
+		return getEvaluationResult();
+	}
+
+	/**
+	 * Selects best matches of all SELECTABLE dependencies at once and re-evaluates dependencies 
+	 * @return true if selection has changed  
+	 */
+	protected boolean resolveRound(){
+		Collection<IRteComponent> bestMatches = new LinkedHashSet<IRteComponent>();
+		for(IRteDependencyItem depItem : fDependencyItems.values()) {
+			collectBestMatches(depItem, bestMatches);
+		}
+		Collection<IRteComponent> selectedBefore = getSelectedComponents(); // selection cached results correspond to
+		boolean changed = false;
+		for(IRteComponent c : bestMatches) {
+			if(c.isSelected())
+				continue;
+			rteModel.selectComponent(c, 1);
+			changed = true;
+		}
+		if(!changed)
+			return false; // no progress 
+		// re-evaluate dependencies once for all selected components
+		fChangedGroups = updateSelection(selectedBefore, rteModel.getSelectedComponents(), null);
+		rteModel.evaluateComponentDependencies();
+		fChangedGroups = null;
+		return true;
+	}
+
+	/**
+	 * Collects best matches of SELECTABLE dependencies of a dependency item.
+	 * All required components are collected, but only the first of accepted alternatives 
+	 * @param depItem IRteDependencyItem to resolve
+	 * @param bestMatches collection to add components to select 
+	 */
+	protected void collectBestMatches(IRteDependencyItem depItem, Collection<IRteComponent> bestMatches){
+		if(depItem.getEvaluationResult() != EEvaluationResult.SELECTABLE)
+			return;
+		if(!(depItem instanceof IRteDependencyResult))
+			return;
+		Collection<IRteDependency> deps = ((IRteDependencyResult)depItem).getDependencies();
+		if(deps == null)
+			return;
+		boolean bAccepted = false;
+		for(IRteDependency d : deps) {
+			if(d.getEvaluationResult() != EEvaluationResult.SELECTABLE)
+				continue;
+			boolean bAccept = isAccept(d);
+			if(bAccept && bAccepted)
+				continue; // one alternative is enough 
+			IRteComponent c = d.getBestMatch();
+			if(c == null)
+				continue;
+			bestMatches.add(c);
+			if(bAccept)
+				bAccepted = true;
+		}
+	}
+
+	private static boolean isAccept(IRteDependency dependency) {
+		ICpItem item = dependency.getCpItem();
+		if(item instanceof ICpExpression)
+			return ((ICpExpression)item).getExpressionType() == ICpExpression.ACCEPT_EXPRESSION;
+		return false;
+	}
+
+
 	@Override
 	public Collection<? extends IRteDependencyItem> getDependencyItems() {
 		if(fDependencyItems != null) 
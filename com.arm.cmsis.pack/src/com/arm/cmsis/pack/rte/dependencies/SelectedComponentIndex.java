@@ -0,0 +1,163 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.rte.dependencies;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.ICpComponent;
+import com.arm.cmsis.pack.generic.IAttributes;
+import com.arm.cmsis.pack.rte.components.IRteComponent;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * Index of selected components by Cclass and Cgroup of their active components.
+ * <p/>
+ * Used to find selected components matching component attributes (for instance of a deny expression)
+ * without scanning the entire selection.
+ * Components whose Cclass or Cgroup is missing or contains wild cards are kept in separate buckets
+ * that are always returned as candidates.
+ */
+public class SelectedComponentIndex {
+
+	private final Map<String, List<IRteComponent>> fByClass = new HashMap<String, List<IRteComponent>>();
+	private final Map<String, List<IRteComponent>> fByGroup = new HashMap<String, List<IRteComponent>>(); // Cclass:Cgroup
+	private final Map<String, List<IRteComponent>> fIrregularGroups = new HashMap<String, List<IRteComponent>>(); // Cclass -> no plain Cgroup
+	private final List<IRteComponent> fIrregularClasses = new ArrayList<IRteComponent>(); // no plain Cclass
+	private final Map<IRteComponent, String[]> fKeys = new HashMap<IRteComponent, String[]>(); // indexed component -> Cclass, Cgroup
+
+	/**
+	 * Creates index of given components
+	 * @param components selected components
+	 */
+	public SelectedComponentIndex(Collection<IRteComponent> components) {
+		if(components == null)
+			return;
+		for(IRteComponent c : components) {
+			add(c);
+		}
+	}
+
+	/**
+	 * Adds a component to the index, does nothing if the component is already indexed
+	 * @param component IRteComponent to add
+	 */
+	public void add(IRteComponent component) {
+		if(component == null || fKeys.containsKey(component))
+			return;
+		String cclass = null;
+		String cgroup = null;
+		ICpComponent c = component.getActiveCpComponent();
+		if(c != null) {
+			cclass = c.getAttribute(CmsisConstants.CCLASS);
+			cgroup = c.getAttribute(CmsisConstants.CGROUP);
+		}
+		String[] keys = new String[]{cclass, cgroup};
+		fKeys.put(component, keys);
+		if(!isPlain(cclass)) {
+			fIrregularClasses.add(component);
+			return;
+		}
+		bucket(fByClass, cclass).add(component);
+		if(isPlain(cgroup)) {
+			bucket(fByGroup, groupKey(cclass, cgroup)).add(component);
+		} else {
+			bucket(fIrregularGroups, cclass).add(component);
+		}
+	}
+
+	/**
+	 * Removes a component from the index
+	 * @param component IRteComponent to remove
+	 */
+	public void remove(IRteComponent component) {
+		String[] keys = fKeys.remove(component);
+		if(keys == null)
+			return;
+		String cclass = keys[0];
+		String cgroup = keys[1];
+		if(!isPlain(cclass)) {
+			fIrregularClasses.remove(component);
+			return;
+		}
+		remove(fByClass, cclass, component);
+		if(isPlain(cgroup)) {
+			remove(fByGroup, groupKey(cclass, cgroup), component);
+		} else {
+			remove(fIrregularGroups, cclass, component);
+		}
+	}
+
+	/**
+	 * Returns indexed components that can match given attributes,
+	 * the caller must still match attributes of each candidate
+	 * @param attributes attributes to match, for instance of a component expression
+	 * @return collection of candidates in no particular order or null if the index cannot narrow the selection
+	 */
+	public Collection<IRteComponent> getCandidates(IAttributes attributes) {
+		String cclass = attributes.getAttribute(CmsisConstants.CCLASS);
+		if(!isPlain(cclass))
+			return null;
+		String cgroup = attributes.getAttribute(CmsisConstants.CGROUP);
+		List<IRteComponent> candidates = new ArrayList<IRteComponent>(fIrregularClasses);
+		if(isPlain(cgroup)) {
+			addAll(candidates, fByGroup.get(groupKey(cclass, cgroup)));
+			addAll(candidates, fIrregularGroups.get(cclass));
+		} else {
+			addAll(candidates, fByClass.get(cclass));
+		}
+		return candidates;
+	}
+
+	/**
+	 * Returns number of indexed components
+	 * @return component count
+	 */
+	public int size() {
+		return fKeys.size();
+	}
+
+	private static boolean isPlain(String value) {
+		return value != null && CompiledWildcard.isLiteral(value);
+	}
+
+	private static String groupKey(String cclass, String cgroup) {
+		return cclass + ':' + cgroup;
+	}
+
+	private static List<IRteComponent> bucket(Map<String, List<IRteComponent>> map, String key) {
+		List<IRteComponent> bucket = map.get(key);
+		if(bucket == null) {
+			bucket = new ArrayList<IRteComponent>(1);
+			map.put(key, bucket);
+		}
+		return bucket;
+	}
+
+	private static void remove(Map<String, List<IRteComponent>> map, String key, IRteComponent component) {
+		List<IRteComponent> bucket = map.get(key);
+		if(bucket == null)
+			return;
+		bucket.remove(component);
+		if(bucket.isEmpty())
+			map.remove(key);
+	}
+
+	private static void addAll(List<IRteComponent> candidates, List<IRteComponent> bucket) {
+		if(bucket != null)
+			candidates.addAll(bucket);
+	}
+}
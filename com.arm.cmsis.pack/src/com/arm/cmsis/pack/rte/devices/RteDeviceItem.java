@@ -11,8 +11,12 @@
 
 package com.arm.cmsis.pack.rte.devices;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -40,6 +44,21 @@ public class RteDeviceItem extends CmsisMapItem<IRteDeviceItem> implements IRteD
 	private int fLevel = EDeviceHierarchyLevel.NONE.ordinal();
 	private Map<String, ICpDeviceItem> fDevices = null;
 	private Set<String> fDeviceNames = null;
+	// root only: built on demand and discarded when the tree changes, published at once since trees can be shared between threads
+	private volatile NameIndex fNameIndex = null;
+
+	/**
+	 * Immutable name index: items by AlnumComparator key of their names
+	 */
+	private static final class NameIndex {
+		final Map<String, List<IRteDeviceItem>> items;
+		final boolean bWildcardNames; // some item names contain wild cards => index cannot be used
+
+		NameIndex(Map<String, List<IRteDeviceItem>> items, boolean bWildcardNames) {
+			this.items = Collections.unmodifiableMap(items);
+			this.bWildcardNames = bWildcardNames;
+		}
+	}
 
 	/**
 	 *
@@ -88,6 +107,126 @@ public class RteDeviceItem extends CmsisMapItem<IRteDeviceItem> implements IRteD
 		return fLevel;
 	}
 
+	@Override
+	public void clear() {
+		super.clear();
+		invalidateNameIndex();
+	}
+
+	@Override
+	public void addChild(IRteDeviceItem item) {
+		super.addChild(item);
+		invalidateNameIndex();
+	}
+
+	@Override
+	public IRteDeviceItem removeChild(String key) {
+		invalidateNameIndex();
+		return super.removeChild(key);
+	}
+
+	@Override
+	public void removeChild(IRteDeviceItem childToRemove) {
+		invalidateNameIndex();
+		super.removeChild(childToRemove);
+	}
+
+	/**
+	 * Discards name index of the root item, it gets rebuilt on the next lookup
+	 */
+	protected void invalidateNameIndex() {
+		IRteDeviceItem root = getRoot();
+		if(root instanceof RteDeviceItem) {
+			((RteDeviceItem)root).fNameIndex = null;
+		}
+	}
+
+	/**
+	 * Returns name index of the root item, builds it if needed
+	 * @return map of AlnumComparator keys to items or null if the index cannot be used
+	 */
+	protected Map<String, List<IRteDeviceItem>> getNameIndex() {
+		if(fLevel != EDeviceHierarchyLevel.ROOT.ordinal()) {
+			return null;
+		}
+		NameIndex index = fNameIndex;
+		if(index == null) {
+			// build in local variables, concurrent lookups build their own index or use the published one
+			Map<String, List<IRteDeviceItem>> items = new HashMap<String, List<IRteDeviceItem>>();
+			boolean bWildcardNames = addToNameIndex(items, this);
+			index = new NameIndex(items, bWildcardNames);
+			fNameIndex = index;
+		}
+		return index.bWildcardNames ? null : index.items;
+	}
+
+	/**
+	 * Adds children of an item to the index recursively
+	 * @param index map to fill
+	 * @param item IRteDeviceItem whose children to add
+	 * @return true if some name contains wild cards
+	 */
+	private static boolean addToNameIndex(Map<String, List<IRteDeviceItem>> index, IRteDeviceItem item) {
+		Collection<? extends IRteDeviceItem> children = item.getChildren();
+		if(children == null) {
+			return false;
+		}
+		boolean bWildcardNames = false;
+		for(IRteDeviceItem child : children) {
+			String key = AlnumComparator.alnumKey(child.getName(), false);
+			if(key == null) {
+				bWildcardNames = true;
+			} else {
+				List<IRteDeviceItem> items = index.get(key);
+				if(items == null) {
+					items = new ArrayList<IRteDeviceItem>(1);
+					index.put(key, items);
+				}
+				items.add(child);
+			}
+			if(addToNameIndex(index, child)) {
+				bWildcardNames = true;
+			}
+		}
+		return bWildcardNames;
+	}
+
+	/**
+	 * Looks up items with given name in the name index, applies the same criteria as the tree search in {@link #findItem(String, String, boolean)}
+	 * @param deviceName device name to search for
+	 * @param vendorItem vendor item to search in, null to search in all vendors
+	 * @param onlyDevice true to skip items above device level
+	 * @return list of found items or null if the index cannot be used
+	 */
+	protected List<IRteDeviceItem> findIndexedItems(String deviceName, IRteDeviceItem vendorItem, boolean onlyDevice) {
+		if(deviceName == null || deviceName.isEmpty()) {
+			return null;
+		}
+		String key = AlnumComparator.alnumKey(deviceName, false);
+		if(key == null) {
+			return null; // wild card search
+		}
+		Map<String, List<IRteDeviceItem>> index = getNameIndex();
+		if(index == null) {
+			return null;
+		}
+		List<IRteDeviceItem> found = new ArrayList<IRteDeviceItem>(1);
+		List<IRteDeviceItem> items = index.get(key);
+		if(items == null) {
+			return found;
+		}
+		for(IRteDeviceItem item : items) {
+			if(onlyDevice && item.getLevel() <= EDeviceHierarchyLevel.SUBFAMILY.ordinal()) {
+				continue;
+			}
+			if(vendorItem != null && (item == vendorItem || item.getVendorItem() != vendorItem)) {
+				continue;
+			}
+			found.add(item);
+		}
+		return found;
+	}
+
 	@Override
 	public Collection<ICpDeviceItem> getDevices() {
 		if(fDevices != null) {
@@ -98,15 +237,16 @@ public class RteDeviceItem extends CmsisMapItem<IRteDeviceItem> implements IRteD
 
 	@Override
 	public ICpDeviceItem getDevice() {
-		if(fDevices != null && ! fDevices.isEmpty()) {
+		Collection<ICpDeviceItem> devices = getDevices();
+		if(devices != null && ! devices.isEmpty()) {
 			// Return the latest INSTALLED pack's device
-			for (ICpDeviceItem device : fDevices.values()) {
+			for (ICpDeviceItem device : devices) {
 				if (device.getPack().getPackState() == PackState.INSTALLED) {
 					return device;
 				}
 			}
 			// Otherwise return the latest pack's device
-			return fDevices.entrySet().iterator().next().getValue();
+			return devices.iterator().next();
 		}
 		return null;
 	}
@@ -332,9 +472,20 @@ public class RteDeviceItem extends CmsisMapItem<IRteDeviceItem> implements IRteD
 			String vendorName = DeviceVendor.getOfficialVendorName(vendor);
 			IRteDeviceItem dti = getChild(vendorName);
 			if(dti != null) {
+				List<IRteDeviceItem> found = findIndexedItems(deviceName, dti, onlyDevice);
+				if(found != null && found.size() <= 1) {
+					return found.isEmpty() ? null : found.get(0);
+				}
+				// ambiguous or not indexed name => search the tree to get the first item
 				return dti.findItem(deviceName, vendorName, onlyDevice);
 			}
 		} else {
+			if(fLevel == EDeviceHierarchyLevel.ROOT.ordinal()) {
+				List<IRteDeviceItem> found = findIndexedItems(deviceName, null, onlyDevice);
+				if(found != null && found.size() <= 1) {
+					return found.isEmpty() ? null : found.get(0);
+				}
+			}
 			// check if device item can be found directly on this level
 			IRteDeviceItem dti = getChild(deviceName);
 			if(dti != null) {
@@ -439,24 +590,19 @@ public class RteDeviceItem extends CmsisMapItem<IRteDeviceItem> implements IRteD
 
 	@Override
 	public Set<String> getAllPackIds() {
-		if (fLevel == EDeviceHierarchyLevel.PROCESSOR.ordinal()) {
-			Set<String> ret = new HashSet<String>();
-			if (fDevices != null) {
-				for (String id : fDevices.keySet()) {
-					ret.add(CpPack.familyFromId(id));
-				}
-			}
-			return ret;
-		}
 		Set<String> ret = new HashSet<String>();
-		if (fChildMap != null) {
-			for (IRteDeviceItem item : fChildMap.values()) {
-				ret.addAll(item.getAllPackIds());
+		if (fLevel != EDeviceHierarchyLevel.PROCESSOR.ordinal()) {
+			Collection<? extends IRteDeviceItem> children = getChildren();
+			if (children != null) {
+				for (IRteDeviceItem item : children) {
+					ret.addAll(item.getAllPackIds());
+				}
 			}
 		}
-		if (fDevices != null) {
-			for (String id : fDevices.keySet()) {
-				ret.add(CpPack.familyFromId(id));
+		Collection<ICpDeviceItem> devices = getDevices();
+		if (devices != null) {
+			for (ICpDeviceItem device : devices) {
+				ret.add(CpPack.familyFromId(device.getPack().getId()));
 			}
 		}
 		return ret;
@@ -0,0 +1,251 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.rte.devices;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.arm.cmsis.pack.enums.EDeviceParameter;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * Parametric device query evaluated by {@link RteDeviceTable}.
+ * <p/>
+ * A device matches the query if it satisfies all specified criteria, unspecified criteria match any device.
+ * String criteria are case-insensitive and may contain wild cards, vendor is matched like {@link com.arm.cmsis.pack.DeviceVendor#match(String, String)}.
+ * Setters return the query itself to allow chaining, for instance:
+ * <pre>
+ * new RteDeviceQuery().setCore("Cortex-M4").setFpu(true).setMinRomSize(512 * 1024).addSortKey(EDeviceParameter.CLOCK, true);
+ * </pre>
+ */
+public class RteDeviceQuery {
+
+	private CompiledWildcard fName = null;
+	private String fVendor = null;
+	private CompiledWildcard fCore = null;
+	private Boolean fFpu = null;
+	private boolean fbDoublePrecisionFpu = false;
+	private Boolean fMpu = null;
+	private CompiledWildcard fEndian = null;
+	private long fMinClock = 0;
+	private long fMinRomSize = 0;
+	private long fMinRamSize = 0;
+	private CompiledWildcard fPackId = null;
+	private final List<IntPredicate> fFilters = new ArrayList<IntPredicate>();
+	private final List<EDeviceParameter> fSortKeys = new ArrayList<EDeviceParameter>();
+	private final List<Boolean> fDescendingKeys = new ArrayList<Boolean>();
+
+	private static CompiledWildcard compile(String pattern) {
+		if(pattern == null || pattern.isEmpty()) {
+			return null;
+		}
+		return CompiledWildcard.compile(pattern);
+	}
+
+	/**
+	 * Sets device name pattern
+	 * @param name device name, may contain wild cards, null or empty to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setName(String name) {
+		fName = compile(name);
+		return this;
+	}
+
+	CompiledWildcard getName() {
+		return fName;
+	}
+
+	/**
+	 * Sets device vendor
+	 * @param vendor vendor name or ID, null or empty to match any vendor
+	 * @return this query
+	 */
+	public RteDeviceQuery setVendor(String vendor) {
+		fVendor = vendor == null || vendor.isEmpty() ? null : vendor;
+		return this;
+	}
+
+	String getVendor() {
+		return fVendor;
+	}
+
+	/**
+	 * Sets processor core pattern
+	 * @param core Dcore value, for instance <code>"Cortex-M4"</code>, may contain wild cards
+	 * @return this query
+	 */
+	public RteDeviceQuery setCore(String core) {
+		fCore = compile(core);
+		return this;
+	}
+
+	CompiledWildcard getCore() {
+		return fCore;
+	}
+
+	/**
+	 * Sets required presence of floating point unit
+	 * @param fpu true to match devices with FPU, false to match devices without FPU, null to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setFpu(Boolean fpu) {
+		fFpu = fpu;
+		return this;
+	}
+
+	Boolean getFpu() {
+		return fFpu;
+	}
+
+	/**
+	 * Restricts query to devices with double precision floating point unit
+	 * @param bDoublePrecision true to match only devices with double precision FPU
+	 * @return this query
+	 */
+	public RteDeviceQuery setDoublePrecisionFpu(boolean bDoublePrecision) {
+		fbDoublePrecisionFpu = bDoublePrecision;
+		return this;
+	}
+
+	boolean isDoublePrecisionFpu() {
+		return fbDoublePrecisionFpu;
+	}
+
+	/**
+	 * Sets required presence of memory protection unit
+	 * @param mpu true to match devices with MPU, false to match devices without MPU, null to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setMpu(Boolean mpu) {
+		fMpu = mpu;
+		return this;
+	}
+
+	Boolean getMpu() {
+		return fMpu;
+	}
+
+	/**
+	 * Sets endianness pattern
+	 * @param endian Dendian value, for instance <code>"Little-endian"</code>, may contain wild cards
+	 * @return this query
+	 */
+	public RteDeviceQuery setEndian(String endian) {
+		fEndian = compile(endian);
+		return this;
+	}
+
+	CompiledWildcard getEndian() {
+		return fEndian;
+	}
+
+	/**
+	 * Sets minimum processor clock
+	 * @param clock minimum clock in Hz, 0 to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setMinClock(long clock) {
+		fMinClock = clock;
+		return this;
+	}
+
+	long getMinClock() {
+		return fMinClock;
+	}
+
+	/**
+	 * Sets minimum total size of ROM memory regions
+	 * @param size minimum size in bytes, 0 to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setMinRomSize(long size) {
+		fMinRomSize = size;
+		return this;
+	}
+
+	long getMinRomSize() {
+		return fMinRomSize;
+	}
+
+	/**
+	 * Sets minimum total size of RAM memory regions
+	 * @param size minimum size in bytes, 0 to match any device
+	 * @return this query
+	 */
+	public RteDeviceQuery setMinRamSize(long size) {
+		fMinRamSize = size;
+		return this;
+	}
+
+	long getMinRamSize() {
+		return fMinRamSize;
+	}
+
+	/**
+	 * Sets pack ID pattern
+	 * @param packId pack ID, may contain wild cards, for instance <code>"Keil.STM32F4xx_DFP.*"</code>
+	 * @return this query
+	 */
+	public RteDeviceQuery setPackId(String packId) {
+		fPackId = compile(packId);
+		return this;
+	}
+
+	CompiledWildcard getPackId() {
+		return fPackId;
+	}
+
+	/**
+	 * Adds custom filter evaluated after all other criteria
+	 * @param filter predicate called with a row index of the queried {@link RteDeviceTable}
+	 * @return this query
+	 */
+	public RteDeviceQuery addFilter(IntPredicate filter) {
+		if(filter != null) {
+			fFilters.add(filter);
+		}
+		return this;
+	}
+
+	List<IntPredicate> getFilters() {
+		return fFilters;
+	}
+
+	/**
+	 * Adds sort key, results are sorted by keys in the order they are added
+	 * @param key EDeviceParameter to sort by
+	 * @param bAscending true to sort in ascending order, false for descending
+	 * @return this query
+	 */
+	public RteDeviceQuery addSortKey(EDeviceParameter key, boolean bAscending) {
+		if(key != null) {
+			fSortKeys.add(key);
+			fDescendingKeys.add(!bAscending);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns sort keys
+	 * @return unmodifiable list of EDeviceParameter sort keys
+	 */
+	public List<EDeviceParameter> getSortKeys() {
+		return Collections.unmodifiableList(fSortKeys);
+	}
+
+	List<Boolean> getDescendingKeys() {
+		return fDescendingKeys;
+	}
+}
@@ -0,0 +1,395 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.rte.devices;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+import com.arm.cmsis.pack.DeviceVendor;
+import com.arm.cmsis.pack.common.CmsisConstants;
+import com.arm.cmsis.pack.data.ICpDeviceItem;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpMemory;
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.enums.EDeviceParameter;
+import com.arm.cmsis.pack.utils.AlnumComparator;
+import com.arm.cmsis.pack.utils.CompiledWildcard;
+
+/**
+ * Table of device parameters for parametric device search.
+ * <p/>
+ * Each row corresponds to a selectable device of a device tree: a device, a variant or a processor of a multi-core device.
+ * Parameters are extracted once from effective device properties and stored column-wise in arrays,
+ * queries scan the columns and do not access device properties.
+ * The table is immutable, it must be rebuilt if the device tree changes.
+ *
+ * @see RteDeviceQuery
+ */
+public final class RteDeviceTable {
+
+	public static final int NO_FPU = 0;
+	public static final int SP_FPU = 1;
+	public static final int DP_FPU = 2;
+
+	private final int fSize;
+	private final IRteDeviceItem[] fItems;
+	private final String[] fNames;
+	private final String[] fVendors;
+	private final String[] fCores;
+	private final byte[] fFpus;
+	private final boolean[] fMpus;
+	private final String[] fEndians;
+	private final long[] fClocks;
+	private final long[] fRomSizes;
+	private final long[] fRamSizes;
+	private final String[] fPackIds;
+
+	/**
+	 * Creates table of all selectable devices of a device tree
+	 * @param root root of the device tree
+	 */
+	public RteDeviceTable(IRteDeviceItem root) {
+		List<IRteDeviceItem> items = new ArrayList<IRteDeviceItem>();
+		if(root != null) {
+			collectDevices(root, items);
+		}
+		fSize = items.size();
+		fItems = items.toArray(new IRteDeviceItem[fSize]);
+		fNames = new String[fSize];
+		fVendors = new String[fSize];
+		fCores = new String[fSize];
+		fFpus = new byte[fSize];
+		fMpus = new boolean[fSize];
+		fEndians = new String[fSize];
+		fClocks = new long[fSize];
+		fRomSizes = new long[fSize];
+		fRamSizes = new long[fSize];
+		fPackIds = new String[fSize];
+		for(int row = 0; row < fSize; row++) {
+			extractParameters(row);
+		}
+	}
+
+	private static void collectDevices(IRteDeviceItem item, List<IRteDeviceItem> items) {
+		if(item.isDevice()) {
+			items.add(item);
+			return;
+		}
+		Collection<? extends IRteDeviceItem> children = item.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(IRteDeviceItem child : children) {
+			collectDevices(child, items);
+		}
+	}
+
+	private void extractParameters(int row) {
+		IRteDeviceItem item = fItems[row];
+		fNames[row] = item.getName();
+		fVendors[row] = item.getVendorName();
+		fCores[row] = CmsisConstants.EMPTY_STRING;
+		fEndians[row] = CmsisConstants.EMPTY_STRING;
+		fPackIds[row] = CmsisConstants.EMPTY_STRING;
+
+		ICpDeviceItem device = item.getDevice();
+		ICpPack pack = device.getPack();
+		if(pack != null) {
+			fPackIds[row] = pack.getId();
+		}
+		String processorName = item.getProcessorName();
+		if(processorName.isEmpty() && device.getProcessorCount() == 1) {
+			// single-core device with named processor
+			processorName = device.getProcessors().keySet().iterator().next();
+		}
+		ICpItem props = device.getEffectiveProperties(processorName);
+		if(props == null) {
+			return;
+		}
+		fCores[row] = props.getAttribute(CmsisConstants.DCORE);
+		fFpus[row] = (byte)toFpu(props.getAttribute(CmsisConstants.DFPU));
+		fMpus[row] = isMpu(props.getAttribute(CmsisConstants.DMPU));
+		fEndians[row] = props.getAttribute(CmsisConstants.DENDIAN);
+		fClocks[row] = props.attributes().getAttributeAsLong(CmsisConstants.DCLOCK, 0);
+
+		// same criteria as ICpDeviceInfo.getMemorySummary()
+		Collection<ICpItem> mems = props.getChildren(CmsisConstants.MEMORY_TAG);
+		if(mems == null) {
+			return;
+		}
+		for(ICpItem m : mems) {
+			if(!(m instanceof ICpMemory)) {
+				continue;
+			}
+			ICpMemory memory = (ICpMemory)m;
+			long size = memory.attributes().getAttributeAsLong(CmsisConstants.SIZE, 0);
+			if(memory.isRAM()) {
+				fRamSizes[row] += size;
+			} else if(memory.isROM()) {
+				fRomSizes[row] += size;
+			}
+		}
+	}
+
+	private static int toFpu(String fpu) {
+		switch(fpu) {
+		case "1": //$NON-NLS-1$
+		case CmsisConstants.FPU:
+		case CmsisConstants.SP_FPU:
+			return SP_FPU;
+		case CmsisConstants.DP_FPU:
+			return DP_FPU;
+		default:
+			break;
+		}
+		return NO_FPU;
+	}
+
+	private static boolean isMpu(String mpu) {
+		return mpu.equals(CmsisConstants.MPU) || mpu.equals("1"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns number of rows
+	 * @return number of devices in the table
+	 */
+	public int size() {
+		return fSize;
+	}
+
+	/**
+	 * Returns device tree item of a row
+	 * @param row row index
+	 * @return IRteDeviceItem
+	 */
+	public IRteDeviceItem getDeviceItem(int row) {
+		return fItems[row];
+	}
+
+	/**
+	 * Returns device name
+	 * @param row row index
+	 * @return device name, for processors of multi-core devices in the form <code>"Dname:Pname"</code>
+	 */
+	public String getName(int row) {
+		return fNames[row];
+	}
+
+	/**
+	 * Returns official vendor name
+	 * @param row row index
+	 * @return vendor name
+	 */
+	public String getVendor(int row) {
+		return fVendors[row];
+	}
+
+	/**
+	 * Returns processor core
+	 * @param row row index
+	 * @return Dcore value or empty string
+	 */
+	public String getCore(int row) {
+		return fCores[row];
+	}
+
+	/**
+	 * Returns floating point unit type
+	 * @param row row index
+	 * @return {@link #NO_FPU}, {@link #SP_FPU} or {@link #DP_FPU}
+	 */
+	public int getFpu(int row) {
+		return fFpus[row];
+	}
+
+	/**
+	 * Checks if processor has memory protection unit
+	 * @param row row index
+	 * @return true if MPU is present
+	 */
+	public boolean hasMpu(int row) {
+		return fMpus[row];
+	}
+
+	/**
+	 * Returns processor endianness
+	 * @param row row index
+	 * @return Dendian value or empty string
+	 */
+	public String getEndian(int row) {
+		return fEndians[row];
+	}
+
+	/**
+	 * Returns maximum processor clock
+	 * @param row row index
+	 * @return clock in Hz, 0 if not specified
+	 */
+	public long getClock(int row) {
+		return fClocks[row];
+	}
+
+	/**
+	 * Returns total size of ROM memory regions
+	 * @param row row index
+	 * @return ROM size in bytes
+	 */
+	public long getRomSize(int row) {
+		return fRomSizes[row];
+	}
+
+	/**
+	 * Returns total size of RAM memory regions
+	 * @param row row index
+	 * @return RAM size in bytes
+	 */
+	public long getRamSize(int row) {
+		return fRamSizes[row];
+	}
+
+	/**
+	 * Returns ID of the pack the device is taken from
+	 * @param row row index
+	 * @return pack ID
+	 */
+	public String getPackId(int row) {
+		return fPackIds[row];
+	}
+
+	/**
+	 * Returns rows matching the query
+	 * @param query RteDeviceQuery to evaluate
+	 * @return array of row indices in query sort order, rows with equal keys keep table order
+	 */
+	public int[] selectRows(RteDeviceQuery query) {
+		int[] rows = new int[fSize];
+		int count = 0;
+		for(int row = 0; row < fSize; row++) {
+			if(matches(query, row)) {
+				rows[count++] = row;
+			}
+		}
+		rows = Arrays.copyOf(rows, count);
+		List<EDeviceParameter> sortKeys = query.getSortKeys();
+		if(sortKeys.isEmpty() || count < 2) {
+			return rows;
+		}
+		Integer[] sorted = new Integer[count];
+		for(int i = 0; i < count; i++) {
+			sorted[i] = rows[i];
+		}
+		Arrays.sort(sorted, createComparator(sortKeys, query.getDescendingKeys()));
+		for(int i = 0; i < count; i++) {
+			rows[i] = sorted[i];
+		}
+		return rows;
+	}
+
+	/**
+	 * Returns devices matching the query
+	 * @param query RteDeviceQuery to evaluate
+	 * @return list of device tree items in query sort order
+	 */
+	public List<IRteDeviceItem> query(RteDeviceQuery query) {
+		int[] rows = selectRows(query);
+		List<IRteDeviceItem> items = new ArrayList<IRteDeviceItem>(rows.length);
+		for(int row : rows) {
+			items.add(fItems[row]);
+		}
+		return items;
+	}
+
+	private boolean matches(RteDeviceQuery query, int row) {
+		// numeric criteria first: they are the cheapest
+		if(fClocks[row] < query.getMinClock() || fRomSizes[row] < query.getMinRomSize() || fRamSizes[row] < query.getMinRamSize()) {
+			return false;
+		}
+		Boolean fpu = query.getFpu();
+		if(fpu != null && fpu.booleanValue() != (fFpus[row] != NO_FPU)) {
+			return false;
+		}
+		if(query.isDoublePrecisionFpu() && fFpus[row] != DP_FPU) {
+			return false;
+		}
+		Boolean mpu = query.getMpu();
+		if(mpu != null && mpu.booleanValue() != fMpus[row]) {
+			return false;
+		}
+		if(!matches(query.getCore(), fCores[row]) ||
+				!matches(query.getEndian(), fEndians[row]) ||
+				!matches(query.getName(), fNames[row]) ||
+				!matches(query.getPackId(), fPackIds[row])) {
+			return false;
+		}
+		String vendor = query.getVendor();
+		if(vendor != null && !DeviceVendor.match(vendor, fVendors[row])) {
+			return false;
+		}
+		for(IntPredicate filter : query.getFilters()) {
+			if(!filter.test(row)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matches(CompiledWildcard pattern, String value) {
+		return pattern == null || pattern.matchNoCase(value);
+	}
+
+	private Comparator<Integer> createComparator(final List<EDeviceParameter> keys, final List<Boolean> descending) {
+		return new Comparator<Integer>() {
+			@Override
+			public int compare(Integer r0, Integer r1) {
+				for(int i = 0; i < keys.size(); i++) {
+					int result = compareRows(keys.get(i), r0, r1);
+					if(result != 0) {
+						return descending.get(i) ? -result : result;
+					}
+				}
+				return Integer.compare(r0, r1);
+			}
+		};
+	}
+
+	private int compareRows(EDeviceParameter key, int r0, int r1) {
+		switch(key) {
+		case NAME:
+			return AlnumComparator.alnumCompare(fNames[r0], fNames[r1], false);
+		case VENDOR:
+			return AlnumComparator.alnumCompare(fVendors[r0], fVendors[r1], false);
+		case CORE:
+			return AlnumComparator.alnumCompare(fCores[r0], fCores[r1], false);
+		case FPU:
+			return Integer.compare(fFpus[r0], fFpus[r1]);
+		case MPU:
+			return Boolean.compare(fMpus[r0], fMpus[r1]);
+		case ENDIAN:
+			return fEndians[r0].compareToIgnoreCase(fEndians[r1]);
+		case CLOCK:
+			return Long.compare(fClocks[r0], fClocks[r1]);
+		case ROM_SIZE:
+			return Long.compare(fRomSizes[r0], fRomSizes[r1]);
+		case RAM_SIZE:
+			return Long.compare(fRamSizes[r0], fRamSizes[r1]);
+		case PACK_ID:
+			return AlnumComparator.alnumCompare(fPackIds[r0], fPackIds[r1], false);
+		default:
+			break;
+		}
+		return 0;
+	}
+}
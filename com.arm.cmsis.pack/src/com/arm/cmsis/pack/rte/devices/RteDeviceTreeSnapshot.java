@@ -0,0 +1,233 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.rte.devices;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.arm.cmsis.pack.data.ICpDeviceItem;
+import com.arm.cmsis.pack.data.ICpItem;
+import com.arm.cmsis.pack.data.ICpPack;
+import com.arm.cmsis.pack.data.ICpPackCollection;
+import com.arm.cmsis.pack.data.ICpPackFamily;
+import com.arm.cmsis.pack.enums.EDeviceHierarchyLevel;
+
+/**
+ * Device tree of all packs in a pack collection that is shared between the pack manager and RTE models.
+ * <p/>
+ * The tree is built once per set of packs and is never modified afterwards.
+ * Every item knows which packs contribute to it, the pack manager and models get lightweight views
+ * created by {@link #createView(Collection)} that show only items of enabled packs.
+ * <p/>
+ * Only the most recent snapshot is cached, use {@link #getSnapshot(ICpPackCollection)} to obtain it.
+ * The pack manager clears the cache when pack collections change.
+ */
+public final class RteDeviceTreeSnapshot {
+
+	private static final int MAX_CACHE_SIZE = 1;
+	// most recently used first
+	private static final List<RteDeviceTreeSnapshot> fCache = new LinkedList<RteDeviceTreeSnapshot>();
+
+	private final ICpPack[] fPacks;	// packs the tree is built from
+	private final Map<String, Integer> fPackIndex = new HashMap<String, Integer>(); // pack ID -> bit
+	private final RteDeviceItem fRoot;
+	// items -> packs contributing to the item or its children
+	private final Map<IRteDeviceItem, BitSet> fItemPacks = new IdentityHashMap<IRteDeviceItem, BitSet>();
+	// items -> packs that add item name to device names, see RteDeviceItem.getAllDeviceNames()
+	private final Map<IRteDeviceItem, BitSet> fNamePacks = new IdentityHashMap<IRteDeviceItem, BitSet>();
+
+	private RteDeviceTreeSnapshot(ICpPack[] packs) {
+		fPacks = packs;
+		List<ICpPack> packList = new ArrayList<ICpPack>(packs.length);
+		for(ICpPack pack : packs) {
+			String packId = pack.getId();
+			if(!fPackIndex.containsKey(packId)) {
+				fPackIndex.put(packId, fPackIndex.size());
+			}
+			packList.add(pack);
+		}
+		fRoot = (RteDeviceItem)RteDeviceItem.createTree(packList);
+		collectPacks(fRoot);
+	}
+
+	/**
+	 * Returns device tree snapshot for all packs of the collection, takes it from the cache if available
+	 * @param packCollection ICpPackCollection to get the snapshot for
+	 * @return RteDeviceTreeSnapshot or null if packCollection is null
+	 */
+	public static RteDeviceTreeSnapshot getSnapshot(ICpPackCollection packCollection) {
+		if(packCollection == null) {
+			return null;
+		}
+		ICpPack[] packs = collectPacks(packCollection);
+		synchronized (fCache) {
+			for(Iterator<RteDeviceTreeSnapshot> it = fCache.iterator(); it.hasNext();) {
+				RteDeviceTreeSnapshot snapshot = it.next();
+				if(snapshot.isSnapshotOf(packs)) {
+					if(snapshot != fCache.get(0)) {
+						it.remove();
+						fCache.add(0, snapshot);
+					}
+					return snapshot;
+				}
+			}
+		}
+		// build outside the lock, concurrent requests for the same packs are rare
+		RteDeviceTreeSnapshot snapshot = new RteDeviceTreeSnapshot(packs);
+		synchronized (fCache) {
+			fCache.add(0, snapshot);
+			while(fCache.size() > MAX_CACHE_SIZE) {
+				fCache.remove(fCache.size() - 1);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Clears snapshot cache
+	 */
+	public static void clearCache() {
+		synchronized (fCache) {
+			fCache.clear();
+		}
+	}
+
+	private static ICpPack[] collectPacks(ICpPackCollection packCollection) {
+		List<ICpPack> packs = new ArrayList<ICpPack>();
+		Collection<? extends ICpItem> families = packCollection.getChildren();
+		if(families != null) {
+			for(ICpItem family : families) {
+				if(!(family instanceof ICpPackFamily) || family.getChildren() == null) {
+					continue;
+				}
+				for(ICpItem item : family.getChildren()) {
+					if(item instanceof ICpPack) {
+						packs.add((ICpPack)item);
+					}
+				}
+			}
+		}
+		return packs.toArray(new ICpPack[packs.size()]);
+	}
+
+	private boolean isSnapshotOf(ICpPack[] packs) {
+		if(packs.length != fPacks.length) {
+			return false;
+		}
+		for(int i = 0; i < packs.length; i++) {
+			if(packs[i] != fPacks[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private BitSet collectPacks(IRteDeviceItem item) {
+		BitSet packs = new BitSet(fPackIndex.size());
+		Collection<ICpDeviceItem> devices = item.getDevices();
+		if(devices != null) {
+			BitSet namePacks = null;
+			int level = item.getLevel();
+			for(ICpDeviceItem device : devices) {
+				int bit = fPackIndex.get(device.getPack().getId());
+				packs.set(bit);
+				// same criterion as in RteDeviceItem.addDevice()
+				Collection<ICpDeviceItem> subItems = device.getDeviceItems();
+				if(level == EDeviceHierarchyLevel.VARIANT.ordinal() ||
+						(level == EDeviceHierarchyLevel.DEVICE.ordinal() && (subItems == null || subItems.isEmpty()))) {
+					if(namePacks == null) {
+						namePacks = new BitSet(fPackIndex.size());
+					}
+					namePacks.set(bit);
+				}
+			}
+			if(namePacks != null) {
+				fNamePacks.put(item, namePacks);
+			}
+		}
+		Collection<? extends IRteDeviceItem> children = item.getChildren();
+		if(children != null) {
+			for(IRteDeviceItem child : children) {
+				packs.or(collectPacks(child));
+			}
+		}
+		fItemPacks.put(item, packs);
+		return packs;
+	}
+
+	/**
+	 * Returns root of the shared device tree, the tree must not be modified
+	 * @return root IRteDeviceItem
+	 */
+	IRteDeviceItem getRoot() {
+		return fRoot;
+	}
+
+	/**
+	 * Creates a view of the device tree that shows only devices of given packs
+	 * @param packs collection of enabled packs
+	 * @return root of the view or null if some of the packs is not a part of the snapshot
+	 */
+	public IRteDeviceItem createView(Collection<ICpPack> packs) {
+		BitSet enabled = new BitSet(fPackIndex.size());
+		if(packs != null) {
+			for(ICpPack pack : packs) {
+				Integer bit = fPackIndex.get(pack.getId());
+				if(bit == null) {
+					return null;
+				}
+				enabled.set(bit);
+			}
+		}
+		return new RteDeviceView(this, enabled);
+	}
+
+	/**
+	 * Checks if a shared item is visible in a view
+	 * @param item shared IRteDeviceItem
+	 * @param enabled enabled packs of the view
+	 * @return true if any of the enabled packs contributes to the item
+	 */
+	boolean isVisible(IRteDeviceItem item, BitSet enabled) {
+		BitSet packs = fItemPacks.get(item);
+		return packs != null && packs.intersects(enabled);
+	}
+
+	/**
+	 * Checks if name of a shared item belongs to device names in a view
+	 * @param item shared IRteDeviceItem
+	 * @param enabled enabled packs of the view
+	 * @return true if any of the enabled packs adds the item name to device names
+	 */
+	boolean isDeviceName(IRteDeviceItem item, BitSet enabled) {
+		BitSet packs = fNamePacks.get(item);
+		return packs != null && packs.intersects(enabled);
+	}
+
+	/**
+	 * Checks if a pack is enabled in a view
+	 * @param pack ICpPack to check
+	 * @param enabled enabled packs of the view
+	 * @return true if the pack is enabled
+	 */
+	boolean isEnabled(ICpPack pack, BitSet enabled) {
+		Integer bit = fPackIndex.get(pack.getId());
+		return bit != null && enabled.get(bit);
+	}
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+* Copyright (c) 2015 ARM Ltd. and others
+* All rights reserved. This program and the accompanying materials
+* are made available under the terms of the Eclipse Public License v1.0
+* which accompanies this distribution, and is available at
+* http://www.eclipse.org/legal/epl-v10.html
+*
+* Contributors:
+* ARM Ltd and ARM Germany GmbH - Initial API and implementation
+*******************************************************************************/
+
+package com.arm.cmsis.pack.rte.devices;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.arm.cmsis.pack.data.ICpDeviceItem;
+import com.arm.cmsis.pack.data.ICpPack;
+
+/**
+ * Read-only view of a shared {@link RteDeviceTreeSnapshot} that shows only devices of enabled packs.
+ * <p/>
+ * Behaves like a tree created by {@link RteDeviceItem#createTree(Collection)} for the enabled packs.
+ * Child views are created on first access, device lookup uses the name index of the snapshot.
+ * Methods to add or remove devices do nothing.
+ */
+class RteDeviceView extends RteDeviceItem {
+
+	private final RteDeviceTreeSnapshot fSnapshot;
+	private final BitSet fEnabled;		 // enabled packs, shared by all items of the view
+	private final IRteDeviceItem fShared; // item of the snapshot tree
+	private boolean fbExpanded = false;	 // child views are created
+	private Collection<ICpDeviceItem> fEnabledDevices = null; // devices of enabled packs
+	private Set<String> fAllDeviceNames = null;
+
+	/**
+	 * Creates root view
+	 * @param snapshot RteDeviceTreeSnapshot to view
+	 * @param enabled enabled packs
+	 */
+	RteDeviceView(RteDeviceTreeSnapshot snapshot, BitSet enabled) {
+		super();
+		fSnapshot = snapshot;
+		fEnabled = enabled;
+		fShared = snapshot.getRoot();
+	}
+
+	private RteDeviceView(IRteDeviceItem shared, RteDeviceView parent) {
+		super(shared.getName(), shared.getLevel(), parent);
+		fSnapshot = parent.fSnapshot;
+		fEnabled = parent.fEnabled;
+		fShared = shared;
+	}
+
+	/**
+	 * Creates child views for visible children of the shared item
+	 */
+	protected synchronized void expand() {
+		if(fbExpanded) {
+			return;
+		}
+		fbExpanded = true;
+		Map<String, ? extends IRteDeviceItem> sharedChildren = fShared.getChildMap();
+		if(sharedChildren == null) {
+			return;
+		}
+		for(Entry<String, ? extends IRteDeviceItem> e : sharedChildren.entrySet()) {
+			IRteDeviceItem child = e.getValue();
+			if(fSnapshot.isVisible(child, fEnabled)) {
+				if(fChildMap == null) {
+					fChildMap = createMap();
+				}
+				fChildMap.put(e.getKey(), new RteDeviceView(child, this));
+			}
+		}
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		fbExpanded = false;
+	}
+
+	@Override
+	public Map<String, IRteDeviceItem> getChildMap() {
+		expand();
+		return fChildMap;
+	}
+
+	@Override
+	protected Map<String, IRteDeviceItem> childMap() {
+		expand();
+		return super.childMap();
+	}
+
+	@Override
+	public synchronized Collection<? extends IRteDeviceItem> getChildren() {
+		expand();
+		return super.getChildren();
+	}
+
+	@Override
+	public Collection<ICpDeviceItem> getDevices() {
+		if(fEnabledDevices == null) {
+			Collection<ICpDeviceItem> sharedDevices = fShared.getDevices();
+			if(sharedDevices == null) {
+				return null;
+			}
+			List<ICpDeviceItem> devices = new ArrayList<ICpDeviceItem>(sharedDevices.size());
+			for(ICpDeviceItem device : sharedDevices) {
+				if(fSnapshot.isEnabled(device.getPack(), fEnabled)) {
+					devices.add(device);
+				}
+			}
+			if(devices.isEmpty()) {
+				return null;
+			}
+			fEnabledDevices = devices;
+		}
+		return fEnabledDevices;
+	}
+
+	@Override
+	public Set<String> getAllDeviceNames() {
+		if(fAllDeviceNames == null) {
+			Set<String> names = new HashSet<String>();
+			collectDeviceNames(fShared, names);
+			fAllDeviceNames = names;
+		}
+		return fAllDeviceNames;
+	}
+
+	private void collectDeviceNames(IRteDeviceItem shared, Set<String> names) {
+		if(fSnapshot.isDeviceName(shared, fEnabled)) {
+			names.add(shared.getName());
+		}
+		Collection<? extends IRteDeviceItem> children = shared.getChildren();
+		if(children == null) {
+			return;
+		}
+		for(IRteDeviceItem child : children) {
+			if(fSnapshot.isVisible(child, fEnabled)) {
+				collectDeviceNames(child, names);
+			}
+		}
+	}
+
+	@Override
+	protected List<IRteDeviceItem> findIndexedItems(String deviceName, IRteDeviceItem vendorItem, boolean onlyDevice) {
+		IRteDeviceItem sharedVendor = null;
+		if(vendorItem != null) {
+			if(!(vendorItem instanceof RteDeviceView)) {
+				return null;
+			}
+			sharedVendor = ((RteDeviceView)vendorItem).fShared;
+		}
+		List<IRteDeviceItem> sharedItems = ((RteDeviceItem)fSnapshot.getRoot()).findIndexedItems(deviceName, sharedVendor, onlyDevice);
+		if(sharedItems == null) {
+			return null;
+		}
+		List<IRteDeviceItem> found = new ArrayList<IRteDeviceItem>(1);
+		for(IRteDeviceItem item : sharedItems) {
+			if(fSnapshot.isVisible(item, fEnabled)) {
+				found.add(getView(item));
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Returns view of a visible shared item, creates views along its path if needed
+	 * @param shared visible item of the snapshot tree
+	 * @return corresponding item of this view
+	 */
+	protected IRteDeviceItem getView(IRteDeviceItem shared) {
+		LinkedList<IRteDeviceItem> path = new LinkedList<IRteDeviceItem>();
+		for(IRteDeviceItem item = shared; item != null && item != fShared; item = item.getParent()) {
+			path.addFirst(item);
+		}
+		IRteDeviceItem view = this;
+		for(IRteDeviceItem item : path) {
+			view = view.getChildMap().get(item.getName());
+		}
+		return view;
+	}
+
+	@Override
+	public void addDevice(ICpDeviceItem item) {
+		// read-only view
+	}
+
+	@Override
+	public void addDevices(ICpPack pack) {
+		// read-only view
+	}
+
+	@Override
+	public void removeDevice(ICpDeviceItem item) {
+		// read-only view
+	}
+
+	@Override
+	public void removeDevices(ICpPack pack) {
+		// read-only view
+	}
+}